@@ -0,0 +1,147 @@
+package com.suneth.hotel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Time from launching the application to its first answered request, for the builds of the
+ * fast-startup profile:
+ * <ul>
+ *     <li>jvm: the plain jar on a JVM</li>
+ *     <li>cds-aot: the same jar with the class data sharing archive and the Spring AOT initializers</li>
+ *     <li>native: the GraalVM native image, if it was built</li>
+ * </ul>
+ * Every invocation starts a new process against its own in-memory H2 database, so the time includes
+ * running the migrations on an empty schema. Run after the fast-startup build:
+ * ./mvnw -P fast-startup,benchmark -DskipTests verify -Djmh.args=FirstRequestBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FirstRequestBenchmark {
+
+    private static final Path FAST_STARTUP_DIRECTORY = Path.of("target", "fast-startup");
+    private static final Path NATIVE_IMAGE = Path.of("target", "hotel-mng-backend");
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+
+    @Param({"jvm", "cds-aot", "native"})
+    private String variant;
+
+    private List<String> command;
+    private HttpClient client;
+    private Process process;
+    private int run;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        command = new ArrayList<>();
+        if (variant.equals("native")) {
+            if (!Files.isExecutable(NATIVE_IMAGE)) {
+                throw new IllegalStateException("No native image at " + NATIVE_IMAGE
+                        + "; build it with ./mvnw -P fast-startup,native -DskipTests native:compile");
+            }
+            command.add(NATIVE_IMAGE.toAbsolutePath().toString());
+        } else {
+            command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            if (variant.equals("cds-aot")) {
+                command.add("-XX:SharedArchiveFile=" + FAST_STARTUP_DIRECTORY.resolve("app.jsa").toAbsolutePath());
+                command.add("-Dspring.aot.enabled=true");
+            }
+            command.add("-jar");
+            command.add(applicationJar().toAbsolutePath().toString());
+        }
+        command.add("--spring.datasource.driver-class-name=org.h2.Driver");
+        command.add("--hotel.photos.directory=" + FAST_STARTUP_DIRECTORY.resolve("photos").toAbsolutePath());
+        command.add("--logging.level.root=WARN");
+        client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    }
+
+    @Benchmark
+    public int firstRequest() throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> processCommand = new ArrayList<>(command);
+        processCommand.add("--server.port=" + port);
+        processCommand.add("--spring.datasource.url=jdbc:h2:mem:first-request-" + run++ + ";MODE=MySQL;NON_KEYWORDS=USER");
+        process = new ProcessBuilder(processCommand)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        return awaitFirstResponse(port);
+    }
+
+    @TearDown(Level.Invocation)
+    public void stopApplication() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+            process = null;
+        }
+    }
+
+    // Polls the room catalog until the application answers it
+    private int awaitFirstResponse(int port) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/rooms")).build();
+        long deadline = System.nanoTime() + START_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with code " + process.exitValue());
+            }
+            try {
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status != 200) {
+                    throw new IllegalStateException("First request answered with status " + status);
+                }
+                return status;
+            } catch (ConnectException e) {
+                Thread.sleep(5);
+            }
+        }
+        throw new IllegalStateException("Application did not answer within " + START_TIMEOUT);
+    }
+
+    private static Path applicationJar() throws IOException {
+        try (Stream<Path> files = Files.list(FAST_STARTUP_DIRECTORY)) {
+            return files.filter(file -> file.getFileName().toString().endsWith("-app.jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No application jar in " + FAST_STARTUP_DIRECTORY
+                            + "; build it with ./mvnw -P fast-startup -DskipTests verify"));
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
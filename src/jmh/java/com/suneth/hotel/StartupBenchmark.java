@@ -0,0 +1,61 @@
+package com.suneth.hotel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to start the application against an existing embedded H2 schema, with the schema checked by
+ * the Flyway migrations and Hibernate validation, or diffed and updated by Hibernate as before.
+ * The schema is created once per trial, so every measured start is a restart of an up-to-date database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupBenchmark {
+
+    @Param({"migrations", "hibernate-update"})
+    private String schema;
+
+    private String[] args;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String url = "jdbc:h2:mem:startup-" + schema + ";MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1";
+        args = schema.equals("migrations")
+                ? new String[]{"--spring.datasource.url=" + url, "--logging.level.root=WARN"}
+                : new String[]{"--spring.datasource.url=" + url, "--logging.level.root=WARN",
+                "--spring.flyway.enabled=false", "--spring.jpa.hibernate.ddl-auto=update"};
+        start().close();
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext restart() {
+        ConfigurableApplicationContext context = start();
+        context.close();
+        return context;
+    }
+
+    private ConfigurableApplicationContext start() {
+        SpringApplication application = new SpringApplication(HotelMngBackendApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        return application.run(args);
+    }
+}
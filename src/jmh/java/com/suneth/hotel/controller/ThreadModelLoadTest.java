@@ -0,0 +1,215 @@
+package com.suneth.hotel.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop load test of the availability search and booking endpoints, used to compare the
+ * platform thread and virtual thread request execution modes.
+ * <p>
+ * Start the application once per mode against the same database, run this harness against it with a
+ * different label, and compare the JSON summaries (throughput, p50/p99/max latency, rejections):
+ * <pre>
+ * java -jar target/hotel-mng-backend-0.0.1-SNAPSHOT.jar
+ * ./mvnw -P benchmark test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.suneth.hotel.controller.ThreadModelLoadTest \
+ *     -Dexec.args="http://localhost:9192 platform 400 60"
+ *
+ * java -Dhotel.threads.virtual=true -jar target/hotel-mng-backend-0.0.1-SNAPSHOT.jar   # on Java 21
+ * ./mvnw ... -Dexec.args="http://localhost:9192 virtual 400 60"
+ * </pre>
+ * Arguments: base URL, label, number of concurrent clients, duration in seconds, and optionally the
+ * share of requests that are bookings (default 0.1). The summary is printed and written to
+ * target/load-&lt;label&gt;.json.
+ */
+public class ThreadModelLoadTest {
+
+    private static final String SEARCH = "availability-search";
+    private static final String BOOKING = "booking";
+    private static final List<String> ROOM_TYPES = List.of("Single", "Double", "Deluxe", "Suite");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client;
+    private final String baseUrl;
+    private final double bookingShare;
+    private final List<Long> roomIds;
+
+    private ThreadModelLoadTest(String baseUrl, double bookingShare) throws Exception {
+        this.baseUrl = baseUrl;
+        this.bookingShare = bookingShare;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newCachedThreadPool())
+                .build();
+        this.roomIds = fetchRoomIds();
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:9192";
+        String label = args.length > 1 ? args[1] : "run";
+        int clients = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+        double bookingShare = args.length > 4 ? Double.parseDouble(args[4]) : 0.1;
+
+        ThreadModelLoadTest loadTest = new ThreadModelLoadTest(baseUrl, bookingShare);
+        ObjectNode summary = loadTest.run(label, clients, Duration.ofSeconds(seconds));
+        String json = loadTest.objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(summary);
+        System.out.println(json);
+        Path output = Path.of("target", "load-" + label + ".json");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, json);
+        System.exit(0);
+    }
+
+    private ObjectNode run(String label, int clients, Duration duration) throws InterruptedException {
+        List<Map<String, Recorder>> perClient = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        long deadline = System.nanoTime() + duration.toNanos();
+        for (int i = 0; i < clients; i++) {
+            Map<String, Recorder> recorders = Map.of(SEARCH, new Recorder(), BOOKING, new Recorder());
+            perClient.add(recorders);
+            executor.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    boolean booking = ThreadLocalRandom.current().nextDouble() < bookingShare;
+                    recorders.get(booking ? BOOKING : SEARCH).record(booking ? this::book : this::search);
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+
+        ObjectNode summary = objectMapper.createObjectNode();
+        summary.put("label", label);
+        summary.put("clients", clients);
+        summary.put("durationSeconds", duration.toSeconds());
+        for (String endpoint : List.of(SEARCH, BOOKING)) {
+            Recorder merged = new Recorder();
+            perClient.forEach(recorders -> merged.merge(recorders.get(endpoint)));
+            summary.set(endpoint, merged.summarize(duration));
+        }
+        return summary;
+    }
+
+    private int search() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate checkIn = LocalDate.now().plusDays(random.nextInt(365));
+        LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(7));
+        String roomType = ROOM_TYPES.get(random.nextInt(ROOM_TYPES.size()));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/rooms/available-rooms?checkInDate="
+                        + checkIn + "&checkOutDate=" + checkOut + "&roomType=" + roomType))
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private int book() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long roomId = roomIds.get(random.nextInt(roomIds.size()));
+        LocalDate checkIn = LocalDate.now().plusDays(random.nextInt(730));
+        Map<String, Object> body = new HashMap<>();
+        body.put("checkInDate", checkIn.toString());
+        body.put("checkOutDate", checkIn.plusDays(1 + random.nextInt(5)).toString());
+        body.put("guestFullName", "Load Test");
+        body.put("guestEmail", "load@example.com");
+        body.put("numOfAdults", 1);
+        body.put("numOfChildren", 0);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/bookings/" + roomId + "/booking"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private List<Long> fetchRoomIds() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/rooms?size=100")).GET().build();
+        JsonNode page = objectMapper.readTree(client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+        List<Long> ids = new ArrayList<>();
+        page.path("content").forEach(room -> ids.add(room.path("id").asLong()));
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No rooms to book at " + baseUrl);
+        }
+        return ids;
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        int send() throws Exception;
+    }
+
+    // Latencies and outcomes of one endpoint, recorded by a single client thread
+    private static final class Recorder {
+        private long[] latencies = new long[1024];
+        private int count;
+        private int rejected;
+        private int errors;
+
+        void record(Call call) {
+            long startedAt = System.nanoTime();
+            int status;
+            try {
+                status = call.send();
+            } catch (Exception e) {
+                status = -1;
+            }
+            long latency = System.nanoTime() - startedAt;
+            if (status == 400 || status == 429) {
+                rejected++;
+            } else if (status < 200 || status >= 300) {
+                errors++;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+        }
+
+        void merge(Recorder other) {
+            latencies = Arrays.copyOf(latencies, count + other.count);
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            rejected += other.rejected;
+            errors += other.errors;
+        }
+
+        ObjectNode summarize(Duration duration) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            ObjectNode node = new ObjectMapper().createObjectNode();
+            node.put("requests", count);
+            node.put("throughputPerSecond", count / (double) duration.toSeconds());
+            node.put("rejected", rejected);
+            node.put("errors", errors);
+            node.put("p50Millis", percentile(sorted, 0.50));
+            node.put("p99Millis", percentile(sorted, 0.99));
+            node.put("maxMillis", count == 0 ? 0 : sorted[count - 1] / 1e6);
+            return node;
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
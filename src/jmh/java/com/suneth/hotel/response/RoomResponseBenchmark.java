@@ -0,0 +1,92 @@
+package com.suneth.hotel.response;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.suneth.hotel.model.Room;
+import com.suneth.hotel.model.RoomType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a page of rooms into RoomResponse objects and of serializing them with Jackson.
+ * <p>
+ * The photo parameter compares responses without a photo, with the photo URL the API returns, and
+ * with the photo inlined as Base64 the way room listings used to send it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoomResponseBenchmark {
+
+    private static final int PHOTO_BYTES = 200 * 1024;
+
+    @Param({"20", "400"})
+    private int roomCount;
+
+    @Param({"none", "url", "base64"})
+    private String photo;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<Room> rooms;
+    private byte[] photoBytes;
+    private List<RoomResponse> responses;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        photoBytes = new byte[PHOTO_BYTES];
+        random.nextBytes(photoBytes);
+        rooms = new ArrayList<>();
+        RoomType deluxe = new RoomType("Deluxe");
+        RoomType single = new RoomType("Single");
+        for (int i = 0; i < roomCount; i++) {
+            Room room = new Room();
+            room.setId((long) i + 1);
+            room.setType(i % 2 == 0 ? deluxe : single);
+            room.setRoomPrice(BigDecimal.valueOf(100 + i));
+            room.setPhotoHash(String.format("%064x", i));
+            rooms.add(room);
+        }
+        responses = mapRooms();
+    }
+
+    @Benchmark
+    public List<RoomResponse> mapRooms() {
+        List<RoomResponse> mapped = new ArrayList<>(rooms.size());
+        for (Room room : rooms) {
+            mapped.add(new RoomResponse(room.getId(), room.getRoomType(), room.getRoomPrice(), room.isBooked(), photoOf(room)));
+        }
+        return mapped;
+    }
+
+    @Benchmark
+    public byte[] serializeRooms() throws Exception {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+
+    private String photoOf(Room room) {
+        return switch (photo) {
+            case "url" -> "http://localhost:9192/api/v1/rooms/" + room.getId() + "/photo?v=" + room.getPhotoHash();
+            case "base64" -> Base64.getEncoder().encodeToString(photoBytes);
+            default -> null;
+        };
+    }
+}
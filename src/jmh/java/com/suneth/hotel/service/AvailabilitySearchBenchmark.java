@@ -0,0 +1,140 @@
+package com.suneth.hotel.service;
+
+import com.suneth.hotel.HotelMngBackendApplication;
+import com.suneth.hotel.model.BookedRoom;
+import com.suneth.hotel.model.Room;
+import com.suneth.hotel.repository.BookingRepository;
+import com.suneth.hotel.repository.RoomRepository;
+import com.suneth.hotel.response.FlexibleStayResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end availability search through IRoomService against an embedded H2 database seeded with
+ * synthetic rooms and bookings, for both availability engines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvailabilitySearchBenchmark {
+
+    private static final List<String> ROOM_TYPES = List.of("Single", "Double", "Deluxe", "Suite");
+    private static final int QUERIES = 256;
+
+    @Param({"query", "calendar"})
+    private String engine;
+
+    @Param({"400"})
+    private int roomCount;
+
+    @Param({"25"})
+    private int bookingsPerRoom;
+
+    private ConfigurableApplicationContext context;
+    private IRoomService roomService;
+    private LocalDate[] checkIns;
+    private LocalDate[] checkOuts;
+    private String[] roomTypes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SpringApplication application = new SpringApplication(HotelMngBackendApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.setDefaultProperties(Map.of(
+                "hotel.availability.engine", engine,
+                "spring.datasource.url", "jdbc:h2:mem:bench;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+                "logging.level.root", "WARN"));
+        context = application.run();
+        seed(context.getBean(RoomRepository.class), context.getBean(BookingRepository.class),
+                context.getBean(IRoomTypeService.class));
+        context.getBeanProvider(RoomAvailabilityCalendar.class).ifAvailable(RoomAvailabilityCalendar::rebuild);
+        roomService = context.getBean(IRoomService.class);
+
+        Random random = new Random(7);
+        LocalDate today = LocalDate.now();
+        checkIns = new LocalDate[QUERIES];
+        checkOuts = new LocalDate[QUERIES];
+        roomTypes = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            checkIns[i] = today.plusDays(random.nextInt(365));
+            checkOuts[i] = checkIns[i].plusDays(1 + random.nextInt(7));
+            roomTypes[i] = ROOM_TYPES.get(random.nextInt(ROOM_TYPES.size()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Room> availableRooms() {
+        int query = next++ & (QUERIES - 1);
+        return roomService.getAvailableRooms(checkIns[query], checkOuts[query], roomTypes[query]);
+    }
+
+    // Any 3 nights in the 30 days from the query's check-in date, i.e. 28 fixed-date searches in one call
+    @Benchmark
+    public List<FlexibleStayResponse> flexibleStays() {
+        int query = next++ & (QUERIES - 1);
+        return roomService.getFlexibleStays(checkIns[query], checkIns[query].plusDays(30), 3, roomTypes[query]);
+    }
+
+    // Non-overlapping stays spread over the next year for every room
+    private void seed(RoomRepository roomRepository, BookingRepository bookingRepository,
+                      IRoomTypeService roomTypeService) {
+        Random random = new Random(42);
+        LocalDate today = LocalDate.now();
+        List<Room> rooms = new ArrayList<>();
+        for (int i = 0; i < roomCount; i++) {
+            Room room = new Room();
+            room.setType(roomTypeService.getOrCreate(ROOM_TYPES.get(i % ROOM_TYPES.size())));
+            room.setRoomPrice(BigDecimal.valueOf(80 + random.nextInt(200)));
+            // Flexible searches only offer rooms with a photo
+            room.setPhotoHash("0".repeat(64));
+            rooms.add(room);
+        }
+        rooms = roomRepository.saveAll(rooms);
+
+        List<BookedRoom> bookings = new ArrayList<>();
+        for (Room room : rooms) {
+            LocalDate checkIn = today.plusDays(random.nextInt(7));
+            for (int i = 0; i < bookingsPerRoom; i++) {
+                BookedRoom booking = new BookedRoom();
+                booking.setCheckInDate(checkIn);
+                booking.setCheckOutDate(checkIn.plusDays(1 + random.nextInt(5)));
+                booking.setGuestFullName("Guest " + i);
+                booking.setRoom(room);
+                bookings.add(booking);
+                checkIn = booking.getCheckOutDate().plusDays(random.nextInt(14));
+            }
+        }
+        bookingRepository.saveAll(bookings);
+    }
+}
@@ -0,0 +1,85 @@
+package com.suneth.hotel.service;
+
+import com.suneth.hotel.service.BookingIntervalIndex.RoomIntervals;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one booking conflict check as a room's booking history grows.
+ * Compares the interval index used by saveBooking with a linear scan over the same bookings,
+ * which is what checking against the room's bookings collection costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingConflictBenchmark {
+
+    private static final int QUERIES = 1024;
+
+    @Param({"10", "100", "1000", "10000"})
+    private int historySize;
+
+    private RoomIntervals intervals;
+    private long[] starts;
+    private long[] ends;
+    private long[] queryStarts;
+    private long[] queryEnds;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        // Back-to-back stays of one to five nights, the shape of a busy room's history
+        starts = new long[historySize];
+        ends = new long[historySize];
+        intervals = RoomIntervals.of(List.of());
+        long day = 0;
+        for (int i = 0; i < historySize; i++) {
+            starts[i] = day;
+            ends[i] = day + 1 + random.nextInt(5);
+            intervals = intervals.with(i + 1, starts[i], ends[i]);
+            day = ends[i] + random.nextInt(3);
+        }
+        queryStarts = new long[QUERIES];
+        queryEnds = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queryStarts[i] = random.nextInt((int) day + 1);
+            queryEnds[i] = queryStarts[i] + 1 + random.nextInt(7);
+        }
+    }
+
+    @Benchmark
+    public boolean intervalIndex() {
+        int query = next++ & (QUERIES - 1);
+        return intervals.overlaps(queryStarts[query], queryEnds[query]);
+    }
+
+    @Benchmark
+    public boolean linearScan() {
+        int query = next++ & (QUERIES - 1);
+        long start = queryStarts[query];
+        long end = queryEnds[query];
+        for (int i = 0; i < starts.length; i++) {
+            if (starts[i] < end && start < ends[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,54 @@
+package com.suneth.hotel.service;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Confirmation code generation throughput as more threads share one generator.
+ * The random 10 digit codes the generator replaced are included as a baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfirmationCodeBenchmark {
+
+    private final ConfirmationCodeGenerator generator = new ConfirmationCodeGenerator(1, System::currentTimeMillis);
+
+    @Benchmark
+    @Threads(1)
+    public String generatorOneThread() {
+        return generator.next();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generatorFourThreads() {
+        return generator.next();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String generatorAllThreads() {
+        return generator.next();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String randomNumericAllThreads() {
+        return RandomStringUtils.randomNumeric(10);
+    }
+}
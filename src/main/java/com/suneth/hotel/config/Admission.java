@@ -0,0 +1,25 @@
+package com.suneth.hotel.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Puts a controller endpoint under admission control, see {@link AdmissionConfig}.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Admission {
+
+    Priority value();
+
+    enum Priority {
+        // Never rejected; takes capacity away from searches while it runs
+        BOOKING,
+        // Rate limited per client and limited in concurrency; rejected with 429 under overload
+        SEARCH
+    }
+}
@@ -0,0 +1,135 @@
+package com.suneth.hotel.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for endpoints marked with {@link Admission}.
+ * <p>
+ * Searches first take a token from their client's bucket ({@code hotel.admission.search-rate} per
+ * second, up to {@code search-burst} at once), then a slot from the {@link AdmissionGate}. A search
+ * that is over its client's rate, or would queue longer than {@code max-queue-wait}, gets a 429 with
+ * a {@code Retry-After} header right away instead of adding to the load. Bookings are never rejected
+ * and take priority over searches for the slots.
+ * <p>
+ * Decisions are counted in {@code hotel.admission.admitted} and {@code hotel.admission.rejected}
+ * (tagged with the reason); running and queued requests are gauges.
+ */
+@Configuration
+@ConditionalOnProperty(name = "hotel.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionConfig implements WebMvcConfigurer {
+
+    private static final String ADMITTED = "hotel.admission.admitted";
+    private static final String REJECTED = "hotel.admission.rejected";
+    private static final String SEARCH_START = AdmissionConfig.class.getName() + ".searchStart";
+    private static final String BOOKING_PERMIT = AdmissionConfig.class.getName() + ".bookingPermit";
+    private static final int MAX_CLIENTS = 100_000;
+
+    private final AdmissionProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final AdmissionGate gate;
+    // Buckets of recently seen clients; a client that comes back after eviction starts with a full bucket
+    private final Cache<String, TokenBucket> buckets = Caffeine.newBuilder()
+            .maximumSize(MAX_CLIENTS)
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .build();
+
+    public AdmissionConfig(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.gate = new AdmissionGate(properties.getMaxConcurrentSearches(),
+                properties.getMaxQueueWait().toNanos(), meterRegistry);
+    }
+
+    // Runs before the other interceptors so that rejected requests cost as little as possible
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+                    throws IOException {
+                Admission admission = handler instanceof HandlerMethod handlerMethod
+                        ? handlerMethod.getMethodAnnotation(Admission.class) : null;
+                if (admission == null) {
+                    return true;
+                }
+                if (admission.value() == Admission.Priority.BOOKING) {
+                    request.setAttribute(BOOKING_PERMIT, gate.bookingStarted());
+                    meterRegistry.counter(ADMITTED, "priority", "booking").increment();
+                    return true;
+                }
+                long now = System.nanoTime();
+                long wait = buckets.get(clientKey(request, properties),
+                        key -> new TokenBucket(properties.getSearchRate(), properties.getSearchBurst(), now))
+                        .tryTake(now);
+                if (wait > 0) {
+                    return reject(response, "rate_limited", wait);
+                }
+                wait = gate.admitSearch();
+                if (wait != AdmissionGate.ADMITTED) {
+                    return reject(response, "overloaded", wait);
+                }
+                request.setAttribute(SEARCH_START, System.nanoTime());
+                meterRegistry.counter(ADMITTED, "priority", "search").increment();
+                return true;
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                        Exception ex) {
+                if (request.getAttribute(SEARCH_START) instanceof Long start) {
+                    request.removeAttribute(SEARCH_START);
+                    gate.searchFinished(start);
+                } else if (request.getAttribute(BOOKING_PERMIT) instanceof Boolean heldPermit) {
+                    request.removeAttribute(BOOKING_PERMIT);
+                    gate.bookingFinished(heldPermit);
+                }
+            }
+        }).order(Ordered.HIGHEST_PRECEDENCE);
+    }
+
+    // Helper method to identify the client by the configured header or the remote address.
+    // Clients can send any X-Forwarded-For they like, and each proxy appends the address it was
+    // connected from, so only the entry added by the outermost trusted proxy identifies the client.
+    // Without trusted proxies nothing in the header can be believed; with fewer entries than trusted
+    // proxies the leftmost one is the best there is.
+    static String clientKey(HttpServletRequest request, AdmissionProperties properties) {
+        if (StringUtils.hasText(properties.getClientHeader()) && properties.getTrustedProxies() > 0) {
+            String value = request.getHeader(properties.getClientHeader());
+            if (StringUtils.hasText(value)) {
+                String[] hops = StringUtils.commaDelimitedListToStringArray(value);
+                return hops[Math.max(0, hops.length - properties.getTrustedProxies())].trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    // Helper method to answer 429 with the number of whole seconds after which to try again
+    private boolean reject(HttpServletResponse response, String reason, long retryAfterNanos) throws IOException {
+        meterRegistry.counter(REJECTED, "priority", "search", "reason", reason).increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos + 999_999_999L));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write("Too Many Searches, Please Try Again In " + retryAfterSeconds + " Seconds.");
+        return false;
+    }
+}
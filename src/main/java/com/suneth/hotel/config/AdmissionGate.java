@@ -0,0 +1,87 @@
+package com.suneth.hotel.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency limit for searches, with bookings taking priority.
+ * <p>
+ * Searches take a permit from a semaphore. When none is free a search queues, but only if the
+ * expected wait, estimated from the number already queued and the average search time, stays under
+ * the queue wait target; otherwise it is turned away immediately. A booking never waits: it takes a
+ * free permit if there is one and holds it while it runs, so searches get fewer slots while guests
+ * are booking. Free permits are taken with a compare-and-set; only queued searches block.
+ */
+final class AdmissionGate {
+
+    static final long ADMITTED = 0;
+
+    private final Semaphore searchPermits;
+    private final int maxConcurrentSearches;
+    private final long maxQueueWaitNanos;
+    private final AtomicInteger queuedSearches = new AtomicInteger();
+    private final AtomicInteger runningSearches = new AtomicInteger();
+    private final AtomicInteger runningBookings = new AtomicInteger();
+    // Moving average of the time a search holds its permit
+    private final AtomicLong averageSearchNanos = new AtomicLong();
+
+    AdmissionGate(int maxConcurrentSearches, long maxQueueWaitNanos, MeterRegistry meterRegistry) {
+        this.maxConcurrentSearches = Math.max(1, maxConcurrentSearches);
+        this.searchPermits = new Semaphore(this.maxConcurrentSearches);
+        this.maxQueueWaitNanos = maxQueueWaitNanos;
+        meterRegistry.gauge("hotel.admission.running", Tags.of("priority", "search"), runningSearches);
+        meterRegistry.gauge("hotel.admission.running", Tags.of("priority", "booking"), runningBookings);
+        meterRegistry.gauge("hotel.admission.queued", queuedSearches);
+    }
+
+    // Method to admit a search. Returns ADMITTED once it holds a permit, otherwise the nanos after
+    // which the client should try again.
+    long admitSearch() {
+        if (!searchPermits.tryAcquire()) {
+            long expectedWait = (queuedSearches.get() + 1) * averageSearchNanos.get() / maxConcurrentSearches;
+            if (expectedWait > maxQueueWaitNanos) {
+                return expectedWait;
+            }
+            queuedSearches.incrementAndGet();
+            try {
+                if (!searchPermits.tryAcquire(maxQueueWaitNanos, TimeUnit.NANOSECONDS)) {
+                    return maxQueueWaitNanos;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return maxQueueWaitNanos;
+            } finally {
+                queuedSearches.decrementAndGet();
+            }
+        }
+        runningSearches.incrementAndGet();
+        return ADMITTED;
+    }
+
+    // Method to give back the permit of an admitted search that started at the given time
+    void searchFinished(long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        averageSearchNanos.accumulateAndGet(elapsed,
+                (average, sample) -> average == 0 ? sample : average + (sample - average) / 8);
+        runningSearches.decrementAndGet();
+        searchPermits.release();
+    }
+
+    // Method to record a booking starting. Returns whether it took a search permit.
+    boolean bookingStarted() {
+        runningBookings.incrementAndGet();
+        return searchPermits.tryAcquire();
+    }
+
+    void bookingFinished(boolean heldPermit) {
+        runningBookings.decrementAndGet();
+        if (heldPermit) {
+            searchPermits.release();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.suneth.hotel.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "hotel.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+
+    // Header that identifies the client, such as X-Forwarded-For behind a proxy; the remote address if empty
+    private String clientHeader;
+
+    // Proxies in front of the application that append to the client header; the client is the entry
+    // the outermost of them added, counted from the right. With 0 the header is ignored.
+    private int trustedProxies = 1;
+
+    // Searches each client may run per second on average
+    private double searchRate = 10;
+
+    // Searches a client may run in a burst before the rate applies
+    private int searchBurst = 30;
+
+    // Searches running at the same time; bookings in progress take slots from this
+    private int maxConcurrentSearches = 8;
+
+    // Longest a search may wait for a slot; searches that would wait longer are rejected right away
+    private Duration maxQueueWait = Duration.ofMillis(200);
+}
@@ -0,0 +1,17 @@
+package com.suneth.hotel.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "hotel.analytics")
+public class AnalyticsProperties {
+
+    // Months of the occupancy rollup rebuilt at once; each holds a database connection while it runs
+    private int rebuildThreads = 4;
+
+    // Longest date range the daily occupancy endpoint returns in one response
+    private int maxDailyRangeDays = 3660;
+}
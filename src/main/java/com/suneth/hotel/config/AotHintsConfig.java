@@ -0,0 +1,40 @@
+package com.suneth.hotel.config;
+
+import com.suneth.hotel.response.BookingResponse;
+import com.suneth.hotel.response.PageResponse;
+import com.suneth.hotel.response.RoomResponse;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Reflection and resource hints for the native image build of the fast-startup profile, for what
+ * Spring AOT cannot see from the bean definitions and controller signatures alone:
+ * <ul>
+ *     <li>responses serialized with the ObjectMapper directly rather than returned from a controller:
+ *     the catalog pages cached as JSON and the booking export lines</li>
+ *     <li>the Flyway migrations, which live in one directory per database vendor</li>
+ *     <li>the virtual thread executor that {@link VirtualThreadConfig} looks up reflectively</li>
+ * </ul>
+ * Entities need no hints: Lombok generates plain accessors at compile time and Hibernate's
+ * own AOT support registers the managed types.
+ */
+@Configuration
+@ImportRuntimeHints(AotHintsConfig.Hints.class)
+@RegisterReflectionForBinding({PageResponse.class, RoomResponse.class, BookingResponse.class})
+public class AotHintsConfig {
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.resources().registerPattern("db/migration/*/*.sql");
+            hints.reflection().registerType(Executors.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+    }
+}
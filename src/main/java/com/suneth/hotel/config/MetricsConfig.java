@@ -0,0 +1,25 @@
+package com.suneth.hotel.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables {@link io.micrometer.core.annotation.Timed} on the service classes.
+ * <p>
+ * Timed services record {@value #SERVICE_TIMER} with the class and method as tags; endpoints are
+ * timed by Spring Boot as {@code http.server.requests}. Histogram buckets and p50/p95/p99 for both
+ * are configured under {@code management.metrics.distribution} and scraped from
+ * {@code /actuator/prometheus}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    public static final String SERVICE_TIMER = "hotel.service";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
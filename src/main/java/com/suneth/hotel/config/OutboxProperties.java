@@ -0,0 +1,30 @@
+package com.suneth.hotel.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "hotel.outbox")
+public class OutboxProperties {
+
+    // Whether this instance delivers outbox events; every instance writes them either way
+    private boolean dispatcherEnabled = true;
+
+    // Pause between polls of the outbox when it has been drained
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    // Events handed to the sink at once
+    private int batchSize = 100;
+
+    // Delay before retrying a failed batch, doubled on each further failure up to maxBackoff
+    private Duration initialBackoff = Duration.ofSeconds(1);
+
+    private Duration maxBackoff = Duration.ofMinutes(10);
+
+    // Where the file sink (hotel.outbox.sink=file) appends events, one JSON object per line
+    private String file = "./data/booking-events.ndjson";
+}
@@ -0,0 +1,25 @@
+package com.suneth.hotel.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "hotel.photos")
+public class PhotoStorageProperties {
+
+    // Root directory where photos are stored, one file per content hash
+    private String directory = "./data/photos";
+
+    // How long clients may cache a photo; content is immutable for a given hash
+    private Duration cacheMaxAge = Duration.ofDays(365);
+
+    // Number of photos resized in parallel; each one holds a decoded image in memory
+    private int variantThreads = 2;
+
+    // Uploads waiting for resizing beyond this are marked FAILED and keep serving the original
+    private int variantQueueCapacity = 500;
+}
@@ -0,0 +1,34 @@
+package com.suneth.hotel.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "hotel.datasource.replica")
+public class ReadReplicaProperties {
+
+    // JDBC URL of the read replica; reads stay on spring.datasource when it is not set
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    private String driverClassName;
+
+    private int maximumPoolSize = 10;
+
+    // How long to wait for a replica connection before falling back to the primary
+    private Duration connectionTimeout = Duration.ofSeconds(1);
+
+    // After a failed connection the replica is skipped for this long
+    private Duration retryInterval = Duration.ofSeconds(30);
+
+    // Reads of a client that wrote less than this long ago go to the primary, so that it sees its
+    // own booking. Should cover the replica's usual replication lag.
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+}
@@ -0,0 +1,106 @@
+package com.suneth.hotel.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Hands out replica connections to read-only transactions of requests that may read from the
+ * replica, and primary connections to everything else.
+ * <p>
+ * Whether a request may use the replica is decided by {@link ReadYourWritesFilter}; background work
+ * never does. The read-only flag of a transaction is only known once the transaction has started,
+ * so this must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * that fetches the connection on the first statement. When the replica cannot be reached the
+ * connection comes from the primary and the replica is left alone for the retry interval.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final ThreadLocal<Boolean> REPLICA_ALLOWED = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long retryIntervalNanos;
+    private volatile long replicaDownSince;
+    private volatile boolean replicaDown;
+
+    ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration retryInterval) {
+        this.primary = primary;
+        this.replica = replica;
+        this.retryIntervalNanos = retryInterval.toNanos();
+    }
+
+    // Lets read-only transactions on the current thread use the replica until clear is called
+    static void allowReplica(boolean allowed) {
+        REPLICA_ALLOWED.set(allowed);
+    }
+
+    static void clear() {
+        REPLICA_ALLOWED.remove();
+    }
+
+    // Runs the work with all reads on the primary, for results that are kept beyond the request
+    public static <T> T readFromPrimary(Supplier<T> work) {
+        Boolean allowed = REPLICA_ALLOWED.get();
+        REPLICA_ALLOWED.set(false);
+        try {
+            return work.get();
+        } finally {
+            if (allowed == null) {
+                REPLICA_ALLOWED.remove();
+            } else {
+                REPLICA_ALLOWED.set(allowed);
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!useReplica()) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            replicaFailed(e);
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (!useReplica()) {
+            return primary.getConnection(username, password);
+        }
+        try {
+            return replica.getConnection(username, password);
+        } catch (SQLException e) {
+            replicaFailed(e);
+            return primary.getConnection(username, password);
+        }
+    }
+
+    // Helper method to decide whether the connection being requested may come from the replica
+    private boolean useReplica() {
+        if (!Boolean.TRUE.equals(REPLICA_ALLOWED.get())
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return false;
+        }
+        return !replicaDown || System.nanoTime() - replicaDownSince >= retryIntervalNanos;
+    }
+
+    // Helper method to send reads to the primary for the retry interval
+    private void replicaFailed(SQLException e) {
+        replicaDownSince = System.nanoTime();
+        replicaDown = true;
+        log.warn("Read replica unavailable, reading from the primary for {} ms: {}",
+                retryIntervalNanos / 1_000_000, e.getMessage());
+    }
+}
@@ -0,0 +1,49 @@
+package com.suneth.hotel.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Adds a {@code Server-Timing} header with the time the application spent on the request, so that
+ * browser dev tools and load tests see server time separately from network time.
+ * <p>
+ * Headers can only be set before the response is committed. Responses with a body get the header
+ * from {@link ServerTimingResponseAdvice} just before the body is written; responses without one,
+ * such as 204 and 304, get it here once the request has been handled.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Server-Timing";
+    private static final String START_ATTRIBUTE = ServerTimingFilter.class.getName() + ".start";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        filterChain.doFilter(request, response);
+        if (!response.isCommitted() && !response.containsHeader(HEADER) && !request.isAsyncStarted()) {
+            response.setHeader(HEADER, headerValue(request));
+        }
+    }
+
+    // Returns the Server-Timing header value for the time elapsed since the request came in
+    static String headerValue(HttpServletRequest request) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (!(start instanceof Long startNanos)) {
+            return null;
+        }
+        double millis = (System.nanoTime() - startNanos) / 1_000_000.0;
+        return String.format(Locale.ROOT, "app;dur=%.1f", millis);
+    }
+}
@@ -0,0 +1,28 @@
+package com.suneth.hotel.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares how much SQL one request to a controller endpoint may issue.
+ * <p>
+ * Endpoints without the annotation get the defaults from {@code hotel.sql-budget}. A value of -1
+ * means the default applies. See {@link SqlBudgetConfig} for how budgets are enforced.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface SqlBudget {
+
+    // Most statements the request may execute; a JDBC batch counts once
+    int statements() default -1;
+
+    // Most times the request may execute the same SQL; more is the signature of an N+1 query
+    int sameStatement() default -1;
+
+    // Most bytes the request may read from result sets, estimated from the values read
+    long bytes() default -1;
+}
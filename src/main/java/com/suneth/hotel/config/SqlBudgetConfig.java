@@ -0,0 +1,103 @@
+package com.suneth.hotel.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.Locale;
+
+/**
+ * Per-request SQL budgets, for tests and staging.
+ * <p>
+ * Enabled with {@code hotel.sql-budget.enforcement} set to {@code warn} or {@code fail} instead of
+ * {@code none}. The data source is then wrapped to count the statements each request executes and
+ * the bytes it reads, and every request to a controller is checked against its {@link SqlBudget}, or the defaults
+ * {@code hotel.sql-budget.statements}, {@code same-statement} and {@code bytes}. A request that
+ * goes over budget, or runs the same SQL more often than allowed, is logged with the application
+ * frames that issued the statement in warn mode, and fails with a
+ * {@link com.suneth.hotel.exception.SqlBudgetExceededException} in fail mode, which the tests use.
+ * <p>
+ * Work a request hands to another thread, such as the streaming export, is not counted.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnExpression("'${hotel.sql-budget.enforcement:none}' != 'none'")
+public class SqlBudgetConfig implements WebMvcConfigurer {
+
+    enum Enforcement {
+        WARN,
+        FAIL
+    }
+
+    private final Enforcement enforcement;
+    private final int defaultStatements;
+    private final int defaultSameStatement;
+    private final long defaultBytes;
+
+    public SqlBudgetConfig(Environment environment) {
+        this.enforcement = Enforcement.valueOf(
+                environment.getRequiredProperty("hotel.sql-budget.enforcement").toUpperCase(Locale.ROOT));
+        this.defaultStatements = environment.getProperty("hotel.sql-budget.statements", Integer.class, 20);
+        this.defaultSameStatement = environment.getProperty("hotel.sql-budget.same-statement", Integer.class, 2);
+        this.defaultBytes = environment.getProperty("hotel.sql-budget.bytes", Long.class, Long.MAX_VALUE);
+    }
+
+    // Only the application's data source is wrapped; the pools behind a replica router stay as they are
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourceWrapper() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof StatementCountingDataSource)) {
+                    return new StatementCountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AsyncHandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                if (handler instanceof HandlerMethod handlerMethod) {
+                    SqlBudget budget = handlerMethod.getMethodAnnotation(SqlBudget.class);
+                    String endpoint = request.getMethod() + " " + request.getRequestURI();
+                    SqlStatementRecorder.begin(endpoint,
+                            budget != null && budget.statements() >= 0 ? budget.statements() : defaultStatements,
+                            budget != null && budget.sameStatement() >= 0 ? budget.sameStatement() : defaultSameStatement,
+                            budget != null && budget.bytes() >= 0 ? budget.bytes() : defaultBytes,
+                            enforcement);
+                }
+                return true;
+            }
+
+            @Override
+            public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                                       Object handler) {
+                SqlStatementRecorder.end();
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                        Exception ex) {
+                SqlStatementRecorder.Scope scope = SqlStatementRecorder.end();
+                if (scope != null) {
+                    log.debug("{}: {} statements, {} bytes", scope.getEndpoint(), scope.getStatements(), scope.getBytes());
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,148 @@
+package com.suneth.hotel.config;
+
+import com.suneth.hotel.exception.SqlBudgetExceededException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.temporal.Temporal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Counts the SQL statements and result set bytes of the request running on the current thread and
+ * checks them against the request's {@link SqlBudget}.
+ * <p>
+ * Statements outside of a request, such as startup jobs and background work, are not recorded.
+ */
+@Slf4j
+final class SqlStatementRecorder {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+    private static final int CALL_SITE_FRAMES = 6;
+
+    private SqlStatementRecorder() {
+    }
+
+    // Starts recording for the request handled by the current thread
+    static void begin(String endpoint, int maxStatements, int maxSameStatement, long maxBytes,
+                      SqlBudgetConfig.Enforcement enforcement) {
+        CURRENT.set(new Scope(endpoint, maxStatements, maxSameStatement, maxBytes, enforcement));
+    }
+
+    // Stops recording and returns what the request used, or null if nothing was being recorded
+    static Scope end() {
+        Scope scope = CURRENT.get();
+        CURRENT.remove();
+        return scope;
+    }
+
+    static void statementExecuted(String sql) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.statementExecuted(sql);
+        }
+    }
+
+    static void valueFetched(Object value) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.bytesFetched(estimateSize(value));
+        }
+    }
+
+    // Rough size of a column value as it came over the wire
+    private static long estimateSize(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof CharSequence text) {
+            return text.length();
+        }
+        if (value instanceof byte[] bytes) {
+            return bytes.length;
+        }
+        if (value instanceof Number || value instanceof java.util.Date || value instanceof Temporal) {
+            return 8;
+        }
+        if (value instanceof Boolean) {
+            return 1;
+        }
+        return 0;
+    }
+
+    static final class Scope {
+        private final String endpoint;
+        private final int maxStatements;
+        private final int maxSameStatement;
+        private final long maxBytes;
+        private final SqlBudgetConfig.Enforcement enforcement;
+        private final Map<String, Integer> executions = new HashMap<>();
+        private int statements;
+        private long bytes;
+        private boolean reported;
+
+        private Scope(String endpoint, int maxStatements, int maxSameStatement, long maxBytes,
+                      SqlBudgetConfig.Enforcement enforcement) {
+            this.endpoint = endpoint;
+            this.maxStatements = maxStatements;
+            this.maxSameStatement = maxSameStatement;
+            this.maxBytes = maxBytes;
+            this.enforcement = enforcement;
+        }
+
+        int getStatements() {
+            return statements;
+        }
+
+        long getBytes() {
+            return bytes;
+        }
+
+        String getEndpoint() {
+            return endpoint;
+        }
+
+        private void statementExecuted(String sql) {
+            statements++;
+            int sameStatements = executions.merge(sql, 1, Integer::sum);
+            if (statements > maxStatements) {
+                exceeded("executed more than " + maxStatements + " statements");
+            } else if (sameStatements > maxSameStatement) {
+                exceeded("executed the same statement " + sameStatements + " times, a likely N+1 query: " + sql);
+            }
+        }
+
+        private void bytesFetched(long size) {
+            bytes += size;
+            if (bytes > maxBytes && bytes - size <= maxBytes) {
+                exceeded("read more than " + maxBytes + " bytes from the database");
+            }
+        }
+
+        // Fails the request or logs a warning with the application frames that issued the statement.
+        // A request is only reported once in warn mode to keep a runaway loop from flooding the log.
+        private void exceeded(String problem) {
+            String message = endpoint + " " + problem + "\n    at " + callSite();
+            if (enforcement == SqlBudgetConfig.Enforcement.FAIL) {
+                throw new SqlBudgetExceededException(message);
+            }
+            if (!reported) {
+                reported = true;
+                log.warn("SQL budget exceeded: {}", message);
+            }
+        }
+
+        private static String callSite() {
+            List<String> frames = StackWalker.getInstance().walk(stack -> stack
+                    .filter(frame -> frame.getClassName().startsWith("com.suneth.hotel.")
+                            && !frame.getClassName().startsWith("com.suneth.hotel.config.")
+                            && !frame.getClassName().contains("$$"))
+                    .limit(CALL_SITE_FRAMES)
+                    .map(StackWalker.StackFrame::toStackTraceElement)
+                    .map(StackTraceElement::toString)
+                    .toList());
+            return frames.isEmpty() ? "(no application frame)" : frames.stream().collect(Collectors.joining("\n    at "));
+        }
+    }
+}
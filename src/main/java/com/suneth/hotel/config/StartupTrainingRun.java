@@ -0,0 +1,43 @@
+package com.suneth.hotel.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stops the application as soon as it has started when {@code hotel.startup.training-run=true}.
+ * <p>
+ * The fast-startup build profile starts the application once in this mode with
+ * {@code -XX:ArchiveClassesAtExit}, so the JVM writes every class loaded during startup into a
+ * class data sharing archive on exit; see the profile in pom.xml. The startup jobs that run on
+ * ready, such as loading the availability calendar, run before the exit so their classes are
+ * archived too.
+ * <p>
+ * Not conditional on the property: under Spring AOT, bean conditions are decided at build time,
+ * and the training run uses the same AOT build as production.
+ */
+@Slf4j
+@Component
+public class StartupTrainingRun {
+
+    private final boolean trainingRun;
+
+    public StartupTrainingRun(@Value("${hotel.startup.training-run:false}") boolean trainingRun) {
+        this.trainingRun = trainingRun;
+    }
+
+    // Runs after all other startup jobs
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @EventListener
+    public void exitAfterStartup(ApplicationReadyEvent event) {
+        if (trainingRun) {
+            log.info("Training run finished, exiting");
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+}
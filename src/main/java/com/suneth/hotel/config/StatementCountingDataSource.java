@@ -0,0 +1,137 @@
+package com.suneth.hotel.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Wraps the connection pool so that every statement executed and every result set value read is
+ * reported to {@link SqlStatementRecorder}.
+ * <p>
+ * Works below Hibernate, so JPA queries, lazy loads, flushes and plain JDBC are all seen. Extends
+ * {@link DelegatingDataSource} so that pool metrics can still find the pool behind it.
+ */
+class StatementCountingDataSource extends DelegatingDataSource {
+
+    StatementCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = super.getConnection();
+        return proxy(Connection.class, connection, new ConnectionHandler(connection));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Connection connection = super.getConnection(username, password);
+        return proxy(Connection.class, connection, new ConnectionHandler(connection));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(), new Class<?>[]{type},
+                handler);
+    }
+
+    // Base handler that forwards every call to the wrapped JDBC object
+    private abstract static class ForwardingHandler implements InvocationHandler {
+        final Object target;
+
+        ForwardingHandler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("equals") && args != null && args.length == 1) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode") && (args == null || args.length == 0)) {
+                return System.identityHashCode(proxy);
+            }
+            return handle(method, args);
+        }
+
+        Object handle(Method method, Object[] args) throws Throwable {
+            return forward(method, args);
+        }
+
+        Object forward(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+
+    private static final class ConnectionHandler extends ForwardingHandler {
+        ConnectionHandler(Connection connection) {
+            super(connection);
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = forward(method, args);
+            return switch (method.getName()) {
+                case "createStatement" -> proxy(Statement.class, result, new StatementHandler(result, null));
+                case "prepareStatement" ->
+                        proxy(PreparedStatement.class, result, new StatementHandler(result, (String) args[0]));
+                case "prepareCall" ->
+                        proxy(CallableStatement.class, result, new StatementHandler(result, (String) args[0]));
+                default -> result;
+            };
+        }
+    }
+
+    private static final class StatementHandler extends ForwardingHandler {
+        private final String preparedSql;
+
+        StatementHandler(Object statement, String preparedSql) {
+            super(statement);
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                // Plain statements carry their SQL as the first argument, prepared ones were given it earlier
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+                SqlStatementRecorder.statementExecuted(sql != null ? sql : "(batch)");
+            }
+            Object result = forward(method, args);
+            if (result instanceof ResultSet resultSet) {
+                return proxy(ResultSet.class, resultSet, new ResultSetHandler(resultSet));
+            }
+            return result;
+        }
+    }
+
+    private static final class ResultSetHandler extends ForwardingHandler {
+        ResultSetHandler(ResultSet resultSet) {
+            super(resultSet);
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = forward(method, args);
+            if (method.getName().startsWith("get") && args != null && args.length > 0) {
+                SqlStatementRecorder.valueFetched(result);
+            }
+            return result;
+        }
+    }
+}
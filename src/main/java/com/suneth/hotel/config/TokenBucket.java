@@ -0,0 +1,35 @@
+package com.suneth.hotel.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, kept as the time at which the bucket will be full again
+ * (the generic cell rate algorithm). Taking a token is a single compare-and-set.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(double ratePerSecond, int burst, long nowNanos) {
+        this.intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        this.toleranceNanos = intervalNanos * Math.max(0, burst - 1);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    // Takes a token if one is left. Returns 0 when it did, otherwise the nanos until one is available.
+    long tryTake(long nowNanos) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long start = Math.max(arrival, nowNanos);
+            long wait = start - toleranceNanos - nowNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
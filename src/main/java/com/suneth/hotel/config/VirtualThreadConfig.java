@@ -0,0 +1,86 @@
+package com.suneth.hotel.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Opt-in mode that runs request handling on virtual threads. Requires a Java 21 runtime.
+ * <p>
+ * Enabled with {@code hotel.threads.virtual=true}. Tomcat then hands every request to a new virtual
+ * thread instead of its bounded platform thread pool, and async work such as streaming exports runs
+ * on virtual threads too. Controllers and services run on the request thread, so the whole blocking
+ * JDBC call chain parks cheaply instead of holding a platform thread.
+ * <p>
+ * With request concurrency no longer capped by Tomcat's 200 threads, the connection pool becomes the
+ * limit. A bigger pool does not help a database that is already busy, so unless the pool settings
+ * are given explicitly this mode sizes it with HikariCP's {@code cores * 2 + 1} rule, where cores are
+ * the database server's ({@code hotel.threads.database-cores}, defaulting to this machine's), and
+ * never below HikariCP's default of 10. It also shortens the connection timeout, so overload surfaces
+ * as fast failures rather than requests queueing in the pool for 30 seconds.
+ * <p>
+ * The application is still compiled for Java 17, so the virtual thread executor is looked up
+ * reflectively and startup fails with a clear message on an older runtime.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "hotel.threads.virtual", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final String POOL_SIZE_PROPERTY = "spring.datasource.hikari.maximum-pool-size";
+    private static final String CONNECTION_TIMEOUT_PROPERTY = "spring.datasource.hikari.connection-timeout";
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    @Bean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(newVirtualThreadPerTaskExecutor());
+    }
+
+    @Bean
+    public static BeanPostProcessor virtualThreadConnectionPoolSizer(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    if (!environment.containsProperty(POOL_SIZE_PROPERTY)) {
+                        int databaseCores = environment.getProperty("hotel.threads.database-cores", Integer.class,
+                                Runtime.getRuntime().availableProcessors());
+                        dataSource.setMaximumPoolSize(Math.max(10, databaseCores * 2 + 1));
+                    }
+                    if (!environment.containsProperty(CONNECTION_TIMEOUT_PROPERTY)) {
+                        dataSource.setConnectionTimeout(environment.getProperty(
+                                "hotel.threads.connection-timeout-ms", Long.class, 5_000L));
+                    }
+                    log.info("Virtual threads enabled; connection pool size {}, connection timeout {} ms",
+                            dataSource.getMaximumPoolSize(), dataSource.getConnectionTimeout());
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("hotel.threads.virtual=true requires a Java 21 runtime, running on "
+                    + Runtime.version(), e);
+        }
+    }
+}
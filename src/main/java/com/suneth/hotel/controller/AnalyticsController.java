@@ -0,0 +1,61 @@
+package com.suneth.hotel.controller;
+
+import com.suneth.hotel.config.AnalyticsProperties;
+import com.suneth.hotel.config.SqlBudget;
+import com.suneth.hotel.service.IAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+@RestController
+@RequestMapping("/api/v1/analytics")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:5173")
+public class AnalyticsController {
+
+    private final IAnalyticsService analyticsService;
+    private final AnalyticsProperties analyticsProperties;
+
+    // Endpoint to get rooms sold, occupancy rate, revenue and average daily rate for every night in
+    // [from, to), per room type or for one room type
+    @GetMapping("occupancy/daily")
+    @SqlBudget(statements = 2)
+    public ResponseEntity<?> getDailyOccupancy(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String roomType) {
+        if (!from.isBefore(to)) {
+            return ResponseEntity.badRequest().body("From Date Must Come Before To Date.");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > analyticsProperties.getMaxDailyRangeDays()) {
+            return ResponseEntity.badRequest().body("The Daily Report Covers At Most "
+                    + analyticsProperties.getMaxDailyRangeDays() + " Days, Use The Summary For Longer Ranges.");
+        }
+        return ResponseEntity.ok(analyticsService.getDailyOccupancy(from, to, roomType));
+    }
+
+    // Endpoint to get the same figures over the whole of [from, to), per room type and in total
+    @GetMapping("occupancy/summary")
+    @SqlBudget(statements = 2)
+    public ResponseEntity<?> getOccupancySummary(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (!from.isBefore(to)) {
+            return ResponseEntity.badRequest().body("From Date Must Come Before To Date.");
+        }
+        return ResponseEntity.ok(analyticsService.getOccupancySummary(from, to));
+    }
+
+    // Endpoint to rebuild the occupancy rollup of [from, to) from the bookings, e.g. to backfill the
+    // history after the rollup was introduced. Without dates the whole booking history is rebuilt.
+    @PostMapping("rollups/rebuild")
+    public ResponseEntity<?> rebuildRollups(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(analyticsService.rebuildRollups(from, to));
+    }
+}
@@ -1,19 +1,34 @@
 package com.suneth.hotel.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.suneth.hotel.config.Admission;
+import com.suneth.hotel.config.SqlBudget;
 import com.suneth.hotel.exception.InvalidBookingRequestException;
+import com.suneth.hotel.exception.InvalidCursorException;
 import com.suneth.hotel.exception.ResourceNotFoundException;
 import com.suneth.hotel.model.BookedRoom;
 import com.suneth.hotel.model.Room;
+import com.suneth.hotel.request.GroupBookingRequest;
 import com.suneth.hotel.response.BookingResponse;
+import com.suneth.hotel.response.GroupBookingResponse;
+import com.suneth.hotel.response.PageResponse;
 import com.suneth.hotel.response.RoomResponse;
 import com.suneth.hotel.service.IBookingService;
-import com.suneth.hotel.service.IRoomService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.ArrayList;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -22,30 +37,112 @@ import java.util.List;
 @CrossOrigin(origins = "http://localhost:5173")
 public class BookingController {
 
+    private static final String BOOKINGS_CURSOR = "bookings";
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+    private static final String CSV_HEADER = "id,checkInDate,checkOutDate,guestName,guestEmail,numOfAdults," +
+            "numOfChildren,totalNumOfGuests,bookingConfirmationCode,roomId,roomType,roomPrice\n";
+
     private final IBookingService bookingService;
-    private final IRoomService roomService;
+    private final ObjectMapper objectMapper;
 
-    // Endpoint to retrieve all bookings
+    // Endpoint to retrieve one page of bookings, optionally filtered by a check-in date range.
+    // Pass the returned nextCursor back as cursor to fetch the following page.
     @GetMapping
-    public ResponseEntity<List<BookingResponse>> getAllBookings() {
-        // Retrieve all bookings from the booking service
-        List<BookedRoom> bookings = bookingService.getAllBookings();
-        // Initialize a list to store response objects
-        List<BookingResponse> bookingResponses = new ArrayList<>();
-
-        // Iterate through each booking and create a corresponding response object
-        for (BookedRoom booking : bookings) {
-            BookingResponse bookingResponse = getBookingResponse(booking);
-            bookingResponses.add(bookingResponse);
+    @SqlBudget(statements = 1)
+    public ResponseEntity<?> getAllBookings(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + RoomController.DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkInFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkInTo) {
+        long afterId;
+        try {
+            afterId = CursorToken.decode(BOOKINGS_CURSOR, cursor);
+        } catch (InvalidCursorException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        int pageSize = Math.max(1, Math.min(size, RoomController.MAX_PAGE_SIZE));
+        // Retrieve the page of bookings together with their rooms in a single query,
+        // plus one extra booking to find out whether another page follows
+        List<BookingResponse> bookingResponses =
+                bookingService.getBookingResponses(afterId, checkInFrom, checkInTo, pageSize + 1);
+        boolean hasMore = bookingResponses.size() > pageSize;
+        if (hasMore) {
+            bookingResponses = bookingResponses.subList(0, pageSize);
+        }
+        String nextCursor = hasMore
+                ? CursorToken.encode(BOOKINGS_CURSOR, bookingResponses.get(bookingResponses.size() - 1).getId())
+                : null;
+        // Return response with OK status and the page of booking responses
+        return ResponseEntity.ok(new PageResponse<>(bookingResponses, nextCursor));
+    }
+
+    // Endpoint to export bookings for reporting as NDJSON (default) or CSV.
+    // Rows are written to the response as they are read from the database, so the export never holds
+    // the whole history in memory. Pass sinceId and/or checkInFrom to export only newer bookings.
+    // Any format other than ndjson or csv is a bad request.
+    @GetMapping("export")
+    public ResponseEntity<StreamingResponseBody> exportBookings(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "0") long sinceId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkInFrom) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest().build();
         }
-        // Return response with OK status and list of booking responses
-        return ResponseEntity.ok(bookingResponses);
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            if (csv) {
+                writer.write(CSV_HEADER);
+            }
+            bookingService.exportBookings(sinceId, checkInFrom, booking -> {
+                try {
+                    writer.write(csv ? toCsvLine(booking) : objectMapper.writeValueAsString(booking));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(csv ? CSV : NDJSON)
+                .body(body);
+    }
+
+    // Helper method to render a booking as one CSV row matching CSV_HEADER
+    private String toCsvLine(BookingResponse booking) {
+        RoomResponse room = booking.getRoom();
+        return String.join(",",
+                String.valueOf(booking.getId()),
+                String.valueOf(booking.getCheckInDate()),
+                String.valueOf(booking.getCheckOutDate()),
+                csvField(booking.getGuestName()),
+                csvField(booking.getGuestEmail()),
+                String.valueOf(booking.getNumOfAdults()),
+                String.valueOf(booking.getNumOfChildren()),
+                String.valueOf(booking.getTotalNumOfGuests()),
+                csvField(booking.getBookingConfirmationCode()),
+                String.valueOf(room.getId()),
+                csvField(room.getRoomType()),
+                String.valueOf(room.getRoomPrice()));
+    }
+
+    // Quotes a CSV field when it contains a separator, quote or line break
+    private String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
     }
 
     // Helper method to create a BookingResponse object from a BookedRoom object
     private BookingResponse getBookingResponse(BookedRoom booking) {
-        // Retrieve room details associated with the booking
-        Room room = roomService.getRoomById(booking.getRoom().getId()).get();
+        // Room details associated with the booking, fetched together with the booking
+        Room room = booking.getRoom();
         // Create RoomResponse object from room details
         RoomResponse roomResponse = new RoomResponse(room.getId(), room.getRoomType(), room.getRoomPrice());
 
@@ -65,6 +162,8 @@ public class BookingController {
 
     // Endpoint to save a booking for a specific room
     @PostMapping("{roomId}/booking")
+    @Admission(Admission.Priority.BOOKING)
+    @SqlBudget(statements = 11)
     public ResponseEntity<?> saveBooking(@PathVariable Long roomId, @RequestBody BookedRoom bookingRequest) {
         try {
             // Attempt to save the booking and retrieve the confirmation code
@@ -77,6 +176,41 @@ public class BookingController {
         }
     }
 
+    // Endpoint to book several rooms at once for one guest, e.g. for a tour operator.
+    // Either all rooms are booked under one group confirmation code or none is.
+    @PostMapping("group")
+    @Admission(Admission.Priority.BOOKING)
+    @SqlBudget(statements = 17, sameStatement = 4)
+    public ResponseEntity<?> saveGroupBooking(@RequestBody GroupBookingRequest groupBookingRequest) {
+        try {
+            List<BookedRoom> bookings = bookingService.saveGroupBooking(groupBookingRequest);
+            return ResponseEntity.ok(getGroupBookingResponse(bookings));
+        } catch (InvalidBookingRequestException e) {
+            // Return bad request response with error message if any room of the group cannot be booked
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    // Endpoint to retrieve all bookings of a group booking by its group confirmation code
+    @GetMapping("group/{groupConfirmationCode}")
+    @SqlBudget(statements = 1)
+    public ResponseEntity<?> getGroupBooking(@PathVariable String groupConfirmationCode) {
+        try {
+            List<BookedRoom> bookings = bookingService.findByGroupConfirmationCode(groupConfirmationCode);
+            return ResponseEntity.ok(getGroupBookingResponse(bookings));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    // Helper method to create a GroupBookingResponse from the bookings of one group
+    private GroupBookingResponse getGroupBookingResponse(List<BookedRoom> bookings) {
+        List<BookingResponse> bookingResponses = bookings.stream().map(this::getBookingResponse).toList();
+        return new GroupBookingResponse(bookings.get(0).getGroupConfirmationCode(), bookingResponses);
+    }
+
     // Endpoint to cancel a booking
     @DeleteMapping("{bookingId}")
     public void cancelBooking(@PathVariable Long bookingId) {
@@ -86,6 +220,7 @@ public class BookingController {
 
     // Endpoint to retrieve a booking by confirmation code
     @GetMapping("{confirmationCode}")
+    @SqlBudget(statements = 1)
     public ResponseEntity<?> getBookingByConfirmationCode(@PathVariable String confirmationCode) {
         try {
             // Retrieve booking by confirmation code
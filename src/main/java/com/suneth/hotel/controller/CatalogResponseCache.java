@@ -0,0 +1,121 @@
+package com.suneth.hotel.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.suneth.hotel.config.ReplicaRoutingDataSource;
+import com.suneth.hotel.exception.InternalServerException;
+import com.suneth.hotel.service.CatalogVersion;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves catalog responses as JSON bytes, serialized and gzipped once per catalog version.
+ * <p>
+ * Responses carry the version's Last-Modified and a strong ETag of the version and the encoding, as the
+ * gzipped and identity bodies are different bytes, and must be revalidated on every use.
+ * A request whose validators match gets a 304 before any query runs or anything is serialized.
+ * Bodies are kept per request key and rebuilt when the catalog version has moved on.
+ */
+@Component
+class CatalogResponseCache {
+    private static final long MAX_CACHED_BYTES = 64L * 1024 * 1024;
+
+    private final CatalogVersion catalogVersion;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Body> bodies = Caffeine.newBuilder()
+            .maximumWeight(MAX_CACHED_BYTES)
+            .weigher((String key, Body body) -> body.json().length + body.gzip().length)
+            .build();
+
+    CatalogResponseCache(CatalogVersion catalogVersion, ObjectMapper objectMapper) {
+        this.catalogVersion = catalogVersion;
+        this.objectMapper = objectMapper;
+    }
+
+    private record Body(long version, byte[] json, byte[] gzip) {
+    }
+
+    // Returns null when the client's copy is current, in which case the 304 has already been set up.
+    // Otherwise returns the body for the key, calling content to build it if this version has none yet.
+    ResponseEntity<byte[]> respond(WebRequest webRequest, String key, Supplier<?> content) {
+        CatalogVersion.Stamp stamp = catalogVersion.current();
+        boolean gzip = acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = gzip ? "\"" + stamp.version() + "-gzip\"" : stamp.etag();
+        if (webRequest.checkNotModified(etag, stamp.lastModified())) {
+            return null;
+        }
+        Body body = bodies.getIfPresent(key);
+        if (body == null || body.version() != stamp.version()) {
+            // Built from the primary: a lagging replica would cache old data under the new version
+            body = serialize(stamp.version(), ReplicaRoutingDataSource.readFromPrimary(content));
+            bodies.put(key, body);
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.gzip());
+        }
+        return response.body(body.json());
+    }
+
+    // Helper method to serialize the content and compress it once
+    private Body serialize(long version, Object content) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(content);
+            ByteArrayOutputStream gzip = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream out = new GZIPOutputStream(gzip)) {
+                out.write(json);
+            }
+            return new Body(version, json, gzip.toByteArray());
+        } catch (JsonProcessingException e) {
+            throw new InternalServerException("Error serializing catalog: " + e.getMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Helper method to check whether the Accept-Encoding header allows gzip, named or through *
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip")) {
+                gzipQuality = quality;
+            } else if (name.equals("*")) {
+                anyQuality = quality;
+            }
+        }
+        Double quality = gzipQuality != null ? gzipQuality : anyQuality;
+        return quality != null && quality > 0;
+    }
+}
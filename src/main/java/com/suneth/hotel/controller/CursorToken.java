@@ -0,0 +1,39 @@
+package com.suneth.hotel.controller;
+
+import com.suneth.hotel.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes the position of a keyset-paginated listing as an opaque continuation token.
+ * The token carries the listing it belongs to and the last id returned, so the next page can
+ * seek straight past it with {@code WHERE id > :afterId ORDER BY id}.
+ */
+final class CursorToken {
+
+    private CursorToken() {
+    }
+
+    static String encode(String listing, long lastId) {
+        String raw = listing + ":" + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Returns the last id seen, or 0 to start from the first page when no cursor is given
+    static long decode(String listing, String token) {
+        if (token == null || token.isBlank()) {
+            return 0;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String prefix = listing + ":";
+            if (!raw.startsWith(prefix)) {
+                throw new InvalidCursorException("Invalid cursor");
+            }
+            return Long.parseLong(raw.substring(prefix.length()));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+}
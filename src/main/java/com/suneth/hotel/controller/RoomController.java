@@ -1,114 +1,172 @@
 package com.suneth.hotel.controller;
 
-import com.suneth.hotel.exception.PhotoRetrievalException;
+import com.suneth.hotel.config.Admission;
+import com.suneth.hotel.config.PhotoStorageProperties;
+import com.suneth.hotel.config.SqlBudget;
+import com.suneth.hotel.exception.InvalidCursorException;
 import com.suneth.hotel.exception.ResourceNotFoundException;
-import com.suneth.hotel.model.BookedRoom;
+import com.suneth.hotel.model.PhotoVariant;
 import com.suneth.hotel.model.Room;
-import com.suneth.hotel.response.BookingResponse;
+import com.suneth.hotel.model.RoomDetails;
+import com.suneth.hotel.response.BulkJobResponse;
+import com.suneth.hotel.response.BulkOperationResponse;
+import com.suneth.hotel.response.PageResponse;
 import com.suneth.hotel.response.RoomResponse;
-import com.suneth.hotel.service.IBookingService;
+import com.suneth.hotel.service.BulkJob;
+import com.suneth.hotel.service.BulkJobService;
+import com.suneth.hotel.service.IPhotoStorageService;
 import com.suneth.hotel.service.IRoomService;
+import com.suneth.hotel.service.RoomImportFormat;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
-import org.apache.tomcat.util.codec.binary.Base64;
+import org.springframework.core.io.Resource;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import javax.sql.rowset.serial.SerialBlob;
 import java.io.IOException;
 import java.math.BigDecimal;
-import java.sql.Blob;
-import java.sql.SQLException;
+import java.net.URI;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/v1/rooms")
 @RequiredArgsConstructor
 @CrossOrigin(origins = "http://localhost:5173")
 public class RoomController {
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_FLEXIBLE_WINDOW_DAYS = 366;
+    private static final String ROOMS_CURSOR = "rooms";
+    private static final String PHOTO_BYTES_SERVED = "hotel.photos.served";
+    // Request attributes through which Tomcat sends a file with sendfile once the servlet has returned
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     private final IRoomService roomService;
-    private final IBookingService bookingService;
+    private final IPhotoStorageService photoStorageService;
+    private final PhotoStorageProperties photoStorageProperties;
+    private final BulkJobService bulkJobService;
+    private final MeterRegistry meterRegistry;
+    private final CatalogResponseCache catalogResponseCache;
 
     // Endpoint to add a new room
     @PostMapping
     public ResponseEntity<RoomResponse> addNewRoom(
             @RequestParam("photo") MultipartFile photo,
             @RequestParam("roomType") String roomType,
-            @RequestParam("roomPrice") BigDecimal roomPrice) throws SQLException, IOException {
+            @RequestParam("roomPrice") BigDecimal roomPrice) throws IOException {
         // Save the room with provided details
         Room savedRoom = roomService.addNewRoom(photo, roomType, roomPrice);
 
         // Construct a response object from the saved room details
         RoomResponse response = new RoomResponse(savedRoom.getId(), savedRoom.getRoomType(), savedRoom.getRoomPrice());
+        // Photo variants are generated in the background; clients can poll the room for the status
+        response.setPhotoStatus(savedRoom.getPhotoStatus());
         return ResponseEntity.ok(response);
     }
 
-    // Endpoint to get all room types
+    // Endpoint to get all room types, with a 304 when the client's copy is still current
     @GetMapping("/room-types")
-    public List<String> getRoomTypes() {
-        return roomService.getAllRoomTypes();
+    @SqlBudget(statements = 2)
+    public ResponseEntity<byte[]> getRoomTypes(WebRequest webRequest) {
+        return catalogResponseCache.respond(webRequest, "room-types", roomService::getAllRoomTypes);
     }
 
-    // Endpoint to get all rooms
+    // Endpoint to get one page of rooms, optionally filtered by type and price range.
+    // Pass the returned nextCursor back as cursor to fetch the following page.
     @GetMapping
-    public ResponseEntity<List<RoomResponse>> getAllRooms() throws SQLException {
-        List<Room> rooms = roomService.getAllRooms();
-        // Initialize a list to store room responses
-        List<RoomResponse> roomResponses = new ArrayList<>();
+    @SqlBudget(statements = 2)
+    public ResponseEntity<?> getAllRooms(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(required = false) String roomType,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            WebRequest webRequest) {
+        long afterId;
+        try {
+            afterId = CursorToken.decode(ROOMS_CURSOR, cursor);
+        } catch (InvalidCursorException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Photo links are absolute, so the same page differs between host names
+        String key = String.join(" ", "rooms", ServletUriComponentsBuilder.fromCurrentContextPath().toUriString(),
+                Long.toString(afterId), Integer.toString(pageSize), roomType, String.valueOf(minPrice),
+                String.valueOf(maxPrice));
+        return catalogResponseCache.respond(webRequest, key,
+                () -> getRoomsPage(afterId, roomType, minPrice, maxPrice, pageSize));
+    }
+
+    // Helper method to build one page of room responses
+    private PageResponse<RoomResponse> getRoomsPage(long afterId, String roomType, BigDecimal minPrice,
+                                                    BigDecimal maxPrice, int pageSize) {
+        // Fetch one extra room to find out whether another page follows
+        List<Room> rooms = roomService.getRooms(afterId, roomType, minPrice, maxPrice, pageSize + 1);
+        boolean hasMore = rooms.size() > pageSize;
+        if (hasMore) {
+            rooms = rooms.subList(0, pageSize);
+        }
 
-        // Iterate through each room to create room responses
+        // Create room responses for the page
+        List<RoomResponse> roomResponses = new ArrayList<>();
         for (Room room : rooms) {
-            byte[] photoBytes = roomService.getRoomPhotoByRoomId(room.getId());
-            if (photoBytes != null && photoBytes.length > 0) {
-                // Convert photo bytes to base64 string
-                String base64Photo = Base64.encodeBase64String(photoBytes);
-
-                // Create a room response and add it to the list
-                RoomResponse roomResponse = getRoomResponse(room);
-                roomResponse.setPhoto(base64Photo);
-                roomResponses.add(roomResponse);
-            }
+            roomResponses.add(getRoomResponse(room, PhotoVariant.CARD));
         }
-        // Return response with list of room responses
-        return ResponseEntity.ok(roomResponses);
+        String nextCursor = hasMore ? CursorToken.encode(ROOMS_CURSOR, rooms.get(rooms.size() - 1).getId()) : null;
+        return new PageResponse<>(roomResponses, nextCursor);
     }
 
     // Constructs a RoomResponse based on the details of a given Room entity.
-    private RoomResponse getRoomResponse(Room room) {
-        // Retrieve bookings for the room
-        List<BookedRoom> bookings = getAllBookingsByRoomId(room.getId());
-    /*    List<BookingResponse> bookingInfo = bookings
-                .stream()
-                .map(booking -> new BookingResponse(
-                        booking.getBookingId(),
-                        booking.getCheckInDate(),
-                        booking.getCheckOutDate(),
-                        booking.getBookingConfirmationCode()))
-                .toList();*/
-
-        // Retrieve room photo bytes
-        byte[] photoBytes = null;
-        Blob photoBlob = room.getPhoto();
-        if (photoBlob != null) {
-            try {
-                photoBytes = photoBlob.getBytes(1, (int) photoBlob.length());
-            } catch (SQLException e) {
-                throw new PhotoRetrievalException("Error retrieving photo");
-            }
-        }
-        // Create and return room response object
-        return new RoomResponse(room.getId(), room.getRoomType(), room.getRoomPrice(), room.isBooked(), photoBytes);
+    // Listings link the card-sized photo variant, single-room views the full-size one.
+    private RoomResponse getRoomResponse(Room room, PhotoVariant photoVariant) {
+        // Create and return room response object, linking to the photo rather than embedding it
+        RoomResponse response = new RoomResponse(room.getId(), room.getRoomType(), room.getRoomPrice(),
+                room.isBooked(), getPhotoUrl(room.getId(), room.getPhotoHash(photoVariant), photoVariant));
+        response.setPhotoStatus(room.getPhotoStatus());
+        return response;
     }
 
-    // Retrieves all bookings associated with the provided room ID.
-    private List<BookedRoom> getAllBookingsByRoomId(Long roomId) {
-        return bookingService.getAllBookingsByRoomId(roomId);
+    // Constructs a RoomResponse from the cached details of a room
+    private RoomResponse getRoomResponse(RoomDetails room, PhotoVariant photoVariant) {
+        RoomResponse response = new RoomResponse(room.id(), room.roomType(), room.roomPrice(),
+                room.isBooked(), getPhotoUrl(room.id(), room.photoHash(photoVariant), photoVariant));
+        response.setPhotoStatus(room.photoStatus());
+        return response;
+    }
 
+    // Builds the photo endpoint URL for a room. The content hash is part of the URL so that
+    // clients can cache it forever and still pick up a new photo, or a variant that has just
+    // been generated, as soon as it changes.
+    private String getPhotoUrl(Long roomId, String photoHash, PhotoVariant photoVariant) {
+        if (photoHash == null) {
+            return null;
+        }
+        return ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/v1/rooms/{roomId}/photo")
+                .queryParam("variant", photoVariant.getName())
+                .queryParam("v", photoHash)
+                .buildAndExpand(roomId)
+                .toUriString();
     }
 
     // Endpoint to deletes a room by its ID.
@@ -118,64 +176,213 @@ public class RoomController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    // Endpoint to delete many rooms and their bookings at once, either by id (roomIds=1,2,3)
+    // or all rooms of a type (roomType=Suite)
+    @DeleteMapping
+    @SqlBudget(statements = 200, sameStatement = 100)
+    public ResponseEntity<?> deleteRooms(
+            @RequestParam(required = false) List<Long> roomIds,
+            @RequestParam(required = false) String roomType) {
+        if ((roomIds == null) == (roomType == null)) {
+            return ResponseEntity.badRequest().body("Give either roomIds or roomType.");
+        }
+        int deleted = roomIds != null ? roomService.deleteRooms(roomIds) : roomService.deleteRoomsByType(roomType);
+        return ResponseEntity.ok(new BulkOperationResponse(deleted));
+    }
+
+    // Endpoint to change the price of every room of a type by a percentage, e.g. percent=10 for +10%
+    @PatchMapping("prices")
+    @SqlBudget(statements = 2)
+    public ResponseEntity<?> adjustPrices(
+            @RequestParam String roomType,
+            @RequestParam BigDecimal percent) {
+        if (percent.compareTo(BigDecimal.valueOf(-100)) <= 0) {
+            return ResponseEntity.badRequest().body("Percent must be greater than -100.");
+        }
+        int updated = roomService.adjustPricesByType(roomType, percent);
+        return ResponseEntity.ok(new BulkOperationResponse(updated));
+    }
+
+    // Endpoint to import rooms from a CSV (header roomType,roomPrice) or NDJSON file.
+    // The import runs in the background; the response points to the job, whose progress can be
+    // polled until its status is COMPLETED or FAILED.
+    @PostMapping("import")
+    public ResponseEntity<?> importRooms(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String format) throws IOException {
+        RoomImportFormat importFormat = getImportFormat(file, format);
+        if (importFormat == null) {
+            return ResponseEntity.badRequest().body("Unknown import format, use csv or ndjson.");
+        }
+        BulkJob job;
+        try {
+            job = bulkJobService.submitRoomImport(file, importFormat);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body("Too many bulk jobs are waiting, please try again later.");
+        }
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/v1/rooms/jobs/{jobId}")
+                .buildAndExpand(job.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(getBulkJobResponse(job));
+    }
+
+    // Endpoint to get the progress of a bulk job
+    @GetMapping("jobs/{jobId}")
+    public ResponseEntity<BulkJobResponse> getBulkJob(@PathVariable String jobId) {
+        BulkJob job = bulkJobService.findJob(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Job not found"));
+        return ResponseEntity.ok(getBulkJobResponse(job));
+    }
+
+    // Works out the import format from the format parameter, the file name or the content type
+    private RoomImportFormat getImportFormat(MultipartFile file, String format) {
+        if (format != null) {
+            return switch (format.toLowerCase(Locale.ROOT)) {
+                case "csv" -> RoomImportFormat.CSV;
+                case "ndjson" -> RoomImportFormat.NDJSON;
+                default -> null;
+            };
+        }
+        String fileName = file.getOriginalFilename() != null ? file.getOriginalFilename().toLowerCase(Locale.ROOT) : "";
+        if (fileName.endsWith(".csv") || "text/csv".equals(file.getContentType())) {
+            return RoomImportFormat.CSV;
+        }
+        if (fileName.endsWith(".ndjson") || fileName.endsWith(".jsonl")
+                || "application/x-ndjson".equals(file.getContentType())) {
+            return RoomImportFormat.NDJSON;
+        }
+        return null;
+    }
+
+    // Constructs a BulkJobResponse from the current state of a job
+    private BulkJobResponse getBulkJobResponse(BulkJob job) {
+        return new BulkJobResponse(job.getId(), job.getType(), job.getStatus().name(), job.getProcessed().get(),
+                job.getFailed().get(), job.getErrors(), job.getCreatedAt(), job.getFinishedAt());
+    }
+
     // Endpoint to update a room by its ID.
     @PutMapping("{roomId}")
     public ResponseEntity<RoomResponse> updateRoom(
             @PathVariable Long roomId,
             @RequestParam(required = false) String roomType,
             @RequestParam(required = false) BigDecimal roomPrice,
-            @RequestParam(required = false) MultipartFile photo) throws IOException, SQLException {
-
-        // Retrieve photo bytes if provided, else get existing photo bytes
-        byte[] photoBytes = photo != null && !photo.isEmpty() ?
-                photo.getBytes() : roomService.getRoomPhotoByRoomId(roomId);
+            @RequestParam(required = false) MultipartFile photo) {
 
-        // Create photo blob from photo bytes
-        Blob photoBlob = photoBytes != null && photoBytes.length > 0 ? new SerialBlob(photoBytes) : null;
-
-        // Update the room with provided details
-        Room room = roomService.updateRoom(roomId, roomType, roomPrice, photoBytes);
-        room.setPhoto(photoBlob);
+        // Update the room with provided details; the existing photo is kept if no new one is sent
+        Room room = roomService.updateRoom(roomId, roomType, roomPrice, photo);
 
         // Construct a response object from the updated room details
-        RoomResponse roomResponse = getRoomResponse(room);
+        RoomResponse roomResponse = getRoomResponse(room, PhotoVariant.FULL);
         return ResponseEntity.ok(roomResponse);
 
     }
 
     // Retrieves a room by its ID.
     @GetMapping("{roomId}")
+    @SqlBudget(statements = 1)
     public ResponseEntity<Optional<RoomResponse>> getRoomById(@PathVariable Long roomId) {
         // Retrieve the room by ID
-        Optional<Room> theRoom = roomService.getRoomById(roomId);
+        Optional<RoomDetails> theRoom = roomService.getRoomById(roomId);
         // If room is found, construct a response object and return
         return theRoom.map(room -> {
-            RoomResponse roomResponse = getRoomResponse(room);
+            RoomResponse roomResponse = getRoomResponse(room, PhotoVariant.FULL);
             return ResponseEntity.ok(Optional.of(roomResponse));
         }).orElseThrow(() -> new ResourceNotFoundException("Room not found"));
     }
 
-    // Retrieves available rooms
+    // Streams a room's photo from the photo store.
+    // The optional variant (thumbnail, card or full) selects a resized JPEG; the original is served
+    // when no variant is asked for or it has not been generated yet.
+    // The content hash doubles as a strong ETag, so If-None-Match requests get a 304 without
+    // touching the file, and Range requests are answered with partial content by Spring's
+    // resource region support.
+    // Whole photos are handed to Tomcat's sendfile where the connector supports it, so the kernel
+    // copies the file to the socket; otherwise, and for ranges, Spring streams the file in buffers.
+    @GetMapping("{roomId}/photo")
+    @SqlBudget(statements = 1)
+    public ResponseEntity<Resource> getRoomPhoto(
+            @PathVariable Long roomId,
+            @RequestParam(required = false) String variant,
+            WebRequest webRequest,
+            HttpServletRequest request) throws IOException {
+        RoomDetails room = roomService.getRoomById(roomId)
+                .orElseThrow(() -> new ResourceNotFoundException("Room not found"));
+        if (room.photoHash() == null) {
+            throw new ResourceNotFoundException("No photo for room " + roomId);
+        }
+        PhotoVariant photoVariant = PhotoVariant.fromName(variant);
+        String hash = photoVariant != null ? room.photoHash(photoVariant) : room.photoHash();
+        MediaType contentType;
+        if (!hash.equals(room.photoHash())) {
+            contentType = MediaType.IMAGE_JPEG;
+        } else if (room.photoContentType() != null) {
+            contentType = MediaType.parseMediaType(room.photoContentType());
+        } else {
+            contentType = MediaType.APPLICATION_OCTET_STREAM;
+        }
+        // Answer revalidations with 304 here rather than in Spring, so that only photos actually sent are counted
+        if (webRequest.checkNotModified(hash)) {
+            return null;
+        }
+
+        Resource photo = photoStorageService.load(hash);
+        // Counts the whole photo; range requests send less
+        DistributionSummary.builder(PHOTO_BYTES_SERVED)
+                .baseUnit("bytes")
+                .tag("variant", photoVariant != null ? photoVariant.getName() : "original")
+                .register(meterRegistry)
+                .record(photo.contentLength());
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(hash)
+                .cacheControl(CacheControl.maxAge(photoStorageProperties.getCacheMaxAge()).cachePublic().immutable())
+                .contentType(contentType);
+        if (canSendFile(request, photo)) {
+            long length = photo.contentLength();
+            request.setAttribute(SENDFILE_FILENAME, photo.getFile().getAbsolutePath());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, length);
+            return response.contentLength(length).build();
+        }
+        return response.body(photo);
+    }
+
+    // Helper method to check whether the photo can be sent whole with sendfile: not for HEAD or Range
+    // requests, which Spring answers, nor on connectors without sendfile, e.g. with TLS
+    private static boolean canSendFile(HttpServletRequest request, Resource photo) {
+        return Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))
+                && HttpMethod.GET.matches(request.getMethod())
+                && request.getHeader(HttpHeaders.RANGE) == null
+                && photo.isFile();
+    }
+
+    // Retrieves available rooms for fixed dates, or in flexible mode for every stay of a length in a window
     @GetMapping("/available-rooms")
-    public ResponseEntity<List<RoomResponse>> getAvailableRooms(
-            @RequestParam("checkInDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkInDate,
-            @RequestParam("checkOutDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOutDate,
-            @RequestParam("roomType") String roomType) throws SQLException {
+    @Admission(Admission.Priority.SEARCH)
+    @SqlBudget(statements = 1)
+    public ResponseEntity<?> getAvailableRooms(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkInDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOutDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate windowStart,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate windowEnd,
+            @RequestParam(required = false) Integer nights,
+            @RequestParam("roomType") String roomType) {
+        if (windowStart != null || windowEnd != null || nights != null) {
+            return getFlexibleStays(windowStart, windowEnd, nights, roomType);
+        }
+        if (checkInDate == null || checkOutDate == null) {
+            return ResponseEntity.badRequest()
+                    .body("Give checkInDate and checkOutDate, or windowStart, windowEnd and nights.");
+        }
         // Retrieve available rooms based on provided parameters
         List<Room> availableRooms = roomService.getAvailableRooms(checkInDate, checkOutDate, roomType);
         // Initialize a list to store room responses
         List<RoomResponse> roomResponses = new ArrayList<>();
-        // Iterate through each available room to create room responses
+        // Iterate through each available room with a photo to create room responses
         for (Room room : availableRooms) {
-            // Retrieve room photo bytes
-            byte[] photoBytes = roomService.getRoomPhotoByRoomId(room.getId());
-            // If room photo exists, convert it to base64 string
-            if (photoBytes != null && photoBytes.length > 0) {
-                String photoBase64 = Base64.encodeBase64String(photoBytes);
-                // Create a room response and add it to the list
-                RoomResponse roomResponse = getRoomResponse(room);
-                roomResponse.setPhoto(photoBase64);
-                roomResponses.add(roomResponse);
+            if (room.getPhotoHash() != null) {
+                roomResponses.add(getRoomResponse(room, PhotoVariant.CARD));
             }
         }
         if (roomResponses.isEmpty()) {
@@ -185,4 +392,21 @@ public class RoomController {
         }
     }
 
+    // Helper method for the flexible mode of the availability search, e.g. any 3 nights in the next 30 days:
+    // one result per possible check-in date with the number of free rooms and the cheapest of them
+    private ResponseEntity<?> getFlexibleStays(LocalDate windowStart, LocalDate windowEnd, Integer nights,
+                                               String roomType) {
+        if (windowStart == null || windowEnd == null || nights == null) {
+            return ResponseEntity.badRequest().body("A Flexible Search Needs windowStart, windowEnd And nights.");
+        }
+        if (nights < 1 || windowStart.plusDays(nights).isAfter(windowEnd)) {
+            return ResponseEntity.badRequest().body("The Stay Must Be At Least One Night And Fit In The Window.");
+        }
+        if (ChronoUnit.DAYS.between(windowStart, windowEnd) > MAX_FLEXIBLE_WINDOW_DAYS) {
+            return ResponseEntity.badRequest()
+                    .body("The Search Window Can Be At Most " + MAX_FLEXIBLE_WINDOW_DAYS + " Days.");
+        }
+        return ResponseEntity.ok(roomService.getFlexibleStays(windowStart, windowEnd, nights, roomType));
+    }
+
 }
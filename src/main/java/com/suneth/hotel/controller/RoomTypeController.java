@@ -0,0 +1,58 @@
+package com.suneth.hotel.controller;
+
+import com.suneth.hotel.model.RoomType;
+import com.suneth.hotel.response.RoomTypeResponse;
+import com.suneth.hotel.service.IRoomTypeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/room-types")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:5173")
+public class RoomTypeController {
+
+    private final IRoomTypeService roomTypeService;
+
+    // Endpoint to get every room type with its capacity and description, including types without rooms
+    @GetMapping
+    public ResponseEntity<List<RoomTypeResponse>> getRoomTypes() {
+        return ResponseEntity.ok(roomTypeService.getRoomTypes().stream().map(this::getRoomTypeResponse).toList());
+    }
+
+    // Endpoint to get a room type by its ID
+    @GetMapping("{roomTypeId}")
+    public ResponseEntity<RoomTypeResponse> getRoomType(@PathVariable Long roomTypeId) {
+        return ResponseEntity.ok(getRoomTypeResponse(roomTypeService.getRoomType(roomTypeId)));
+    }
+
+    // Endpoint to add a room type, or set the capacity and description of the type with that name
+    @PostMapping
+    public ResponseEntity<RoomTypeResponse> saveRoomType(
+            @RequestParam String name,
+            @RequestParam(required = false) Integer capacity,
+            @RequestParam(required = false) String description) {
+        if (name.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(getRoomTypeResponse(roomTypeService.saveRoomType(name, capacity, description)));
+    }
+
+    // Endpoint to update the capacity and description of a room type by its ID
+    @PutMapping("{roomTypeId}")
+    public ResponseEntity<RoomTypeResponse> updateRoomType(
+            @PathVariable Long roomTypeId,
+            @RequestParam(required = false) Integer capacity,
+            @RequestParam(required = false) String description) {
+        RoomType roomType = roomTypeService.updateRoomType(roomTypeId, capacity, description);
+        return ResponseEntity.ok(getRoomTypeResponse(roomType));
+    }
+
+    private RoomTypeResponse getRoomTypeResponse(RoomType roomType) {
+        return new RoomTypeResponse(roomType.getId(), roomType.getName(), roomType.getCapacity(),
+                roomType.getDescription());
+    }
+}
@@ -0,0 +1,9 @@
+package com.suneth.hotel.event;
+
+import java.time.LocalDate;
+
+/**
+ * Published after a booking has been deleted.
+ */
+public record BookingCancelledEvent(Long roomId, Long bookingId, LocalDate checkInDate, LocalDate checkOutDate) {
+}
@@ -6,16 +6,26 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
+// The schema is owned by the Flyway migrations in db/migration; the indexes are listed here for reference
+@Table(indexes = {
+        @Index(name = "idx_booked_room_stay", columnList = "check_in, check_out, room_id"),
+        @Index(name = "idx_booked_room_room_stay", columnList = "room_id, check_in, check_out"),
+        @Index(name = "uk_booked_room_confirmation_code", columnList = "confirmation_code", unique = true),
+        @Index(name = "idx_booked_room_group_code", columnList = "group_confirmation_code")})
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
 public class BookedRoom {
+    // Ids come from a pooled sequence, fetched 50 at a time, so that Hibernate can batch inserts;
+    // with IDENTITY every insert has to run on its own to learn its id
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booked_room_seq")
+    @SequenceGenerator(name = "booked_room_seq", sequenceName = "booked_room_seq", allocationSize = 50)
     private Long bookingId;
 
     @Column(name = "check_in")
@@ -39,9 +49,18 @@ public class BookedRoom {
     @Column(name = "total_guests")
     private int totalNumOfGuests;
 
-    @Column(name = "confirmation_code")
+    // Price per night of the room when it was booked, so revenue does not move with later price changes.
+    // Null for bookings made before it was recorded; the room's current price stands in for those.
+    @Column(name = "nightly_rate", precision = 19, scale = 2)
+    private BigDecimal nightlyRate;
+
+    @Column(name = "confirmation_code", length = 16)
     private String bookingConfirmationCode;
 
+    // Shared by all bookings made together through a group booking, null for single bookings
+    @Column(name = "group_confirmation_code", length = 16)
+    private String groupConfirmationCode;
+
     /**
      * Represents the room booked.
      * It's a Many-to-One relationship, indicating that many booked rooms can be associated with one room.
@@ -0,0 +1,17 @@
+package com.suneth.hotel.model;
+
+import java.time.LocalDate;
+
+/**
+ * Projection of the fields of a BookedRoom needed to decide whether a room is free.
+ * Used to warm the booking interval index without loading full booking entities.
+ */
+public interface BookingDates {
+    Long getBookingId();
+
+    Long getRoomId();
+
+    LocalDate getCheckInDate();
+
+    LocalDate getCheckOutDate();
+}
@@ -0,0 +1,6 @@
+package com.suneth.hotel.model;
+
+public enum BookingEventType {
+    BOOKING_CREATED,
+    BOOKING_CANCELLED
+}
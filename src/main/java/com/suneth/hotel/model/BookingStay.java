@@ -0,0 +1,17 @@
+package com.suneth.hotel.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Projection of the fields of a BookedRoom needed to add its nights to the occupancy rollup.
+ */
+public interface BookingStay {
+    LocalDate getCheckInDate();
+
+    LocalDate getCheckOutDate();
+
+    String getRoomType();
+
+    BigDecimal getNightlyRate();
+}
@@ -0,0 +1,71 @@
+package com.suneth.hotel.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * A booking event waiting to be delivered to downstream systems.
+ * Written in the same transaction as the booking change it describes and deleted once delivered.
+ */
+@Entity
+@Table(name = "outbox_event", indexes = {
+        @Index(name = "idx_outbox_event_due", columnList = "next_attempt_at, id"),
+        @Index(name = "idx_outbox_event_room", columnList = "room_id, room_version, id")})
+@Getter
+@Setter
+@NoArgsConstructor
+public class OutboxEvent {
+    // Pooled sequence so the events of a group booking are inserted in one JDBC batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_event_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", length = 32, nullable = false)
+    private BookingEventType eventType;
+
+    @Column(name = "room_id", nullable = false)
+    private Long roomId;
+
+    // Version of the room that the booking change was made against. Every booking change bumps the
+    // room's version, so the events of a room are ordered by version and then id, even when several
+    // instances hand out ids from their own pooled ranges.
+    @Column(name = "room_version", nullable = false)
+    private long roomVersion;
+
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+
+    // The event as JSON, as it is handed to the sink
+    @Column(name = "payload", length = 2000, nullable = false)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    // Not delivered before this time; pushed back after each failed attempt
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "attempts")
+    private int attempts;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    public OutboxEvent(BookingEventType eventType, Long roomId, long roomVersion, Long bookingId, String payload,
+                       Instant createdAt) {
+        this.eventType = eventType;
+        this.roomId = roomId;
+        this.roomVersion = roomVersion;
+        this.bookingId = bookingId;
+        this.payload = payload;
+        this.createdAt = createdAt;
+        this.nextAttemptAt = createdAt;
+    }
+}
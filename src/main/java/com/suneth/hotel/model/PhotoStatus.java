@@ -0,0 +1,10 @@
+package com.suneth.hotel.model;
+
+/**
+ * Progress of generating the resized variants of a room photo.
+ */
+public enum PhotoStatus {
+    PENDING,
+    READY,
+    FAILED
+}
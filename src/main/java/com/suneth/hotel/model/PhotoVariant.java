@@ -0,0 +1,37 @@
+package com.suneth.hotel.model;
+
+import java.util.Locale;
+
+/**
+ * Resized versions of a room photo generated in the background after upload.
+ * Each variant is scaled down to at most maxWidth pixels wide, keeping the aspect ratio.
+ */
+public enum PhotoVariant {
+    THUMBNAIL(160),
+    CARD(480),
+    FULL(1600);
+
+    private final int maxWidth;
+
+    PhotoVariant(int maxWidth) {
+        this.maxWidth = maxWidth;
+    }
+
+    public int getMaxWidth() {
+        return maxWidth;
+    }
+
+    public String getName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    // Returns the variant with the given name ignoring case, or null if there is none
+    public static PhotoVariant fromName(String name) {
+        for (PhotoVariant variant : values()) {
+            if (variant.name().equalsIgnoreCase(name)) {
+                return variant;
+            }
+        }
+        return null;
+    }
+}
@@ -4,30 +4,65 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
-import org.apache.commons.lang3.RandomStringUtils;
 
 import java.math.BigDecimal;
-import java.sql.Blob;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "idx_room_type_listing", columnList = "room_type_id, id"))
 @Getter
 @Setter
 @AllArgsConstructor
 public class Room {
+    // Pooled sequence ids, like BookedRoom, so that bulk imports are inserted in JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "room_seq")
+    @SequenceGenerator(name = "room_seq", sequenceName = "room_seq", allocationSize = 50)
     private Long id;
 
-    private String roomType;
+    /**
+     * The room's type. Loaded lazily; the queries that load rooms for a response fetch it with the room.
+     * Older schemas kept the type name in a room_type column, which the V2 migration converts.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "room_type_id")
+    private RoomType type;
 
     private BigDecimal roomPrice;
 
     private boolean isBooked = false;
 
-    @Lob
-    private Blob photo;
+    /**
+     * Optimistic lock version. Every booking forces an increment, so two application instances
+     * booking the same room at the same time cannot both commit.
+     */
+    @Version
+    private long version;
+
+    /**
+     * SHA-256 hash of the room's photo in the photo store.
+     * The photo bytes themselves live outside the database and are served by the photo endpoint.
+     */
+    @Column(name = "photo_hash", length = 64)
+    private String photoHash;
+
+    @Column(name = "photo_content_type")
+    private String photoContentType;
+
+    // Hashes of the resized JPEG variants of the photo, set once background processing has finished
+    @Column(name = "thumbnail_hash", length = 64)
+    private String thumbnailHash;
+
+    @Column(name = "card_hash", length = 64)
+    private String cardHash;
+
+    @Column(name = "full_hash", length = 64)
+    private String fullHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "photo_status")
+    private PhotoStatus photoStatus;
 
     /**
      * A list of BookedRoom entities associated with this room.
@@ -56,6 +91,28 @@ public class Room {
         this.bookings = new ArrayList<>();
     }
 
+    /**
+     * Returns the name of the room's type, or null if it has none.
+     */
+    public String getRoomType() {
+        return type != null ? type.getName() : null;
+    }
+
+    /**
+     * Returns the hash of the requested photo variant, or of the original photo while the variant
+     * is not available yet.
+     *
+     * @param variant The photo variant wanted.
+     */
+    public String getPhotoHash(PhotoVariant variant) {
+        String variantHash = switch (variant) {
+            case THUMBNAIL -> thumbnailHash;
+            case CARD -> cardHash;
+            case FULL -> fullHash;
+        };
+        return variantHash != null ? variantHash : photoHash;
+    }
+
     /**
      * Adds a booking to the room.
      *
@@ -68,9 +125,5 @@ public class Room {
         bookings.add(booking);
         booking.setRoom(this);
         isBooked = true;
-
-        // Generate a random booking confirmation code
-        String bookingCode = RandomStringUtils.randomNumeric(10);
-        booking.setBookingConfirmationCode(bookingCode);
     }
 }
@@ -0,0 +1,28 @@
+package com.suneth.hotel.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Immutable copy of a room's own columns, as shown by the single-room and photo endpoints.
+ * Unlike a Room entity it is not tied to a persistence context and has no lazy associations,
+ * so it can be cached and shared between requests.
+ */
+public record RoomDetails(Long id, String roomType, BigDecimal roomPrice, boolean isBooked,
+                          String photoHash, String photoContentType, String thumbnailHash, String cardHash,
+                          String fullHash, PhotoStatus photoStatus) {
+
+    /**
+     * Returns the hash of the requested photo variant, or of the original photo while the variant
+     * is not available yet.
+     *
+     * @param variant The photo variant wanted.
+     */
+    public String photoHash(PhotoVariant variant) {
+        String variantHash = switch (variant) {
+            case THUMBNAIL -> thumbnailHash;
+            case CARD -> cardHash;
+            case FULL -> fullHash;
+        };
+        return variantHash != null ? variantHash : photoHash;
+    }
+}
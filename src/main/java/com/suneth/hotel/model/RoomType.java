@@ -0,0 +1,35 @@
+package com.suneth.hotel.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A type of room, e.g. "Deluxe Suite", referenced by every room of the type through its id.
+ * Searches resolve the requested type to ids once and then match rooms on the indexed foreign key
+ * instead of comparing type names row by row.
+ */
+@Entity
+@Table(name = "room_type", indexes = @Index(name = "uk_room_type_name", columnList = "name", unique = true))
+@Getter
+@Setter
+@NoArgsConstructor
+public class RoomType {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "room_type_seq")
+    @SequenceGenerator(name = "room_type_seq", sequenceName = "room_type_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    // Most guests a room of the type sleeps, or null if not recorded
+    private Integer capacity;
+
+    private String description;
+
+    public RoomType(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,52 @@
+package com.suneth.hotel.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Rooms sold and revenue of one room type for one night, the rollup behind the analytics endpoints.
+ * Kept up to date by OccupancyRollup in the same transaction as every booking change, so reports
+ * read these rows instead of the bookings. The primary key leads with the date, so any date range is
+ * one index range scan.
+ */
+@Entity
+@Table(name = "room_type_daily_stats")
+@IdClass(RoomTypeDailyStats.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+public class RoomTypeDailyStats {
+    @Id
+    @Column(name = "stay_date")
+    private LocalDate stayDate;
+
+    @Id
+    @Column(name = "room_type")
+    private String roomType;
+
+    // Rooms of the type occupied that night
+    @Column(name = "rooms_sold", nullable = false)
+    private long roomsSold;
+
+    // Sum of the nightly rates of those rooms
+    @Column(name = "revenue", precision = 19, scale = 2, nullable = false)
+    private BigDecimal revenue;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private LocalDate stayDate;
+        private String roomType;
+    }
+}
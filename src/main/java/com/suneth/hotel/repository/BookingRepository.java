@@ -1,16 +1,133 @@
 package com.suneth.hotel.repository;
 
 import com.suneth.hotel.model.BookedRoom;
+import com.suneth.hotel.model.BookingDates;
+import com.suneth.hotel.model.BookingStay;
+import com.suneth.hotel.response.BookingResponse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<BookedRoom, Long> {
 
     // Method to find all bookings for a specific room by room ID
     List<BookedRoom> findByRoomId(Long roomId);
 
-    // Method to find a booking by its confirmation code
+    // Method to find a booking by its confirmation code, fetching its room and room type in the same query
+    @Query("SELECT br FROM BookedRoom br JOIN FETCH br.room r LEFT JOIN FETCH r.type " +
+            "WHERE br.bookingConfirmationCode = :confirmationCode")
     Optional<BookedRoom> findByBookingConfirmationCode(String confirmationCode);
+
+    // Method to find all bookings of a group booking, fetching their rooms and room types in the same query
+    @Query("SELECT br FROM BookedRoom br JOIN FETCH br.room r LEFT JOIN FETCH r.type " +
+            "WHERE br.groupConfirmationCode = :groupConfirmationCode ORDER BY br.bookingId")
+    List<BookedRoom> findByGroupConfirmationCode(String groupConfirmationCode);
+
+    // Method to find the confirmation codes in a range, a seek on the unique confirmation code index
+    @Query("SELECT br.bookingConfirmationCode FROM BookedRoom br WHERE br.bookingConfirmationCode BETWEEN :from AND :to")
+    List<String> findConfirmationCodesBetween(String from, String to);
+
+    // Method to find all bookings of the given rooms, fetching the rooms in the same query
+    @Query("SELECT br FROM BookedRoom br JOIN FETCH br.room WHERE br.room.id IN :roomIds")
+    List<BookedRoom> findWithRoomByRoomIdIn(Collection<Long> roomIds);
+
+    // Deletes all bookings of the given rooms in one statement
+    @Modifying
+    @Query("DELETE FROM BookedRoom br WHERE br.room.id IN :roomIds")
+    int deleteAllByRoomIdIn(Collection<Long> roomIds);
+
+    // Method to find a booking by its ID, fetching its room and room type in the same query
+    @Query("SELECT br FROM BookedRoom br JOIN FETCH br.room r LEFT JOIN FETCH r.type WHERE br.bookingId = :bookingId")
+    Optional<BookedRoom> findWithRoomByBookingId(Long bookingId);
+
+    // Custom query for one keyset page of bookings with their rooms in a single select,
+    // optionally filtered by a check-in date range [checkInFrom, checkInTo).
+    // Only the room columns needed by the response are read.
+    @Query("SELECT new com.suneth.hotel.response.BookingResponse(" +
+            "br.bookingId, br.checkInDate, br.checkOutDate, br.guestFullName, br.guestEmail, " +
+            "br.numOfAdults, br.numOfChildren, br.totalNumOfGuests, br.bookingConfirmationCode, " +
+            "r.id, t.name, r.roomPrice) " +
+            "FROM BookedRoom br JOIN br.room r LEFT JOIN r.type t " +
+            "WHERE br.bookingId > :afterId " +
+            "AND (:checkInFrom IS NULL OR br.checkInDate >= :checkInFrom) " +
+            "AND (:checkInTo IS NULL OR br.checkInDate < :checkInTo) " +
+            "ORDER BY br.bookingId")
+    List<BookingResponse> findBookingResponsePage(long afterId, LocalDate checkInFrom, LocalDate checkInTo,
+                                                  Pageable pageable);
+
+    // Custom query to fetch only the dates of every booking, used to build the booking interval index
+    @Query("SELECT br.bookingId AS bookingId, br.room.id AS roomId, " +
+            "br.checkInDate AS checkInDate, br.checkOutDate AS checkOutDate FROM BookedRoom br")
+    List<BookingDates> findAllBookingDates();
+
+    // Custom query to fetch only the dates of the bookings that occupy any night in [from, to)
+    @Query("SELECT br.bookingId AS bookingId, br.room.id AS roomId, " +
+            "br.checkInDate AS checkInDate, br.checkOutDate AS checkOutDate FROM BookedRoom br " +
+            "WHERE br.checkInDate < :to AND br.checkOutDate > :from")
+    List<BookingDates> findBookingDatesBetween(LocalDate from, LocalDate to);
+
+    // Custom query to fetch only the dates of the bookings of the given rooms that occupy any night in [from, to),
+    // a range seek per room on the (room_id, check_in, check_out) index
+    @Query("SELECT br.bookingId AS bookingId, br.room.id AS roomId, " +
+            "br.checkInDate AS checkInDate, br.checkOutDate AS checkOutDate FROM BookedRoom br " +
+            "WHERE br.room.id IN :roomIds AND br.checkInDate < :to AND br.checkOutDate > :from")
+    List<BookingDates> findBookingDatesByRoomIdInBetween(Collection<Long> roomIds, LocalDate from, LocalDate to);
+
+    // Custom query to fetch only the dates of the bookings of one room
+    @Query("SELECT br.bookingId AS bookingId, br.room.id AS roomId, " +
+            "br.checkInDate AS checkInDate, br.checkOutDate AS checkOutDate FROM BookedRoom br " +
+            "WHERE br.room.id = :roomId")
+    List<BookingDates> findBookingDatesByRoomId(Long roomId);
+
+    // Same as findBookingDatesByRoomId for several rooms in one query
+    @Query("SELECT br.bookingId AS bookingId, br.room.id AS roomId, " +
+            "br.checkInDate AS checkInDate, br.checkOutDate AS checkOutDate FROM BookedRoom br " +
+            "WHERE br.room.id IN :roomIds")
+    List<BookingDates> findBookingDatesByRoomIdIn(Collection<Long> roomIds);
+
+    // Custom query streaming every booking after the given id, optionally from a check-in date on, in id order.
+    // The fetch size lets the driver read rows in chunks instead of buffering the whole result;
+    // on MySQL this needs useCursorFetch=true on the connection URL. Must run inside a transaction.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.suneth.hotel.response.BookingResponse(" +
+            "br.bookingId, br.checkInDate, br.checkOutDate, br.guestFullName, br.guestEmail, " +
+            "br.numOfAdults, br.numOfChildren, br.totalNumOfGuests, br.bookingConfirmationCode, " +
+            "r.id, t.name, r.roomPrice) " +
+            "FROM BookedRoom br JOIN br.room r LEFT JOIN r.type t " +
+            "WHERE br.bookingId > :afterId " +
+            "AND (:checkInFrom IS NULL OR br.checkInDate >= :checkInFrom) " +
+            "ORDER BY br.bookingId")
+    Stream<BookingResponse> streamBookingResponses(long afterId, LocalDate checkInFrom);
+
+    // Custom query streaming the nights and nightly rates of every booking that occupies any night in
+    // [from, to), used to rebuild the occupancy rollup. Must run inside a transaction.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT br.checkInDate AS checkInDate, br.checkOutDate AS checkOutDate, t.name AS roomType, " +
+            "COALESCE(br.nightlyRate, r.roomPrice) AS nightlyRate FROM BookedRoom br JOIN br.room r LEFT JOIN r.type t " +
+            "WHERE br.checkInDate < :to AND br.checkOutDate > :from")
+    Stream<BookingStay> streamStaysBetween(LocalDate from, LocalDate to);
+
+    // Same as streamStaysBetween for all bookings of the given rooms
+    @Query("SELECT br.checkInDate AS checkInDate, br.checkOutDate AS checkOutDate, t.name AS roomType, " +
+            "COALESCE(br.nightlyRate, r.roomPrice) AS nightlyRate FROM BookedRoom br JOIN br.room r LEFT JOIN r.type t " +
+            "WHERE r.id IN :roomIds")
+    List<BookingStay> findStaysByRoomIdIn(Collection<Long> roomIds);
+
+    // First night booked, or null if there are no bookings
+    @Query("SELECT MIN(br.checkInDate) FROM BookedRoom br")
+    LocalDate findEarliestCheckInDate();
+
+    // Last check-out date, or null if there are no bookings
+    @Query("SELECT MAX(br.checkOutDate) FROM BookedRoom br")
+    LocalDate findLatestCheckOutDate();
 }
@@ -0,0 +1,40 @@
+package com.suneth.hotel.repository;
+
+import com.suneth.hotel.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Oldest events that are due, locked for the rest of the transaction. A lock timeout of -2
+    // means SKIP LOCKED, so dispatchers on other instances take the next events instead of waiting.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.nextAttemptAt <= :now ORDER BY e.id")
+    List<OutboxEvent> findDueForDispatch(Instant now, Pageable pageable);
+
+    // First pending event of each of the given rooms in room order, i.e. lowest room version and then
+    // lowest id, leaving out the given events
+    @Query("SELECT e.roomId AS roomId, e.roomVersion AS roomVersion, MIN(e.id) AS eventId FROM OutboxEvent e " +
+            "WHERE e.roomId IN :roomIds AND e.id NOT IN :excludedIds AND e.roomVersion = " +
+            "(SELECT MIN(o.roomVersion) FROM OutboxEvent o WHERE o.roomId = e.roomId AND o.id NOT IN :excludedIds) " +
+            "GROUP BY e.roomId, e.roomVersion")
+    List<RoomEvent> findFirstEventPerRoom(Collection<Long> roomIds, Collection<Long> excludedIds);
+
+    interface RoomEvent {
+        Long getRoomId();
+
+        long getRoomVersion();
+
+        Long getEventId();
+    }
+}
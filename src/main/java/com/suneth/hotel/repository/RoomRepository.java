@@ -1,22 +1,149 @@
 package com.suneth.hotel.repository;
 
+import com.suneth.hotel.model.PhotoStatus;
 import com.suneth.hotel.model.Room;
+import com.suneth.hotel.model.RoomDetails;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface RoomRepository extends JpaRepository<Room, Long> {
+    String ROOM_LOCK_HINT = HibernateHints.HINT_NATIVE_LOCK_MODE + ".r";
+    String ROOM_LOCK_MODE = "optimistic_force_increment";
 
-    // Custom query to find distinct room types
-    @Query("SELECT DISTINCT r.roomType FROM Room r")
-    List<String> findDistinctRoomTypes();
+    // Finds every room with its type in the same query
+    @Override
+    @EntityGraph(attributePaths = "type")
+    List<Room> findAll();
 
-    //Custom query to retrieve all rooms of a certain type (roomType) that are not currently booked for a specified time period.
-    @Query("SELECT r FROM Room r " +
-            "WHERE r.roomType LIKE %:roomType% AND r.id " +
+    // Finds a room with its type in the same query
+    @Override
+    @EntityGraph(attributePaths = "type")
+    Optional<Room> findById(Long id);
+
+    // Finds the given rooms with their types in the same query
+    @Override
+    @EntityGraph(attributePaths = "type")
+    List<Room> findAllById(Iterable<Long> ids);
+
+    // Custom query for one keyset page of rooms that have a photo, optionally filtered by type and price.
+    // Seeks past the last id of the previous page instead of using an offset, so every page costs the same.
+    // A type filter is a seek on (room_type_id, id).
+    @Query("SELECT r FROM Room r LEFT JOIN FETCH r.type " +
+            "WHERE r.id > :afterId AND r.photoHash IS NOT NULL " +
+            "AND (:roomType IS NULL OR r.type.id = (SELECT t.id FROM RoomType t WHERE t.name = :roomType)) " +
+            "AND (:minPrice IS NULL OR r.roomPrice >= :minPrice) " +
+            "AND (:maxPrice IS NULL OR r.roomPrice <= :maxPrice) " +
+            "ORDER BY r.id")
+    List<Room> findPage(long afterId, String roomType, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
+
+    //Custom query to retrieve all rooms of the given types that are not currently booked for a specified time period.
+    //Bookings are half-open [checkIn, checkOut) ranges, so a stay may start on the day another one ends.
+    //The types are matched on the indexed room_type_id, see IRoomTypeService.findMatchingTypeIds.
+    @Query("SELECT r FROM Room r JOIN FETCH r.type " +
+            "WHERE r.type.id IN :typeIds AND r.id " +
             "NOT IN (SELECT br.room.id FROM BookedRoom br " +
-            "WHERE ((br.checkInDate <= :checkOutDate) AND (br.checkOutDate >= :checkInDate)))")
-    List<Room> findAvailableRoomsByDatesAndType(LocalDate checkInDate, LocalDate checkOutDate, String roomType);
+            "WHERE ((br.checkInDate < :checkOutDate) AND (br.checkOutDate > :checkInDate)))")
+    List<Room> findAvailableRoomsByDatesAndTypes(LocalDate checkInDate, LocalDate checkOutDate,
+                                                 Collection<Long> typeIds);
+
+    // Custom query for flexible-date searches: every room of the given types that has a photo, once for
+    // each of its bookings that occupies any night in [from, to), or once with null dates if none does
+    @Query("SELECT r.id AS roomId, r.roomPrice AS roomPrice, " +
+            "br.checkInDate AS checkInDate, br.checkOutDate AS checkOutDate FROM Room r " +
+            "LEFT JOIN r.bookings br ON br.checkInDate < :to AND br.checkOutDate > :from " +
+            "WHERE r.type.id IN :typeIds AND r.photoHash IS NOT NULL")
+    List<RoomBookingDates> findRoomsWithBookingsBetween(Collection<Long> typeIds, LocalDate from, LocalDate to);
+
+    // Loads a room for booking and bumps its version on commit, so concurrent bookings of the same room conflict.
+    // The room type is fetched for the occupancy rollup; the lock applies to the room (alias r) only,
+    // since room types carry no version.
+    @QueryHints(@QueryHint(name = ROOM_LOCK_HINT, value = ROOM_LOCK_MODE))
+    @Query("SELECT r FROM Room r LEFT JOIN FETCH r.type WHERE r.id = :roomId")
+    Optional<Room> findByIdForBooking(Long roomId);
+
+    // Same as findByIdForBooking for all rooms of a group booking in one query
+    @QueryHints(@QueryHint(name = ROOM_LOCK_HINT, value = ROOM_LOCK_MODE))
+    @Query("SELECT r FROM Room r LEFT JOIN FETCH r.type WHERE r.id IN :roomIds")
+    List<Room> findAllByIdForBooking(Collection<Long> roomIds);
+
+    // Custom query to read a room's details with its type name in one select, without managing the room
+    @Query("SELECT new com.suneth.hotel.model.RoomDetails(r.id, t.name, r.roomPrice, r.isBooked, r.photoHash, " +
+            "r.photoContentType, r.thumbnailHash, r.cardHash, r.fullHash, r.photoStatus) " +
+            "FROM Room r LEFT JOIN r.type t WHERE r.id = :roomId")
+    Optional<RoomDetails> findDetailsById(Long roomId);
+
+    // Custom query to find the ids of all rooms of a type without loading the rooms
+    @Query("SELECT r.id FROM Room r WHERE r.type.name = :roomType")
+    List<Long> findIdsByRoomType(String roomType);
+
+    // Changes the price of every room of a type in one statement, rounded to cents.
+    // The version is bumped so that bookings racing with the change are retried.
+    @Modifying
+    @Query("UPDATE Room r SET r.roomPrice = ROUND(r.roomPrice * :factor, 2), r.version = r.version + 1 " +
+            "WHERE r.type.id = (SELECT t.id FROM RoomType t WHERE t.name = :roomType)")
+    int scalePricesByType(String roomType, BigDecimal factor);
+
+    // Deletes the given rooms in one statement; their bookings must be deleted first
+    @Modifying
+    @Query("DELETE FROM Room r WHERE r.id IN :roomIds")
+    int deleteAllByIdIn(Collection<Long> roomIds);
+
+    // Records the outcome of photo variant processing, unless the room's photo was replaced in the meantime
+    @Modifying
+    @Transactional
+    @Query("UPDATE Room r SET r.thumbnailHash = :thumbnailHash, r.cardHash = :cardHash, r.fullHash = :fullHash, " +
+            "r.photoStatus = :photoStatus WHERE r.id = :roomId AND r.photoHash = :photoHash")
+    int updatePhotoVariants(Long roomId, String photoHash, String thumbnailHash, String cardHash, String fullHash,
+                            PhotoStatus photoStatus);
+
+    // Custom query to find rooms whose photo variants still have to be generated
+    @Query("SELECT r FROM Room r WHERE r.photoHash IS NOT NULL " +
+            "AND (r.photoStatus IS NULL OR r.photoStatus = com.suneth.hotel.model.PhotoStatus.PENDING)")
+    List<Room> findRoomsWithPendingPhotoVariants();
+
+    // Id, version and type of every room, for the availability calendar to find the rooms changed through
+    // other instances
+    @Query("SELECT r.id AS roomId, r.version AS roomVersion, t.id AS typeId FROM Room r LEFT JOIN r.type t")
+    List<RoomVersion> findAllVersions();
+
+    // Number of rooms of each type
+    @Query("SELECT t.name AS roomType, COUNT(r) AS rooms FROM Room r LEFT JOIN r.type t GROUP BY t.name")
+    List<RoomTypeCount> countRoomsByType();
+
+    interface RoomTypeCount {
+        String getRoomType();
+
+        long getRooms();
+    }
+
+    interface RoomVersion {
+        Long getRoomId();
+
+        Long getRoomVersion();
+
+        Long getTypeId();
+    }
+
+    interface RoomBookingDates {
+        Long getRoomId();
+
+        BigDecimal getRoomPrice();
+
+        LocalDate getCheckInDate();
+
+        LocalDate getCheckOutDate();
+    }
 }
@@ -0,0 +1,37 @@
+package com.suneth.hotel.repository;
+
+import com.suneth.hotel.model.RoomTypeDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface RoomTypeDailyStatsRepository extends JpaRepository<RoomTypeDailyStats, RoomTypeDailyStats.Key> {
+
+    // Rollup rows of the nights in [from, to), optionally of one room type only
+    @Query("SELECT s FROM RoomTypeDailyStats s WHERE s.stayDate >= :from AND s.stayDate < :to " +
+            "AND (:roomType IS NULL OR s.roomType = :roomType) ORDER BY s.stayDate, s.roomType")
+    List<RoomTypeDailyStats> findBetween(LocalDate from, LocalDate to, String roomType);
+
+    // Rooms sold and revenue of each room type over the nights in [from, to)
+    @Query("SELECT s.roomType AS roomType, SUM(s.roomsSold) AS roomsSold, SUM(s.revenue) AS revenue " +
+            "FROM RoomTypeDailyStats s WHERE s.stayDate >= :from AND s.stayDate < :to " +
+            "GROUP BY s.roomType ORDER BY s.roomType")
+    List<RoomTypeTotals> sumBetween(LocalDate from, LocalDate to);
+
+    // Deletes the rollup rows of the nights in [from, to) in one statement
+    @Modifying
+    @Query("DELETE FROM RoomTypeDailyStats s WHERE s.stayDate >= :from AND s.stayDate < :to")
+    int deleteBetween(LocalDate from, LocalDate to);
+
+    interface RoomTypeTotals {
+        String getRoomType();
+
+        Long getRoomsSold();
+
+        BigDecimal getRevenue();
+    }
+}
@@ -0,0 +1,20 @@
+package com.suneth.hotel.repository;
+
+import com.suneth.hotel.model.RoomType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface RoomTypeRepository extends JpaRepository<RoomType, Long> {
+
+    Optional<RoomType> findByName(String name);
+
+    List<RoomType> findByNameIn(Collection<String> names);
+
+    // Custom query to find the names of the types that at least one room has, in name order
+    @Query("SELECT t.name FROM RoomType t WHERE EXISTS (SELECT r.id FROM Room r WHERE r.type = t) ORDER BY t.name")
+    List<String> findNamesInUse();
+}
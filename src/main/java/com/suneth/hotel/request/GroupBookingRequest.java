@@ -0,0 +1,30 @@
+package com.suneth.hotel.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Request body for booking several rooms at once for one guest, e.g. a tour operator
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GroupBookingRequest {
+    private String guestFullName;
+    private String guestEmail;
+    private List<RoomStay> rooms;
+
+    // One room of the group with its own dates and guests
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RoomStay {
+        private Long roomId;
+        private LocalDate checkInDate;
+        private LocalDate checkOutDate;
+        private int numOfAdults;
+        private int numOfChildren;
+    }
+}
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Data
@@ -27,4 +28,12 @@ public class BookingResponse {
         this.checkOutDate = checkOutDate;
         this.bookingConfirmationCode = bookingConfirmationCode;
     }
+
+    // Flat constructor used by JPQL constructor expressions, which cannot build the nested room response themselves
+    public BookingResponse(Long id, LocalDate checkInDate, LocalDate checkOutDate, String guestName, String guestEmail,
+                           int numOfAdults, int numOfChildren, int totalNumOfGuests, String bookingConfirmationCode,
+                           Long roomId, String roomType, BigDecimal roomPrice) {
+        this(id, checkInDate, checkOutDate, guestName, guestEmail, numOfAdults, numOfChildren, totalNumOfGuests,
+                bookingConfirmationCode, new RoomResponse(roomId, roomType, roomPrice));
+    }
 }
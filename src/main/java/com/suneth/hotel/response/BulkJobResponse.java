@@ -0,0 +1,23 @@
+package com.suneth.hotel.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkJobResponse {
+    private String id;
+    private String type;
+    private String status;
+    // Rooms applied so far and rows skipped so far; both grow while the job runs
+    private long processed;
+    private long failed;
+    private List<String> errors;
+    private Instant createdAt;
+    private Instant finishedAt;
+}
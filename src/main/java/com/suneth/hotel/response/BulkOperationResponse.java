@@ -0,0 +1,12 @@
+package com.suneth.hotel.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkOperationResponse {
+    private int affectedRooms;
+}
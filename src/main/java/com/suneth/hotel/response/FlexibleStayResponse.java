@@ -0,0 +1,21 @@
+package com.suneth.hotel.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FlexibleStayResponse {
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    // Rooms free for every night of the stay
+    private int availableRooms;
+    // The cheapest of those rooms, null when none is free
+    private Long cheapestRoomId;
+    private BigDecimal cheapestPrice;
+}
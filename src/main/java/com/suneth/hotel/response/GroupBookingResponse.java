@@ -0,0 +1,15 @@
+package com.suneth.hotel.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GroupBookingResponse {
+    private String groupConfirmationCode;
+    private List<BookingResponse> bookings;
+}
@@ -0,0 +1,25 @@
+package com.suneth.hotel.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OccupancyResponse {
+    // The night, or null for figures over a whole date range
+    private LocalDate date;
+    // The room type, or null for figures over all room types
+    private String roomType;
+    private long roomNightsAvailable;
+    private long roomNightsSold;
+    // Room nights sold per room night available, null when no rooms were available
+    private Double occupancyRate;
+    private BigDecimal revenue;
+    // Average daily rate: revenue per room night sold, null when nothing was sold
+    private BigDecimal averageDailyRate;
+}
@@ -0,0 +1,18 @@
+package com.suneth.hotel.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OccupancySummaryResponse {
+    private LocalDate from;
+    private LocalDate to;
+    private OccupancyResponse total;
+    private List<OccupancyResponse> roomTypes;
+}
@@ -0,0 +1,17 @@
+package com.suneth.hotel.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RollupRebuildResponse {
+    private LocalDate from;
+    private LocalDate to;
+    // Rollup rows written, one per night and room type with bookings
+    private int rows;
+}
@@ -1,8 +1,8 @@
 package com.suneth.hotel.response;
 
+import com.suneth.hotel.model.PhotoStatus;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.apache.tomcat.util.codec.binary.Base64;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -15,6 +15,8 @@ public class RoomResponse {
     private BigDecimal roomPrice;
     private boolean isBooked;
     private String photo;
+    // PENDING while the resized photo variants are being generated; the original is served meanwhile
+    private PhotoStatus photoStatus;
     private List<BookingResponse> bookings;
 
     public RoomResponse(Long id, String roomType, BigDecimal roomPrice) {
@@ -23,14 +25,13 @@ public class RoomResponse {
         this.roomPrice = roomPrice;
     }
 
-    public RoomResponse(Long id, String roomType, BigDecimal roomPrice, boolean isBooked, byte[] photoBytes) {
+    public RoomResponse(Long id, String roomType, BigDecimal roomPrice, boolean isBooked, String photo) {
         this.id = id;
         this.roomType = roomType;
         this.roomPrice = roomPrice;
         this.isBooked = isBooked;
-        // Encode the byte array representation of the room's photo to Base64 string,
-        // or set to null if photoBytes is null
-        this.photo = photoBytes != null ? Base64.encodeBase64String(photoBytes) : null;
+        // URL of the room's photo on the photo endpoint, or null if the room has no photo
+        this.photo = photo;
 //        this.bookings = bookings;
     }
 }
@@ -0,0 +1,15 @@
+package com.suneth.hotel.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RoomTypeResponse {
+    private Long id;
+    private String name;
+    private Integer capacity;
+    private String description;
+}
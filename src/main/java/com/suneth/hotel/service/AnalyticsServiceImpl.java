@@ -0,0 +1,136 @@
+package com.suneth.hotel.service;
+
+import com.suneth.hotel.config.MetricsConfig;
+import com.suneth.hotel.model.RoomTypeDailyStats;
+import com.suneth.hotel.repository.BookingRepository;
+import com.suneth.hotel.repository.RoomRepository;
+import com.suneth.hotel.repository.RoomTypeDailyStatsRepository;
+import com.suneth.hotel.response.OccupancyResponse;
+import com.suneth.hotel.response.OccupancySummaryResponse;
+import com.suneth.hotel.response.RollupRebuildResponse;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Occupancy and revenue reports, answered from the rollup maintained by {@link OccupancyRollup}
+ * rather than from the bookings. Rooms available count the rooms of each type that exist now.
+ */
+@Service
+@RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class AnalyticsServiceImpl implements IAnalyticsService {
+
+    private final RoomTypeDailyStatsRepository statsRepository;
+    private final RoomRepository roomRepository;
+    private final BookingRepository bookingRepository;
+    private final OccupancyRollup occupancyRollup;
+
+    // Method to get the occupancy and revenue of every night in [from, to) for every room type,
+    // or for one room type only
+    @Override
+    @Transactional(readOnly = true)
+    public List<OccupancyResponse> getDailyOccupancy(LocalDate from, LocalDate to, String roomType) {
+        Map<String, Long> rooms = countRoomsByType();
+        Map<LocalDate, Map<String, RoomTypeDailyStats>> statsByNight = statsRepository
+                .findBetween(from, to, roomType).stream()
+                .collect(Collectors.groupingBy(RoomTypeDailyStats::getStayDate,
+                        Collectors.toMap(RoomTypeDailyStats::getRoomType, stats -> stats)));
+        // Every night gets a row for each room type, including types whose rooms have all been removed
+        Set<String> roomTypes = new TreeSet<>();
+        if (roomType != null) {
+            roomTypes.add(roomType);
+        } else {
+            roomTypes.addAll(rooms.keySet());
+            statsByNight.values().forEach(nightStats -> roomTypes.addAll(nightStats.keySet()));
+        }
+        List<OccupancyResponse> days = new ArrayList<>();
+        for (LocalDate night = from; night.isBefore(to); night = night.plusDays(1)) {
+            Map<String, RoomTypeDailyStats> nightStats = statsByNight.getOrDefault(night, Map.of());
+            for (String type : roomTypes) {
+                RoomTypeDailyStats stats = nightStats.get(type);
+                days.add(getOccupancyResponse(night, type, rooms.getOrDefault(type, 0L),
+                        stats != null ? stats.getRoomsSold() : 0,
+                        stats != null ? stats.getRevenue() : BigDecimal.ZERO));
+            }
+        }
+        return days;
+    }
+
+    // Method to get the occupancy and revenue over [from, to) per room type and in total,
+    // with one aggregate query over the rollup however long the range is
+    @Override
+    @Transactional(readOnly = true)
+    public OccupancySummaryResponse getOccupancySummary(LocalDate from, LocalDate to) {
+        long nights = ChronoUnit.DAYS.between(from, to);
+        Map<String, Long> rooms = countRoomsByType();
+        Map<String, RoomTypeDailyStatsRepository.RoomTypeTotals> totals = statsRepository.sumBetween(from, to)
+                .stream()
+                .collect(Collectors.toMap(RoomTypeDailyStatsRepository.RoomTypeTotals::getRoomType, total -> total));
+        Set<String> roomTypes = new TreeSet<>(rooms.keySet());
+        roomTypes.addAll(totals.keySet());
+
+        List<OccupancyResponse> byRoomType = new ArrayList<>(roomTypes.size());
+        long allAvailable = 0;
+        long allSold = 0;
+        BigDecimal allRevenue = BigDecimal.ZERO;
+        for (String type : roomTypes) {
+            RoomTypeDailyStatsRepository.RoomTypeTotals total = totals.get(type);
+            long available = rooms.getOrDefault(type, 0L) * nights;
+            long sold = total != null ? total.getRoomsSold() : 0;
+            BigDecimal revenue = total != null ? total.getRevenue() : BigDecimal.ZERO;
+            byRoomType.add(getOccupancyResponse(null, type, available, sold, revenue));
+            allAvailable += available;
+            allSold += sold;
+            allRevenue = allRevenue.add(revenue);
+        }
+        return new OccupancySummaryResponse(from, to,
+                getOccupancyResponse(null, null, allAvailable, allSold, allRevenue), byRoomType);
+    }
+
+    // Method to recompute the rollup of [from, to) from the bookings; without dates the whole
+    // booking history is rebuilt
+    @Override
+    public RollupRebuildResponse rebuildRollups(LocalDate from, LocalDate to) {
+        LocalDate rebuildFrom = from != null ? from : bookingRepository.findEarliestCheckInDate();
+        LocalDate rebuildTo = to != null ? to : bookingRepository.findLatestCheckOutDate();
+        if (rebuildFrom == null || rebuildTo == null || !rebuildFrom.isBefore(rebuildTo)) {
+            return new RollupRebuildResponse(rebuildFrom, rebuildTo, 0);
+        }
+        return new RollupRebuildResponse(rebuildFrom, rebuildTo, occupancyRollup.rebuild(rebuildFrom, rebuildTo));
+    }
+
+    // Helper method to get the number of rooms of each type
+    private Map<String, Long> countRoomsByType() {
+        Map<String, Long> rooms = new HashMap<>();
+        for (RoomRepository.RoomTypeCount count : roomRepository.countRoomsByType()) {
+            if (count.getRoomType() != null) {
+                rooms.put(count.getRoomType(), count.getRooms());
+            }
+        }
+        return rooms;
+    }
+
+    // Helper method to create an OccupancyResponse with the rates worked out from the counts
+    private OccupancyResponse getOccupancyResponse(LocalDate date, String roomType, long available, long sold,
+                                                   BigDecimal revenue) {
+        Double occupancyRate = available > 0 ? (double) sold / available : null;
+        BigDecimal averageDailyRate = sold > 0
+                ? revenue.divide(BigDecimal.valueOf(sold), 2, RoundingMode.HALF_UP)
+                : null;
+        return new OccupancyResponse(date, roomType, available, sold, occupancyRate, revenue, averageDailyRate);
+    }
+}
@@ -0,0 +1,261 @@
+package com.suneth.hotel.service;
+
+import com.suneth.hotel.model.BookingDates;
+import com.suneth.hotel.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory index of the booked date ranges of every room, used to detect booking conflicts
+ * without loading the room's bookings from the database.
+ * <p>
+ * Every booking is treated as the half-open range of nights {@code [checkIn, checkOut)}: the guest
+ * occupies the room from the check-in night up to, but not including, the check-out day. Two
+ * bookings conflict exactly when each one starts before the other one ends, so a guest can check in
+ * on the day the previous guest checks out.
+ * <p>
+ * Each room's ranges are kept as sorted epoch-day arrays together with a running maximum of the
+ * end dates, which answers an overlap query with a single binary search. The arrays are never
+ * modified in place; adding or removing a booking swaps in a new copy, so readers never lock.
+ * <p>
+ * The index is filled from {@link BookingRepository} on startup. A room that is not indexed yet is
+ * loaded on first use. The query runs outside of the map's bin locks and its result is only put if
+ * the room is still missing; a booking added or removed meanwhile is then applied to whatever copy
+ * won, so a load that raced with it cannot lose the change. Updates of the same room come from
+ * {@link BookingServiceImpl} under the room's {@link RoomLockStripes stripe lock}.
+ * <p>
+ * Bookings made or cancelled through other application instances are not pushed to this index, so a
+ * free room may be reported as taken. {@link BookingServiceImpl} therefore reloads a room from the
+ * database before it turns a stay down, and bookings the index misses are caught inside the booking
+ * transaction.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+
+    private final BookingRepository bookingRepository;
+    private final ConcurrentMap<Long, RoomIntervals> rooms = new ConcurrentHashMap<>();
+
+    // Loads the booked ranges of all rooms in one query
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Map<Long, List<BookingDates>> bookingsByRoom = bookingRepository.findAllBookingDates().stream()
+                .collect(Collectors.groupingBy(BookingDates::getRoomId));
+        // Rooms that were loaded lazily in the meantime are already up to date
+        bookingsByRoom.forEach((roomId, bookings) -> rooms.putIfAbsent(roomId, RoomIntervals.of(bookings)));
+        log.info("Indexed bookings of {} rooms", bookingsByRoom.size());
+    }
+
+    // Method to load all of the given rooms that are not indexed yet with a single query,
+    // instead of one query per room on first use
+    public void loadRooms(Collection<Long> roomIds) {
+        List<Long> missing = roomIds.stream().filter(roomId -> !rooms.containsKey(roomId)).toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+        Map<Long, List<BookingDates>> bookingsByRoom = bookingRepository.findBookingDatesByRoomIdIn(missing).stream()
+                .collect(Collectors.groupingBy(BookingDates::getRoomId));
+        // As in warmUp, rooms loaded or updated in the meantime are already up to date
+        for (Long roomId : missing) {
+            rooms.putIfAbsent(roomId, RoomIntervals.of(bookingsByRoom.getOrDefault(roomId, List.of())));
+        }
+    }
+
+    // Method to check whether the room is free for every night in [checkInDate, checkOutDate)
+    public boolean isAvailable(Long roomId, LocalDate checkInDate, LocalDate checkOutDate) {
+        RoomIntervals intervals = rooms.get(roomId);
+        if (intervals == null) {
+            intervals = loadIfAbsent(roomId);
+        }
+        return !intervals.overlaps(checkInDate.toEpochDay(), checkOutDate.toEpochDay());
+    }
+
+    // Method to record a saved booking
+    public void addBooking(Long roomId, Long bookingId, LocalDate checkInDate, LocalDate checkOutDate) {
+        loadIfAbsent(roomId);
+        rooms.computeIfPresent(roomId, (id, intervals) ->
+                intervals.with(bookingId, checkInDate.toEpochDay(), checkOutDate.toEpochDay()));
+    }
+
+    // Method to forget a cancelled booking
+    public void removeBooking(Long roomId, Long bookingId) {
+        loadIfAbsent(roomId);
+        rooms.computeIfPresent(roomId, (id, intervals) -> intervals.without(bookingId));
+    }
+
+    // Method to re-read a room's bookings from the database, e.g. after another instance changed them.
+    // Must be called while holding the room's lock, so no booking of this instance is applied in between.
+    public void reloadRoom(Long roomId) {
+        rooms.put(roomId, load(roomId));
+    }
+
+    // Same as reloadRoom for several rooms with a single query; the caller holds the locks of all of them
+    public void reloadRooms(Collection<Long> roomIds) {
+        Map<Long, List<BookingDates>> bookingsByRoom = bookingRepository.findBookingDatesByRoomIdIn(roomIds).stream()
+                .collect(Collectors.groupingBy(BookingDates::getRoomId));
+        for (Long roomId : roomIds) {
+            rooms.put(roomId, RoomIntervals.of(bookingsByRoom.getOrDefault(roomId, List.of())));
+        }
+    }
+
+    // Method to forget a deleted room and all of its bookings
+    public void removeRoom(Long roomId) {
+        rooms.remove(roomId);
+    }
+
+    // Helper method to index a room that is not indexed yet, keeping a copy another thread put first
+    private RoomIntervals loadIfAbsent(Long roomId) {
+        RoomIntervals intervals = rooms.get(roomId);
+        if (intervals != null) {
+            return intervals;
+        }
+        RoomIntervals loaded = load(roomId);
+        RoomIntervals existing = rooms.putIfAbsent(roomId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private RoomIntervals load(Long roomId) {
+        return RoomIntervals.of(bookingRepository.findBookingDatesByRoomId(roomId));
+    }
+
+    /**
+     * Immutable booked ranges of a single room, sorted by check-in day.
+     * {@code maxEnds[i]} holds the latest check-out day among the first {@code i + 1} ranges, which
+     * lets {@link #overlaps} stay correct even if historic data contains overlapping bookings.
+     */
+    static final class RoomIntervals {
+        private static final RoomIntervals EMPTY = new RoomIntervals(new long[0], new long[0], new long[0]);
+
+        private final long[] starts;
+        private final long[] ends;
+        private final long[] bookingIds;
+        private final long[] maxEnds;
+
+        private RoomIntervals(long[] starts, long[] ends, long[] bookingIds) {
+            this.starts = starts;
+            this.ends = ends;
+            this.bookingIds = bookingIds;
+            this.maxEnds = new long[ends.length];
+            long maxEnd = Long.MIN_VALUE;
+            for (int i = 0; i < ends.length; i++) {
+                maxEnd = Math.max(maxEnd, ends[i]);
+                maxEnds[i] = maxEnd;
+            }
+        }
+
+        // Builds the arrays with one sort instead of one copy per booking. Like adding the bookings one
+        // at a time with with(), a repeated booking id keeps its first range and equal starts keep their
+        // order, since List.sort is stable.
+        static RoomIntervals of(List<BookingDates> bookings) {
+            if (bookings.isEmpty()) {
+                return EMPTY;
+            }
+            Set<Long> seen = new HashSet<>(bookings.size() * 2);
+            List<BookingDates> sorted = new ArrayList<>(bookings.size());
+            for (BookingDates booking : bookings) {
+                if (seen.add(booking.getBookingId())) {
+                    sorted.add(booking);
+                }
+            }
+            sorted.sort(Comparator.comparing(BookingDates::getCheckInDate));
+            long[] starts = new long[sorted.size()];
+            long[] ends = new long[sorted.size()];
+            long[] bookingIds = new long[sorted.size()];
+            for (int i = 0; i < sorted.size(); i++) {
+                BookingDates booking = sorted.get(i);
+                starts[i] = booking.getCheckInDate().toEpochDay();
+                ends[i] = booking.getCheckOutDate().toEpochDay();
+                bookingIds[i] = booking.getBookingId();
+            }
+            return new RoomIntervals(starts, ends, bookingIds);
+        }
+
+        int size() {
+            return starts.length;
+        }
+
+        // True if any booked range [s, e) satisfies s < end && e > start
+        boolean overlaps(long start, long end) {
+            int startingBeforeEnd = countStartsBefore(end);
+            return startingBeforeEnd > 0 && maxEnds[startingBeforeEnd - 1] > start;
+        }
+
+        RoomIntervals with(long bookingId, long start, long end) {
+            if (indexOf(bookingId) >= 0) {
+                return this;
+            }
+            // Insert after any range with the same start so equal starts keep insertion order
+            int position = countStartsBefore(start + 1);
+            return new RoomIntervals(
+                    insert(starts, position, start),
+                    insert(ends, position, end),
+                    insert(bookingIds, position, bookingId));
+        }
+
+        RoomIntervals without(long bookingId) {
+            int position = indexOf(bookingId);
+            if (position < 0) {
+                return this;
+            }
+            return new RoomIntervals(
+                    remove(starts, position),
+                    remove(ends, position),
+                    remove(bookingIds, position));
+        }
+
+        // Number of ranges whose start is strictly before the given day
+        private int countStartsBefore(long day) {
+            int low = 0;
+            int high = starts.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < day) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int indexOf(long bookingId) {
+            for (int i = 0; i < bookingIds.length; i++) {
+                if (bookingIds[i] == bookingId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private static long[] insert(long[] values, int position, long value) {
+            long[] result = Arrays.copyOf(values, values.length + 1);
+            System.arraycopy(values, position, result, position + 1, values.length - position);
+            result[position] = value;
+            return result;
+        }
+
+        private static long[] remove(long[] values, int position) {
+            long[] result = new long[values.length - 1];
+            System.arraycopy(values, 0, result, 0, position);
+            System.arraycopy(values, position + 1, result, position, values.length - position - 1);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.suneth.hotel.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.suneth.hotel.exception.InternalServerException;
+import com.suneth.hotel.model.BookedRoom;
+import com.suneth.hotel.model.BookingEventType;
+import com.suneth.hotel.model.OutboxEvent;
+import com.suneth.hotel.model.Room;
+import com.suneth.hotel.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records booking events in the outbox table for {@link BookingOutboxDispatcher} to deliver.
+ * Must be called inside the transaction that changes the booking, so that the event is stored if and
+ * only if the change commits, and the booking request never waits on the consumers. The booking's
+ * room must have been loaded in that transaction with a forced version increment.
+ */
+@Component
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class BookingOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    // Method to record that the bookings were created
+    public void bookingsCreated(List<BookedRoom> bookings) {
+        Instant now = Instant.now();
+        outboxEventRepository.saveAll(bookings.stream()
+                .map(booking -> event(BookingEventType.BOOKING_CREATED, booking, now))
+                .toList());
+    }
+
+    // Method to record that the booking was cancelled
+    public void bookingCancelled(BookedRoom booking) {
+        outboxEventRepository.save(event(BookingEventType.BOOKING_CANCELLED, booking, Instant.now()));
+    }
+
+    // Method to record that the bookings were cancelled because their rooms are being deleted.
+    // The rooms need no forced version increment here: they are gone once the transaction commits,
+    // so no later event of theirs can be ordered before these.
+    public void bookingsCancelled(List<BookedRoom> bookings) {
+        Instant now = Instant.now();
+        outboxEventRepository.saveAll(bookings.stream()
+                .map(booking -> event(BookingEventType.BOOKING_CANCELLED, booking, now))
+                .toList());
+    }
+
+    // Helper method to build the event with the booking as JSON payload
+    private OutboxEvent event(BookingEventType type, BookedRoom booking, Instant now) {
+        Room room = booking.getRoom();
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("type", type);
+        payload.put("occurredAt", now.toString());
+        payload.put("bookingId", booking.getBookingId());
+        payload.put("roomId", room.getId());
+        payload.put("confirmationCode", booking.getBookingConfirmationCode());
+        payload.put("groupConfirmationCode", booking.getGroupConfirmationCode());
+        payload.put("checkInDate", booking.getCheckInDate().toString());
+        payload.put("checkOutDate", booking.getCheckOutDate().toString());
+        payload.put("guestFullName", booking.getGuestFullName());
+        payload.put("guestEmail", booking.getGuestEmail());
+        try {
+            return new OutboxEvent(type, room.getId(), room.getVersion(), booking.getBookingId(),
+                    objectMapper.writeValueAsString(payload), now);
+        } catch (JsonProcessingException e) {
+            throw new InternalServerException("Error writing booking event: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.suneth.hotel.service;
+
+import com.suneth.hotel.config.OutboxProperties;
+import com.suneth.hotel.model.OutboxEvent;
+import com.suneth.hotel.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers the booking events recorded by {@link BookingOutbox} to the {@link IBookingEventSink}.
+ * <p>
+ * A single background thread polls the outbox and hands due events to the sink in batches, then
+ * deletes them in the same transaction. Events are locked with SKIP LOCKED while they are being
+ * delivered, so several instances can dispatch at once. The events of a room are delivered in order:
+ * an event is held back while an earlier event of its room is waiting for a retry or is being
+ * delivered by another instance. When the sink fails, the batch is retried with exponential backoff.
+ */
+@Slf4j
+@Service
+public class BookingOutboxDispatcher {
+    // Events handed to the sink and deleted from the outbox
+    private static final String EVENTS_DISPATCHED = "hotel.outbox.dispatched";
+    // Batches the sink failed to accept
+    private static final String DISPATCH_FAILURES = "hotel.outbox.failures";
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    // Within a batch, each room's events in room order
+    private static final Comparator<OutboxEvent> ROOM_ORDER = Comparator.comparing(OutboxEvent::getRoomId)
+            .thenComparingLong(OutboxEvent::getRoomVersion)
+            .thenComparing(OutboxEvent::getId);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final IBookingEventSink bookingEventSink;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final OutboxProperties properties;
+    private final ScheduledExecutorService scheduler;
+
+    public BookingOutboxDispatcher(OutboxEventRepository outboxEventRepository, IBookingEventSink bookingEventSink,
+                                   TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+                                   OutboxProperties properties) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.bookingEventSink = bookingEventSink;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("booking-outbox-"));
+    }
+
+    // Starts polling once the application is up, unless this instance is not meant to dispatch
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isDispatcherEnabled()) {
+            log.info("Booking event dispatcher is disabled on this instance");
+            return;
+        }
+        long interval = Math.max(1, properties.getPollInterval().toMillis());
+        scheduler.scheduleWithFixedDelay(this::poll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    // Method to deliver due events until the outbox is drained or the rest has to wait.
+    // Returns the number of events delivered.
+    public int dispatchPending() {
+        int dispatched = 0;
+        int batch;
+        do {
+            batch = dispatchBatch();
+            dispatched += batch;
+        } while (batch >= properties.getBatchSize());
+        return dispatched;
+    }
+
+    // Helper method that keeps the scheduled task alive when the database is unavailable
+    private void poll() {
+        try {
+            dispatchPending();
+        } catch (RuntimeException e) {
+            log.warn("Failed to dispatch booking events", e);
+        }
+    }
+
+    // Helper method to deliver and delete one batch of due events in one transaction
+    private int dispatchBatch() {
+        Integer dispatched = transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<OutboxEvent> due = outboxEventRepository.findDueForDispatch(now,
+                    PageRequest.ofSize(Math.max(1, properties.getBatchSize())));
+            if (due.isEmpty()) {
+                return 0;
+            }
+            List<OutboxEvent> batch = inRoomOrder(due);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            try {
+                bookingEventSink.publish(batch);
+            } catch (Exception e) {
+                meterRegistry.counter(DISPATCH_FAILURES).increment();
+                log.warn("Booking event sink rejected {} events, retrying later: {}", batch.size(), e.getMessage());
+                // The changes are committed with the transaction, the events stay in the outbox
+                batch.forEach(event -> scheduleRetry(event, now, e));
+                return 0;
+            }
+            outboxEventRepository.deleteAllByIdInBatch(batch.stream().map(OutboxEvent::getId).toList());
+            meterRegistry.counter(EVENTS_DISPATCHED).increment(batch.size());
+            return batch.size();
+        });
+        return dispatched != null ? dispatched : 0;
+    }
+
+    // Helper method to drop the events that must wait for an earlier event of their room which is not
+    // part of this batch, and to sort the rest in room order
+    private List<OutboxEvent> inRoomOrder(List<OutboxEvent> due) {
+        Set<Long> roomIds = due.stream().map(OutboxEvent::getRoomId).collect(Collectors.toSet());
+        List<Long> eventIds = due.stream().map(OutboxEvent::getId).toList();
+        Map<Long, OutboxEventRepository.RoomEvent> firstPending = outboxEventRepository
+                .findFirstEventPerRoom(roomIds, eventIds).stream()
+                .collect(Collectors.toMap(OutboxEventRepository.RoomEvent::getRoomId, Function.identity()));
+        return due.stream()
+                .filter(event -> {
+                    OutboxEventRepository.RoomEvent first = firstPending.get(event.getRoomId());
+                    return first == null || event.getRoomVersion() < first.getRoomVersion()
+                            || event.getRoomVersion() == first.getRoomVersion() && event.getId() < first.getEventId();
+                })
+                .sorted(ROOM_ORDER)
+                .toList();
+    }
+
+    // Helper method to push an event back by the initial backoff, doubled for every earlier attempt
+    private void scheduleRetry(OutboxEvent event, Instant now, Exception e) {
+        event.setAttempts(event.getAttempts() + 1);
+        Duration backoff = properties.getInitialBackoff()
+                .multipliedBy(1L << Math.min(event.getAttempts() - 1, 20));
+        if (backoff.compareTo(properties.getMaxBackoff()) > 0) {
+            backoff = properties.getMaxBackoff();
+        }
+        event.setNextAttemptAt(now.plus(backoff));
+        String error = String.valueOf(e.getMessage());
+        event.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+    }
+}
@@ -1,123 +1,437 @@
 package com.suneth.hotel.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.suneth.hotel.config.MetricsConfig;
+import com.suneth.hotel.event.BookingCancelledEvent;
+import com.suneth.hotel.event.BookingSavedEvent;
 import com.suneth.hotel.exception.InvalidBookingRequestException;
 import com.suneth.hotel.exception.ResourceNotFoundException;
 import com.suneth.hotel.model.BookedRoom;
+import com.suneth.hotel.model.BookingDates;
 import com.suneth.hotel.model.Room;
 import com.suneth.hotel.repository.BookingRepository;
+import com.suneth.hotel.repository.RoomRepository;
+import com.suneth.hotel.request.GroupBookingRequest;
+import com.suneth.hotel.response.BookingResponse;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class BookingServiceImpl implements IBookingService {
 
+    private static final int MAX_BOOKING_ATTEMPTS = 3;
+    private static final int RECENT_CONFIRMATION_CODES = 10_000;
+    private static final int MAX_GROUP_SIZE = 100;
+    // Bookings that lost an optimistic locking race with another instance and were retried
+    private static final String BOOKING_CONFLICTS = "hotel.bookings.conflicts";
+    // Bookings turned down, tagged with the reason
+    private static final String BOOKINGS_REJECTED = "hotel.bookings.rejected";
+
     private final BookingRepository bookingRepository;
-    private final IRoomService roomService;
+    private final RoomRepository roomRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final RoomLockStripes roomLockStripes;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ConfirmationCodeGenerator confirmationCodeGenerator;
+    private final BookingOutbox bookingOutbox;
+    private final OccupancyRollup occupancyRollup;
+    private final RoomCacheEvictor roomCacheEvictor;
+    private final CatalogVersion catalogVersion;
+    private final MeterRegistry meterRegistry;
+
+    // Recently issued or looked up confirmation codes and their booking ids, so repeated lookups
+    // from the "my booking" page go straight to the booking's primary key
+    private final Cache<String, Long> recentConfirmationCodes = Caffeine.newBuilder()
+            .maximumSize(RECENT_CONFIRMATION_CODES)
+            .build();
 
     // Method to retrieve all bookings for a specific room
     @Override
+    @Transactional(readOnly = true)
     public List<BookedRoom> getAllBookingsByRoomId(Long roomId) {
         return bookingRepository.findByRoomId(roomId);
     }
 
     // Method to retrieve all bookings
     @Override
+    @Transactional(readOnly = true)
     public List<BookedRoom> getAllBookings() {
         return bookingRepository.findAll();
     }
 
+    // Method to retrieve one keyset page of bookings with their rooms, ready to be returned to the client
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingResponse> getBookingResponses(long afterId, LocalDate checkInFrom, LocalDate checkInTo, int limit) {
+        return bookingRepository.findBookingResponsePage(afterId, checkInFrom, checkInTo, PageRequest.ofSize(limit));
+    }
+
+    // Method to hand every booking after the given id, optionally from a check-in date on, to the consumer
+    // one at a time. Rows are streamed from the database and mapped straight to unmanaged response
+    // objects, so nothing accumulates in the persistence context and memory stays flat for any row count.
+    @Override
+    @Transactional(readOnly = true)
+    public void exportBookings(long afterId, LocalDate checkInFrom, Consumer<BookingResponse> consumer) {
+        try (Stream<BookingResponse> bookings = bookingRepository.streamBookingResponses(afterId, checkInFrom)) {
+            bookings.forEach(consumer);
+        }
+    }
+
     // Method to cancel a booking by its ID
+    // Like a new booking, a cancellation holds the room's lock and bumps the room's version, which
+    // keeps the room's outbox events in the order the changes were committed.
     @Override
     public void cancelBooking(Long bookingId) {
-        bookingRepository.deleteById(bookingId);
+        Optional<BookedRoom> booking = bookingRepository.findById(bookingId);
+        if (booking.isEmpty()) {
+            return;
+        }
+        Long roomId = booking.get().getRoom().getId();
+        Lock roomLock = roomLockStripes.forRoom(roomId);
+        roomLock.lock();
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    deleteBooking(roomId, bookingId);
+                    return;
+                } catch (ObjectOptimisticLockingFailureException e) {
+                    meterRegistry.counter(BOOKING_CONFLICTS).increment();
+                    if (attempt >= MAX_BOOKING_ATTEMPTS) {
+                        throw new InvalidBookingRequestException("Sorry! The Room Is Busy, Please Try Again.");
+                    }
+                }
+            }
+        } finally {
+            roomLock.unlock();
+        }
+    }
+
+    // Helper method to delete the booking and record its cancellation event in one transaction.
+    // Must be called while holding the room's lock.
+    private void deleteBooking(Long roomId, Long bookingId) {
+        BookedRoom cancelled = transactionTemplate.execute(status -> {
+            roomRepository.findByIdForBooking(roomId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Room not found"));
+            // Cancelled concurrently on another instance if it is gone by now
+            return bookingRepository.findById(bookingId).map(booking -> {
+                bookingRepository.delete(booking);
+                bookingOutbox.bookingCancelled(booking);
+                occupancyRollup.bookingCancelled(booking);
+                // The catalog is unchanged: the room's booked flag stays on
+                return booking;
+            }).orElse(null);
+        });
+        if (cancelled != null) {
+            recentConfirmationCodes.invalidate(cancelled.getBookingConfirmationCode());
+            bookingIntervalIndex.removeBooking(roomId, bookingId);
+            roomCacheEvictor.evict(roomId);
+            eventPublisher.publishEvent(new BookingCancelledEvent(roomId, bookingId,
+                    cancelled.getCheckInDate(), cancelled.getCheckOutDate()));
+        }
     }
 
     // Method to save a booking for a room
+    // Attempts for the same room are serialised by a striped lock that is held until the booking has
+    // committed and the interval index is updated, so two guests can never both pass the availability
+    // check for overlapping nights. Attempts for other rooms proceed in parallel.
     @Override
     public String saveBooking(Long roomId, BookedRoom bookingRequest) {
-        // Check if check-out date is before check-in date
-        if (bookingRequest.getCheckOutDate().isBefore(bookingRequest.getCheckInDate())) {
-            throw new InvalidBookingRequestException("Check-In Date Must Come Before Check-Out Date.");
+        checkStayDates(bookingRequest.getCheckInDate(), bookingRequest.getCheckOutDate());
+        bookingRequest.setBookingConfirmationCode(confirmationCodeGenerator.next());
+        Lock roomLock = roomLockStripes.forRoom(roomId);
+        roomLock.lock();
+        try {
+            boolean indexReloaded = false;
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return insertBooking(roomId, bookingRequest, indexReloaded);
+                } catch (ObjectOptimisticLockingFailureException e) {
+                    meterRegistry.counter(BOOKING_CONFLICTS).increment();
+                    // Another application instance booked or changed this room, concurrently or since the
+                    // index loaded it. Our index may have missed that booking, so reload it before trying again.
+                    bookingIntervalIndex.reloadRoom(roomId);
+                    indexReloaded = true;
+                    if (attempt >= MAX_BOOKING_ATTEMPTS) {
+                        throw rejected("busy", "Sorry! The Room Is Busy, Please Try Again.");
+                    }
+                }
+            }
+        } finally {
+            roomLock.unlock();
         }
-        // Retrieve room details
-        Room room = roomService.getRoomById(roomId).get();
-        List<BookedRoom> existingBookings = room.getBookings();
+    }
 
-        // Check room availability for the requested booking
-        boolean isRoomAvailable = checkRoomAvailability(bookingRequest, existingBookings);
-        if (isRoomAvailable) {
+    // Helper method to check availability and insert the booking in one transaction.
+    // Must be called while holding the room's lock.
+    private String insertBooking(Long roomId, BookedRoom bookingRequest, boolean indexReloaded) {
+        LocalDate checkInDate = bookingRequest.getCheckInDate();
+        LocalDate checkOutDate = bookingRequest.getCheckOutDate();
+        // Check room availability for the requested booking against the interval index. A hit is only a
+        // hint: the booking it found may have been cancelled through another instance since the index
+        // loaded the room, so the room is reloaded before the stay is turned down.
+        if (!indexReloaded && !bookingIntervalIndex.isAvailable(roomId, checkInDate, checkOutDate)) {
+            bookingIntervalIndex.reloadRoom(roomId);
+        }
+        if (!bookingIntervalIndex.isAvailable(roomId, checkInDate, checkOutDate)) {
+            throw rejected("unavailable", "Sorry! The Room Is Unavailable For The Dates You've Selected.");
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            // Loading the room this way bumps its version on commit, so a concurrent booking of
+            // the same room from another instance fails with an optimistic locking error
+            Room room = roomRepository.findByIdForBooking(roomId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Room not found"));
+            checkNotBookedMeanwhile(List.of(roomId), List.of(bookingRequest));
+            // Never reuse an id from the request body or from a rolled back attempt, and never let the
+            // request body attach the booking to somebody else's group booking
+            bookingRequest.setBookingId(null);
+            bookingRequest.setGroupConfirmationCode(null);
+            bookingRequest.setNightlyRate(room.getRoomPrice());
+            boolean turnsBooked = !room.isBooked();
             room.addBooking(bookingRequest);
             bookingRepository.save(bookingRequest);
-        } else {
-            throw new InvalidBookingRequestException("Sorry! The Room Is Unavailable For The Dates You've Selected.");
-        }
+            bookingOutbox.bookingsCreated(List.of(bookingRequest));
+            occupancyRollup.bookingsCreated(List.of(bookingRequest));
+            // The listing shows whether rooms are booked
+            if (turnsBooked) {
+                catalogVersion.changedSoon();
+            }
+        });
+        bookingSaved(roomId, bookingRequest);
         return bookingRequest.getBookingConfirmationCode();
     }
 
-    // Method to check check if the room is available for the requested booking dates
-    private boolean checkRoomAvailability(BookedRoom bookingRequest, List<BookedRoom> existingBookings) {
-        return existingBookings.stream()
-                .noneMatch(existingBooking ->
-                        // Condition to check if requested dates overlap with existing bookings
-                        // Return true if there is no overlap
-                        // Otherwise, return false indicating the room is not available
-                        bookingRequest.getCheckInDate().equals(existingBooking.getCheckInDate())
-                                || bookingRequest.getCheckOutDate().isBefore(existingBooking.getCheckOutDate())
-                                || (bookingRequest.getCheckInDate().isAfter(existingBooking.getCheckInDate())
-                                && bookingRequest.getCheckInDate().isBefore(existingBooking.getCheckOutDate()))
-                                || (bookingRequest.getCheckInDate().isBefore(existingBooking.getCheckInDate())
+    // Method to book several rooms for one guest, all together or not at all.
+    // Every stay is validated before anything is written. The locks of all rooms are held while the
+    // rooms are loaded in one query and the bookings are inserted in JDBC batches in one transaction.
+    @Override
+    public List<BookedRoom> saveGroupBooking(GroupBookingRequest groupBookingRequest) {
+        List<GroupBookingRequest.RoomStay> stays = groupBookingRequest.getRooms();
+        if (stays == null || stays.isEmpty()) {
+            throw rejected("invalid_request", "A Group Booking Needs At Least One Room.");
+        }
+        if (stays.size() > MAX_GROUP_SIZE) {
+            throw rejected("invalid_request", "A Group Booking Can Have At Most " + MAX_GROUP_SIZE + " Rooms.");
+        }
+        String groupConfirmationCode = confirmationCodeGenerator.next();
+        List<Long> roomIds = new ArrayList<>(stays.size());
+        List<BookedRoom> bookings = new ArrayList<>(stays.size());
+        for (GroupBookingRequest.RoomStay stay : stays) {
+            if (stay.getRoomId() == null || stay.getCheckInDate() == null || stay.getCheckOutDate() == null) {
+                throw rejected("invalid_request", "Each Room Needs A Room Id, Check-In Date And Check-Out Date.");
+            }
+            checkStayDates(stay.getCheckInDate(), stay.getCheckOutDate());
+            BookedRoom booking = new BookedRoom();
+            booking.setCheckInDate(stay.getCheckInDate());
+            booking.setCheckOutDate(stay.getCheckOutDate());
+            booking.setGuestFullName(groupBookingRequest.getGuestFullName());
+            booking.setGuestEmail(groupBookingRequest.getGuestEmail());
+            booking.setNumOfAdults(stay.getNumOfAdults());
+            booking.setNumOfChildren(stay.getNumOfChildren());
+            booking.setBookingConfirmationCode(confirmationCodeGenerator.next());
+            booking.setGroupConfirmationCode(groupConfirmationCode);
+            roomIds.add(stay.getRoomId());
+            bookings.add(booking);
+        }
+        // The group must not book the same room twice for overlapping nights
+        for (int i = 0; i < bookings.size(); i++) {
+            for (int j = i + 1; j < bookings.size(); j++) {
+                if (roomIds.get(i).equals(roomIds.get(j))
+                        && bookings.get(i).getCheckInDate().isBefore(bookings.get(j).getCheckOutDate())
+                        && bookings.get(j).getCheckInDate().isBefore(bookings.get(i).getCheckOutDate())) {
+                    throw rejected("invalid_request",
+                            "Room " + roomIds.get(i) + " Is Booked Twice For Overlapping Dates In This Group.");
+                }
+            }
+        }
 
-                                && bookingRequest.getCheckOutDate().equals(existingBooking.getCheckOutDate()))
-                                || (bookingRequest.getCheckInDate().isBefore(existingBooking.getCheckInDate())
+        Set<Long> distinctRoomIds = new LinkedHashSet<>(roomIds);
+        List<Lock> roomLocks = roomLockStripes.forRooms(distinctRoomIds);
+        roomLocks.forEach(Lock::lock);
+        try {
+            boolean indexReloaded = false;
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    insertGroupBooking(roomIds, distinctRoomIds, bookings, indexReloaded);
+                    return bookings;
+                } catch (ObjectOptimisticLockingFailureException e) {
+                    meterRegistry.counter(BOOKING_CONFLICTS).increment();
+                    // Another application instance booked or changed one of the rooms, concurrently or
+                    // since the index loaded it
+                    bookingIntervalIndex.reloadRooms(distinctRoomIds);
+                    indexReloaded = true;
+                    if (attempt >= MAX_BOOKING_ATTEMPTS) {
+                        throw rejected("busy", "Sorry! The Rooms Are Busy, Please Try Again.");
+                    }
+                }
+            }
+        } finally {
+            for (int i = roomLocks.size() - 1; i >= 0; i--) {
+                roomLocks.get(i).unlock();
+            }
+        }
+    }
 
-                                && bookingRequest.getCheckOutDate().isAfter(existingBooking.getCheckOutDate()))
+    // Helper method to check availability of every stay and insert all bookings in one transaction.
+    // Must be called while holding the locks of all the rooms.
+    private void insertGroupBooking(List<Long> roomIds, Set<Long> distinctRoomIds, List<BookedRoom> bookings,
+                                    boolean indexReloaded) {
+        bookingIntervalIndex.loadRooms(distinctRoomIds);
+        if (!indexReloaded) {
+            // As for a single booking, rooms the index reports as taken are reloaded, all in one query,
+            // before any stay is turned down
+            Set<Long> taken = new LinkedHashSet<>();
+            for (int i = 0; i < bookings.size(); i++) {
+                BookedRoom booking = bookings.get(i);
+                if (!bookingIntervalIndex.isAvailable(roomIds.get(i), booking.getCheckInDate(), booking.getCheckOutDate())) {
+                    taken.add(roomIds.get(i));
+                }
+            }
+            if (!taken.isEmpty()) {
+                bookingIntervalIndex.reloadRooms(taken);
+            }
+        }
+        for (int i = 0; i < bookings.size(); i++) {
+            BookedRoom booking = bookings.get(i);
+            if (!bookingIntervalIndex.isAvailable(roomIds.get(i), booking.getCheckInDate(), booking.getCheckOutDate())) {
+                throw rejected("unavailable",
+                        "Sorry! Room " + roomIds.get(i) + " Is Unavailable For The Dates You've Selected.");
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, Room> rooms = roomRepository.findAllByIdForBooking(distinctRoomIds).stream()
+                    .collect(Collectors.toMap(Room::getId, Function.identity()));
+            for (int i = 0; i < bookings.size(); i++) {
+                Room room = rooms.get(roomIds.get(i));
+                if (room == null) {
+                    throw new ResourceNotFoundException("Room not found: " + roomIds.get(i));
+                }
+            }
+            checkNotBookedMeanwhile(roomIds, bookings);
+            boolean turnsBooked = false;
+            for (int i = 0; i < bookings.size(); i++) {
+                Room room = rooms.get(roomIds.get(i));
+                BookedRoom booking = bookings.get(i);
+                booking.setBookingId(null);
+                booking.setNightlyRate(room.getRoomPrice());
+                turnsBooked |= !room.isBooked();
+                room.addBooking(booking);
+            }
+            // Ids come from the pooled sequence, so the inserts go out as JDBC batches on commit
+            bookingRepository.saveAll(bookings);
+            bookingOutbox.bookingsCreated(bookings);
+            occupancyRollup.bookingsCreated(bookings);
+            // The listing shows whether rooms are booked
+            if (turnsBooked) {
+                catalogVersion.changedSoon();
+            }
+        });
+        for (int i = 0; i < bookings.size(); i++) {
+            bookingSaved(roomIds.get(i), bookings.get(i));
+        }
+    }
 
-                                || (bookingRequest.getCheckInDate().equals(existingBooking.getCheckOutDate())
-                                && bookingRequest.getCheckOutDate().equals(existingBooking.getCheckInDate()))
+    // Helper method to check the stays against the bookings in the database, inside the booking transaction
+    // once the rooms are loaded for booking. The interval index of this instance only learns of a booking
+    // made through another instance when a booking here conflicts with it, so it may still miss one that
+    // committed earlier. One that commits after this check bumps the room's version and fails our commit.
+    // A stay that overlaps is treated like a lost optimistic locking race: the caller reloads the rooms
+    // into the index and tries again, and the index then turns the stay down.
+    private void checkNotBookedMeanwhile(List<Long> roomIds, List<BookedRoom> bookings) {
+        LocalDate from = bookings.stream().map(BookedRoom::getCheckInDate).min(LocalDate::compareTo).orElseThrow();
+        LocalDate to = bookings.stream().map(BookedRoom::getCheckOutDate).max(LocalDate::compareTo).orElseThrow();
+        List<BookingDates> booked = bookingRepository.findBookingDatesByRoomIdInBetween(
+                new LinkedHashSet<>(roomIds), from, to);
+        for (BookingDates existing : booked) {
+            for (int i = 0; i < bookings.size(); i++) {
+                BookedRoom booking = bookings.get(i);
+                if (existing.getRoomId().equals(roomIds.get(i))
+                        && existing.getCheckInDate().isBefore(booking.getCheckOutDate())
+                        && booking.getCheckInDate().isBefore(existing.getCheckOutDate())) {
+                    throw new ObjectOptimisticLockingFailureException(Room.class, roomIds.get(i));
+                }
+            }
+        }
+    }
 
-                                || (bookingRequest.getCheckInDate().equals(existingBooking.getCheckOutDate())
-                                && bookingRequest.getCheckOutDate().equals(bookingRequest.getCheckInDate()))
-                );
+    // Helper method to check that a stay covers at least one night
+    private void checkStayDates(LocalDate checkInDate, LocalDate checkOutDate) {
+        if (!checkOutDate.isAfter(checkInDate)) {
+            throw rejected("invalid_dates", "Check-In Date Must Come Before Check-Out Date.");
+        }
+    }
+
+    // Helper method to count a rejected booking and build the exception telling the guest why
+    private InvalidBookingRequestException rejected(String reason, String message) {
+        meterRegistry.counter(BOOKINGS_REJECTED, "reason", reason).increment();
+        return new InvalidBookingRequestException(message);
+    }
+
+    // Helper method to bring the in-memory state up to date once a booking has committed
+    private void bookingSaved(Long roomId, BookedRoom booking) {
+        bookingIntervalIndex.addBooking(roomId, booking.getBookingId(),
+                booking.getCheckInDate(), booking.getCheckOutDate());
+        recentConfirmationCodes.put(booking.getBookingConfirmationCode(), booking.getBookingId());
+        // Booking a room flips its booked flag
+        roomCacheEvictor.evict(roomId);
+        eventPublisher.publishEvent(new BookingSavedEvent(roomId, booking.getBookingId(),
+                booking.getCheckInDate(), booking.getCheckOutDate()));
     }
 
     // Method to find a booking by its confirmation code
     @Override
+    @Transactional(readOnly = true)
     public BookedRoom findByBookingConfirmationCode(String confirmationCode) {
-        return bookingRepository.findByBookingConfirmationCode(confirmationCode)
+        Long bookingId = recentConfirmationCodes.getIfPresent(confirmationCode);
+        if (bookingId != null) {
+            Optional<BookedRoom> booking = bookingRepository.findWithRoomByBookingId(bookingId);
+            if (booking.isPresent()) {
+                return booking.get();
+            }
+            // Cancelled on another instance since it was cached
+            recentConfirmationCodes.invalidate(confirmationCode);
+        }
+        // A code with a wrong check digit was never issued, so there is nothing to look up
+        if (!ConfirmationCodeGenerator.isWellFormed(confirmationCode)) {
+            throw new ResourceNotFoundException("No Booking Found for Confirmation Code! " + confirmationCode);
+        }
+        BookedRoom booking = bookingRepository.findByBookingConfirmationCode(confirmationCode)
                 .orElseThrow(()->new ResourceNotFoundException("No Booking Found for Confirmation Code! " + confirmationCode));
+        recentConfirmationCodes.put(confirmationCode, booking.getBookingId());
+        return booking;
     }
-}
-/**
- * Let's break down the conditions:
- * <p>
- * bookingRequest.getCheckInDate().equals(existingBooking.getCheckInDate()):
- * Checks if the requested check-in date is the same as the existing booking's check-in date.
- * <p>
- * bookingRequest.getCheckOutDate().isBefore(existingBooking.getCheckOutDate())
- * Checks if the requested check-out date is before the existing booking's check-out date.
- * <p>
- * (bookingRequest.getCheckInDate().isAfter(existingBooking.getCheckInDate()) && bookingRequest.getCheckInDate().isBefore(existingBooking.getCheckOutDate())):
- * Checks if the requested check-in date falls within the range of the existing booking's check-in and check-out dates.
- * <p>
- * (bookingRequest.getCheckInDate().isBefore(existingBooking.getCheckInDate()) && bookingRequest.getCheckOutDate().equals(existingBooking.getCheckOutDate())):
- * Checks if the requested check-in date is before the existing booking's check-in date and
- * the requested check-out date is the same as the existing booking's check-out date.
- * <p>
- * (bookingRequest.getCheckInDate().isBefore(existingBooking.getCheckInDate()) && bookingRequest.getCheckOutDate().isAfter(existingBooking.getCheckOutDate())):
- * Checks if the requested booking spans across the entire duration of the existing booking.
- * <p>
- * (bookingRequest.getCheckInDate().equals(existingBooking.getCheckOutDate()) && bookingRequest.getCheckOutDate().equals(existingBooking.getCheckInDate())):
- * Checks if the requested check-in date is the same as the existing booking's check-out date and
- * the requested check-out date is the same as the existing booking's check-in date.
- * <p>
- * (bookingRequest.getCheckInDate().equals(existingBooking.getCheckOutDate()) && bookingRequest.getCheckOutDate().equals(bookingRequest.getCheckInDate())):
- * Checks if both the requested check-in and check-out dates are the same, indicating a zero-duration booking.
- * <p>
- * The noneMatch method is used to ensure that none of the existing bookings match any of the conditions above.
- * If none of the conditions are met for any existing booking, it means there is no overlap, and the method returns true,
- * indicating that the room is available. Otherwise, it returns false, indicating that the room is not available.
- */
 
+    // Method to find all bookings made together under a group confirmation code
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookedRoom> findByGroupConfirmationCode(String groupConfirmationCode) {
+        List<BookedRoom> bookings = bookingRepository.findByGroupConfirmationCode(groupConfirmationCode);
+        if (bookings.isEmpty()) {
+            throw new ResourceNotFoundException("No Booking Found for Group Confirmation Code! " + groupConfirmationCode);
+        }
+        return bookings;
+    }
+}
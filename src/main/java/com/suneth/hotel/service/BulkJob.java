@@ -0,0 +1,68 @@
+package com.suneth.hotel.service;
+
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of a long running bulk operation, updated by the job while it runs and polled by clients.
+ */
+@Getter
+public class BulkJob {
+    // Only the first errors are kept so that a file full of bad rows cannot exhaust memory
+    private static final int MAX_ERRORS = 100;
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final String type;
+    private final Instant createdAt = Instant.now();
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant finishedAt;
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final List<String> errors = new ArrayList<>();
+
+    public BulkJob(String type) {
+        this.type = type;
+    }
+
+    // Method to count items that were applied
+    public void addProcessed(long count) {
+        processed.addAndGet(count);
+    }
+
+    // Method to count an item that was skipped, keeping its error message
+    public void addFailure(String error) {
+        failed.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(error);
+            }
+        }
+    }
+
+    public List<String> getErrors() {
+        synchronized (errors) {
+            return List.copyOf(errors);
+        }
+    }
+
+    void start() {
+        status = Status.RUNNING;
+    }
+
+    void finish(Status finalStatus) {
+        finishedAt = Instant.now();
+        status = finalStatus;
+    }
+}
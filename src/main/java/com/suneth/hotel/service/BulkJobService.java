@@ -0,0 +1,96 @@
+package com.suneth.hotel.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs bulk operations in the background and keeps their progress for clients to poll.
+ * <p>
+ * Jobs run one at a time so that a large import cannot starve interactive requests of database
+ * connections; a few more wait in a short queue and anything beyond that is rejected. Finished jobs
+ * are remembered for a day.
+ */
+@Slf4j
+@Service
+public class BulkJobService {
+    private static final int MAX_QUEUED_JOBS = 8;
+
+    private final IRoomService roomService;
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(MAX_QUEUED_JOBS), new CustomizableThreadFactory("bulk-job-"));
+    private final Cache<String, BulkJob> jobs = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofDays(1))
+            .maximumSize(1000)
+            .build();
+
+    public BulkJobService(IRoomService roomService) {
+        this.roomService = roomService;
+    }
+
+    // Method to start importing rooms from an uploaded file.
+    // The upload is moved to a temp file first so the job can read it after the request has completed.
+    public BulkJob submitRoomImport(MultipartFile file, RoomImportFormat format) throws IOException {
+        Path spooled = Files.createTempFile("room-import-", ".tmp");
+        try {
+            file.transferTo(spooled);
+            return submit("room-import", job -> {
+                try (InputStream content = Files.newInputStream(spooled)) {
+                    roomService.importRooms(content, format, job);
+                } finally {
+                    Files.deleteIfExists(spooled);
+                }
+            });
+        } catch (IOException | RejectedExecutionException e) {
+            Files.deleteIfExists(spooled);
+            throw e;
+        }
+    }
+
+    // Method to look up a job by its ID
+    public Optional<BulkJob> findJob(String jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private BulkJob submit(String type, JobWork work) {
+        BulkJob job = new BulkJob(type);
+        executor.execute(() -> {
+            job.start();
+            try {
+                work.run(job);
+                job.finish(BulkJob.Status.COMPLETED);
+            } catch (Exception e) {
+                log.warn("Bulk job {} ({}) failed", job.getId(), type, e);
+                job.addFailure(e.getMessage());
+                job.finish(BulkJob.Status.FAILED);
+            }
+        });
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    @FunctionalInterface
+    private interface JobWork {
+        void run(BulkJob job) throws Exception;
+    }
+}
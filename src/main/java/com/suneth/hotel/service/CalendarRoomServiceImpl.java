@@ -0,0 +1,145 @@
+package com.suneth.hotel.service;
+
+import com.suneth.hotel.config.MetricsConfig;
+import com.suneth.hotel.model.Room;
+import com.suneth.hotel.model.RoomDetails;
+import com.suneth.hotel.repository.RoomRepository;
+import com.suneth.hotel.response.FlexibleStayResponse;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Room service that answers availability searches from the in-memory {@link RoomAvailabilityCalendar}
+ * instead of the NOT IN query of {@link RoomServiceImpl}.
+ * <p>
+ * Enabled with {@code hotel.availability.engine=calendar}; with any other value {@link RoomServiceImpl}
+ * serves searches directly, which makes it easy to benchmark one engine against the other.
+ * Everything except the search is delegated to {@link RoomServiceImpl}.
+ */
+@Primary
+@Service
+@RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
+@ConditionalOnProperty(name = "hotel.availability.engine", havingValue = "calendar")
+public class CalendarRoomServiceImpl implements IRoomService {
+
+    private final RoomServiceImpl delegate;
+    private final RoomAvailabilityCalendar calendar;
+    private final RoomRepository roomRepository;
+    private final IRoomTypeService roomTypeService;
+
+    // Method to add a new room, then give it a slot in the calendar
+    @Override
+    public Room addNewRoom(MultipartFile photo, String roomType, BigDecimal roomPrice) throws IOException {
+        Room room = delegate.addNewRoom(photo, roomType, roomPrice);
+        calendar.putRoom(room);
+        return room;
+    }
+
+    @Override
+    public List<String> getAllRoomTypes() {
+        return delegate.getAllRoomTypes();
+    }
+
+    @Override
+    public List<Room> getAllRooms() {
+        return delegate.getAllRooms();
+    }
+
+    @Override
+    public List<Room> getRooms(long afterId, String roomType, BigDecimal minPrice, BigDecimal maxPrice, int limit) {
+        return delegate.getRooms(afterId, roomType, minPrice, maxPrice, limit);
+    }
+
+    // Method to delete a room, then drop it from the calendar
+    @Override
+    public void deleteRoom(Long roomId) {
+        delegate.deleteRoom(roomId);
+        calendar.removeRooms(List.of(roomId));
+    }
+
+    // Method to delete several rooms, then drop them from the calendar
+    @Override
+    public int deleteRooms(Collection<Long> roomIds) {
+        int deleted = delegate.deleteRooms(roomIds);
+        calendar.removeRooms(roomIds);
+        return deleted;
+    }
+
+    // Method to delete all rooms of a type, then drop them from the calendar
+    @Override
+    public int deleteRoomsByType(String roomType) {
+        // The same rooms the delegate deletes, read first since they are gone afterwards
+        List<Long> roomIds = roomRepository.findIdsByRoomType(roomType);
+        int deleted = delegate.deleteRooms(roomIds);
+        calendar.removeRooms(roomIds);
+        return deleted;
+    }
+
+    @Override
+    public int adjustPricesByType(String roomType, BigDecimal percent) {
+        return delegate.adjustPricesByType(roomType, percent);
+    }
+
+    // Method to import rooms, then rebuild the calendar to give them slots; an import may add
+    // thousands of rooms, which one rebuild lays out more compactly than as many single additions
+    @Override
+    public void importRooms(InputStream content, RoomImportFormat format, BulkJob job) throws IOException {
+        try {
+            delegate.importRooms(content, format, job);
+        } finally {
+            // Batches already committed stay imported even if a later one fails
+            calendar.rebuild();
+        }
+    }
+
+    // Method to update a room, then move it to its new type's mask in case its type changed
+    @Override
+    public Room updateRoom(Long roomId, String roomType, BigDecimal roomPrice, MultipartFile photo) {
+        Room room = delegate.updateRoom(roomId, roomType, roomPrice, photo);
+        if (roomType != null) {
+            calendar.putRoom(room);
+        }
+        return room;
+    }
+
+    @Override
+    public Optional<RoomDetails> getRoomById(Long roomId) {
+        return delegate.getRoomById(roomId);
+    }
+
+    // Method to get available rooms from the calendar, falling back to the database query for
+    // stays that reach outside the calendar's horizon
+    @Override
+    public List<Room> getAvailableRooms(LocalDate checkInDate, LocalDate checkOutDate, String roomType) {
+        List<Long> roomIds = calendar.findAvailableRoomIds(checkInDate, checkOutDate,
+                roomTypeService.findMatchingTypeIds(roomType));
+        if (roomIds == null) {
+            return delegate.getAvailableRooms(checkInDate, checkOutDate, roomType);
+        }
+        List<Room> rooms = roomRepository.findAllById(roomIds);
+        rooms.sort(Comparator.comparing(Room::getId));
+        return rooms;
+    }
+
+    // Flexible-date searches need every room's price besides its free nights, so they read rooms and
+    // bookings with the single query of the database engine
+    @Override
+    public List<FlexibleStayResponse> getFlexibleStays(LocalDate windowStart, LocalDate windowEnd, int nights,
+                                                       String roomType) {
+        return delegate.getFlexibleStays(windowStart, windowEnd, nights, roomType);
+    }
+}
@@ -0,0 +1,141 @@
+package com.suneth.hotel.service;
+
+import com.suneth.hotel.config.ReplicaRoutingDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Version of the room catalog as served by the listing and room-type endpoints, for conditional GETs.
+ * <p>
+ * Bumped whenever rooms are added, changed or deleted, a photo variant becomes ready, or a booking
+ * turns a room's booked flag on. The version is the single row of the {@code catalog_version} table,
+ * so all instances hand out the same ETags and build their cached bodies for the same versions. A
+ * change made in a transaction bumps the row before the transaction commits, once per transaction, so
+ * the new version becomes visible together with the data. The row stays locked from the bump until
+ * the commit, including the flush of the transaction's own changes, so transactions that bump it run
+ * one at a time.
+ * <p>
+ * Bookings are too frequent for that and must not wait for each other across rooms, so they call
+ * {@link #changedSoon()} instead: their changes are coalesced into one bump of their own, outside of
+ * any booking transaction, at most a second after they committed. Cancellations do not change the
+ * catalog at all, since a room's booked flag stays on.
+ * <p>
+ * The version is read from the primary at most once per {@code hotel.catalog.version-ttl}. This
+ * instance sees its own changes at once; changes committed through other instances show up within
+ * the TTL, which bounds how long a client may be told its copy is current after it went stale.
+ */
+@Component
+public class CatalogVersion {
+
+    private static final String SELECT_VERSION = "SELECT version, last_modified FROM catalog_version WHERE id = 1";
+    private static final String BUMP_VERSION =
+            "UPDATE catalog_version SET version = version + 1, last_modified = GREATEST(last_modified, ?) WHERE id = 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long ttlNanos;
+    private volatile ReadStamp lastRead;
+    private volatile long changedAt = System.nanoTime();
+    private final AtomicBoolean changePending = new AtomicBoolean();
+
+    public CatalogVersion(JdbcTemplate jdbcTemplate,
+                          @Value("${hotel.catalog.version-ttl:1s}") Duration ttl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    // Version and time of the last change in epoch milliseconds, with the strong ETag for it
+    public record Stamp(long version, long lastModified, String etag) {
+    }
+
+    private record ReadStamp(Stamp stamp, long readAt) {
+    }
+
+    public Stamp current() {
+        ReadStamp read = lastRead;
+        long now = System.nanoTime();
+        // A read that started before the last change on this instance may have missed it
+        if (read != null && read.readAt() - changedAt > 0 && now - read.readAt() < ttlNanos) {
+            return read.stamp();
+        }
+        Stamp stamp = ReplicaRoutingDataSource.readFromPrimary(() -> jdbcTemplate.queryForObject(SELECT_VERSION,
+                (rs, rowNum) -> stamp(rs.getLong("version"), rs.getLong("last_modified"))));
+        lastRead = new ReadStamp(stamp, now);
+        return stamp;
+    }
+
+    // Method to record a change to the catalog, as part of the current transaction if there is one
+    public void changed() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            bump();
+            changedAt = System.nanoTime();
+            return;
+        }
+        boolean registered = TransactionSynchronizationManager.getSynchronizations().stream()
+                .anyMatch(BumpOnCommit.class::isInstance);
+        if (!registered) {
+            TransactionSynchronizationManager.registerSynchronization(new BumpOnCommit());
+        }
+    }
+
+    // Method to record a change to the catalog that may show up to a second late, once the current
+    // transaction if any has committed, without touching the version row in that transaction
+    public void changedSoon() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            changePending.set(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                changePending.set(true);
+            }
+        });
+    }
+
+    // Bumps the version once for all changes recorded with changedSoon since the last run
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.SECONDS)
+    public void bumpPending() {
+        if (!changePending.getAndSet(false)) {
+            return;
+        }
+        try {
+            bump();
+        } catch (RuntimeException e) {
+            changePending.set(true);
+            throw e;
+        }
+        changedAt = System.nanoTime();
+    }
+
+    // Bumps the version inside the transaction and lets this instance read it once committed
+    private class BumpOnCommit implements TransactionSynchronization {
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            bump();
+        }
+
+        @Override
+        public void afterCommit() {
+            changedAt = System.nanoTime();
+        }
+    }
+
+    private void bump() {
+        jdbcTemplate.update(BUMP_VERSION, Instant.now().getEpochSecond());
+    }
+
+    // Last-Modified has whole seconds, so the time of the last change is kept in seconds
+    private static Stamp stamp(long version, long lastModifiedSeconds) {
+        return new Stamp(version, lastModifiedSeconds * 1000, "\"" + version + "\"");
+    }
+}
@@ -0,0 +1,149 @@
+package com.suneth.hotel.service;
+
+import com.suneth.hotel.repository.BookingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Issues booking confirmation codes that are unique without asking the database.
+ * <p>
+ * A code is 16 digits: a 13 digit tick counter, the 2 digit node id of the application instance
+ * and a Luhn check digit. The counter counts {@value #TICKS_PER_SECOND} ticks per second since
+ * 2024-01-01 and is advanced with a single compare-and-set, so threads never block each other and
+ * one instance never repeats a tick. Bursts above that rate borrow ticks from the following seconds
+ * and the counter catches up with the clock once the burst is over. Instances configured with
+ * different {@code hotel.booking.node-id} values can never produce the same code. The property has no
+ * default, since instances that all fell back to the same id could, so it must be set on every instance.
+ * <p>
+ * A burst can leave the counter ahead of the clock when the instance stops, so on startup the
+ * counter resumes after the latest code this node issued around the current time instead of at the
+ * clock, and a quick restart never issues a tick twice.
+ * <p>
+ * The check digit catches mistyped codes, so most lookups of a wrong code are answered without
+ * a query.
+ */
+@Component
+public class ConfirmationCodeGenerator {
+    public static final int CODE_LENGTH = 16;
+
+    static final long TICKS_PER_SECOND = 10_000;
+    static final int MAX_NODE_ID = 99;
+    // Codes issued before this generator existed were 10 random digits without a check digit
+    private static final int LEGACY_CODE_LENGTH = 10;
+    // Legacy codes that were issued twice were re-issued as R and the booking id by the V6_1 migration
+    private static final char REISSUED_CODE_PREFIX = 'R';
+    private static final long EPOCH_SECOND = 1_704_067_200L; // 2024-01-01T00:00:00Z
+    private static final int COUNTER_DIGITS = 13;
+    // Codes issued from this long before the clock to this far ahead of it are checked on startup
+    private static final long RESUME_WINDOW_BEFORE = TICKS_PER_SECOND * 3600;
+    private static final long RESUME_WINDOW_AHEAD = TICKS_PER_SECOND * 86_400;
+
+    private final int nodeId;
+    private final LongSupplier currentTimeMillis;
+    private final AtomicLong lastTick = new AtomicLong();
+
+    @Autowired
+    public ConfirmationCodeGenerator(@Value("${hotel.booking.node-id}") int nodeId,
+                                     BookingRepository bookingRepository) {
+        this(nodeId, System::currentTimeMillis);
+        // A group code is issued before the codes of its bookings, so the booking codes alone bound the counter
+        long now = currentTick();
+        bookingRepository.findConfirmationCodesBetween(counterDigits(now - RESUME_WINDOW_BEFORE),
+                        counterDigits(now + RESUME_WINDOW_AHEAD) + "999")
+                .forEach(this::resumeAfter);
+    }
+
+    ConfirmationCodeGenerator(int nodeId, LongSupplier currentTimeMillis) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("hotel.booking.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+        this.currentTimeMillis = currentTimeMillis;
+    }
+
+    // Method to issue the next confirmation code
+    public String next() {
+        long tick = lastTick.accumulateAndGet(currentTick(), (last, clock) -> Math.max(last + 1, clock));
+
+        char[] code = new char[CODE_LENGTH];
+        writeCounter(code, tick);
+        code[COUNTER_DIGITS] = (char) ('0' + nodeId / 10);
+        code[COUNTER_DIGITS + 1] = (char) ('0' + nodeId % 10);
+        code[CODE_LENGTH - 1] = (char) ('0' + luhnCheckDigit(code, CODE_LENGTH - 1));
+        return new String(code);
+    }
+
+    // Method to make sure the tick of an issued code is never issued again; ignores other nodes' and legacy codes
+    void resumeAfter(String code) {
+        if (isWellFormed(code) && code.length() == CODE_LENGTH && code.charAt(0) != REISSUED_CODE_PREFIX
+                && (code.charAt(COUNTER_DIGITS) - '0') * 10 + code.charAt(COUNTER_DIGITS + 1) - '0' == nodeId) {
+            long tick = Long.parseLong(code, 0, COUNTER_DIGITS, 10);
+            lastTick.accumulateAndGet(tick, Math::max);
+        }
+    }
+
+    private long currentTick() {
+        return (currentTimeMillis.getAsLong() / 1000 - EPOCH_SECOND) * TICKS_PER_SECOND;
+    }
+
+    // Helper method to format a tick as the leading digits of a code
+    private static String counterDigits(long tick) {
+        char[] digits = new char[COUNTER_DIGITS];
+        writeCounter(digits, Math.max(tick, 0));
+        return new String(digits);
+    }
+
+    private static void writeCounter(char[] code, long tick) {
+        for (int i = COUNTER_DIGITS - 1; i >= 0; i--) {
+            code[i] = (char) ('0' + tick % 10);
+            tick /= 10;
+        }
+    }
+
+    // Method to tell whether a code could have been issued at all, either by this generator with a
+    // matching check digit, as a legacy 10 digit code or as a re-issued legacy code
+    public static boolean isWellFormed(String code) {
+        if (code == null || code.isEmpty()) {
+            return false;
+        }
+        if (code.charAt(0) == REISSUED_CODE_PREFIX) {
+            return code.length() > 1 && code.length() <= CODE_LENGTH && isDigits(code, 1);
+        }
+        if ((code.length() != CODE_LENGTH && code.length() != LEGACY_CODE_LENGTH) || !isDigits(code, 0)) {
+            return false;
+        }
+        return code.length() == LEGACY_CODE_LENGTH
+                || luhnCheckDigit(code.toCharArray(), CODE_LENGTH - 1) == code.charAt(CODE_LENGTH - 1) - '0';
+    }
+
+    private static boolean isDigits(String code, int from) {
+        for (int i = from; i < code.length(); i++) {
+            if (code.charAt(i) < '0' || code.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Luhn check digit over the first length digits: catches any single wrong digit and most swaps
+    private static int luhnCheckDigit(char[] digits, int length) {
+        int sum = 0;
+        boolean doubled = true;
+        for (int i = length - 1; i >= 0; i--) {
+            int digit = digits[i] - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
@@ -0,0 +1,47 @@
+package com.suneth.hotel.service;
+
+import com.suneth.hotel.config.OutboxProperties;
+import com.suneth.hotel.model.OutboxEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Appends each event to a local file as one JSON line, for testing consumers without a broker
+@Component
+@ConditionalOnProperty(name = "hotel.outbox.sink", havingValue = "file")
+public class FileBookingEventSink implements IBookingEventSink {
+
+    private final Path file;
+
+    public FileBookingEventSink(OutboxProperties properties) {
+        this.file = Paths.get(properties.getFile()).toAbsolutePath();
+    }
+
+    // A batch is written with one call and forced to disk before the dispatcher deletes the events
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (OutboxEvent event : events) {
+            lines.append("{\"eventId\":").append(event.getId())
+                    .append(",\"event\":").append(event.getPayload()).append("}\n");
+        }
+        Files.createDirectories(file.getParent());
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+}
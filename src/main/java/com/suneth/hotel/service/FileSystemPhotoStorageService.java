@@ -0,0 +1,95 @@
+package com.suneth.hotel.service;
+
+import com.suneth.hotel.config.PhotoStorageProperties;
+import com.suneth.hotel.exception.PhotoRetrievalException;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Stores room photos on the local filesystem, keyed by the SHA-256 hash of their content.
+ * <p>
+ * Files are laid out as {@code <directory>/<first two hash chars>/<hash>} so that no single
+ * directory grows too large. Because the key is derived from the content, identical uploads are
+ * stored once and a stored file never changes, which lets the photo endpoint hand out
+ * long-lived cache headers and use the hash as its ETag.
+ */
+@Service
+public class FileSystemPhotoStorageService implements IPhotoStorageService {
+
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+
+    public FileSystemPhotoStorageService(PhotoStorageProperties properties) throws IOException {
+        this.root = Paths.get(properties.getDirectory()).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+    }
+
+    // Method to store photo content and return its content hash
+    @Override
+    public String store(InputStream content) throws IOException {
+        MessageDigest digest = newDigest();
+        // Stream to a temp file while hashing so the photo is never held in memory as a whole
+        Path tempFile = Files.createTempFile(root, "upload-", ".tmp");
+        try {
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(tempFile), digest)) {
+                content.transferTo(out);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = resolve(hash);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // Another upload with the same content won the race; its file is identical
+                }
+            }
+            return hash;
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    // Method to load a stored photo as a file-backed resource
+    @Override
+    public Resource load(String hash) {
+        if (!exists(hash)) {
+            throw new PhotoRetrievalException("Photo not found: " + hash);
+        }
+        return new FileSystemResource(resolve(hash));
+    }
+
+    // Method to check whether a photo with the given hash is stored
+    @Override
+    public boolean exists(String hash) {
+        return hash != null && HASH_PATTERN.matcher(hash).matches() && Files.isRegularFile(resolve(hash));
+    }
+
+    private Path resolve(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
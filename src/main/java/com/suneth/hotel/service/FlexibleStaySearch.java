@@ -0,0 +1,138 @@
+package com.suneth.hotel.service;
+
+import com.suneth.hotel.response.FlexibleStayResponse;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Evaluates every stay of a fixed length that fits in a date window at once: for each possible
+ * check-in date, how many rooms are free for the whole stay and which of them is the cheapest.
+ * <p>
+ * Each room's booked nights in the window are a bitset, and a running count of booked nights over
+ * a sliding stay tells for every check-in date whether the room is free, so a room costs one pass
+ * over the window however many bookings it has. Rooms are evaluated in parallel on the common
+ * fork-join pool once there are enough of them to be worth splitting; each split fills its own
+ * per-check-in tallies and the tallies are merged at the end.
+ */
+final class FlexibleStaySearch {
+    // Below this many rooms splitting the work costs more than it saves
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    private final LocalDate windowStart;
+    private final int windowNights;
+    private final int stayNights;
+
+    /**
+     * @param windowStart The first night a stay may start on.
+     * @param windowEnd   The last check-out date; every night of a stay falls in [windowStart, windowEnd).
+     * @param stayNights  The length of the stay in nights.
+     */
+    FlexibleStaySearch(LocalDate windowStart, LocalDate windowEnd, int stayNights) {
+        this.windowStart = windowStart;
+        this.windowNights = (int) (windowEnd.toEpochDay() - windowStart.toEpochDay());
+        this.stayNights = stayNights;
+    }
+
+    // A room to evaluate, with its booked nights as offsets from the window start
+    record RoomNights(long roomId, BigDecimal price, BitSet bookedNights) {
+    }
+
+    // Marks the nights of a booking that fall inside the window as booked
+    void markBooked(BitSet bookedNights, LocalDate checkIn, LocalDate checkOut) {
+        int from = (int) Math.max(0, checkIn.toEpochDay() - windowStart.toEpochDay());
+        int to = (int) Math.min(windowNights, checkOut.toEpochDay() - windowStart.toEpochDay());
+        if (from < to) {
+            bookedNights.set(from, to);
+        }
+    }
+
+    // Returns one result per possible check-in date, in date order
+    List<FlexibleStayResponse> evaluate(Collection<RoomNights> rooms) {
+        int checkIns = windowNights - stayNights + 1;
+        if (checkIns <= 0) {
+            return List.of();
+        }
+        Stream<RoomNights> stream = rooms.size() >= PARALLEL_THRESHOLD ? rooms.parallelStream() : rooms.stream();
+        Tally tally = stream.collect(() -> new Tally(checkIns), this::addRoom, Tally::merge);
+
+        List<FlexibleStayResponse> stays = new ArrayList<>(checkIns);
+        for (int start = 0; start < checkIns; start++) {
+            LocalDate checkIn = windowStart.plusDays(start);
+            int available = tally.availableRooms[start];
+            stays.add(new FlexibleStayResponse(checkIn, checkIn.plusDays(stayNights), available,
+                    available > 0 ? tally.cheapestRoomId[start] : null, tally.cheapestPrice[start]));
+        }
+        return stays;
+    }
+
+    // Helper method to count the room for every check-in date on which it is free for the whole stay
+    private void addRoom(Tally tally, RoomNights room) {
+        BitSet booked = room.bookedNights();
+        int bookedInStay = booked.get(0, stayNights).cardinality();
+        for (int start = 0; start < tally.availableRooms.length; start++) {
+            if (start > 0) {
+                // Slide the stay one night on: drop its old first night, add its new last night
+                if (booked.get(start - 1)) {
+                    bookedInStay--;
+                }
+                if (booked.get(start + stayNights - 1)) {
+                    bookedInStay++;
+                }
+            }
+            if (bookedInStay == 0) {
+                tally.add(start, room.roomId(), room.price());
+            }
+        }
+    }
+
+    // Free rooms and the cheapest free room for each check-in date
+    private static final class Tally {
+        final int[] availableRooms;
+        final long[] cheapestRoomId;
+        final BigDecimal[] cheapestPrice;
+
+        Tally(int checkIns) {
+            availableRooms = new int[checkIns];
+            cheapestRoomId = new long[checkIns];
+            cheapestPrice = new BigDecimal[checkIns];
+        }
+
+        void add(int start, long roomId, BigDecimal price) {
+            int rooms = availableRooms[start]++;
+            if (rooms == 0 || isCheaper(price, roomId, cheapestPrice[start], cheapestRoomId[start])) {
+                cheapestPrice[start] = price;
+                cheapestRoomId[start] = roomId;
+            }
+        }
+
+        void merge(Tally other) {
+            for (int start = 0; start < availableRooms.length; start++) {
+                if (other.availableRooms[start] == 0) {
+                    continue;
+                }
+                if (availableRooms[start] == 0 || isCheaper(other.cheapestPrice[start], other.cheapestRoomId[start],
+                        cheapestPrice[start], cheapestRoomId[start])) {
+                    cheapestPrice[start] = other.cheapestPrice[start];
+                    cheapestRoomId[start] = other.cheapestRoomId[start];
+                }
+                availableRooms[start] += other.availableRooms[start];
+            }
+        }
+
+        // Lower price first, rooms without a price last, then the lower id, so the result does not
+        // depend on how the rooms were split
+        private static boolean isCheaper(BigDecimal price, long roomId, BigDecimal otherPrice, long otherRoomId) {
+            if (price == null || otherPrice == null) {
+                return price != null || otherPrice == null && roomId < otherRoomId;
+            }
+            int compared = price.compareTo(otherPrice);
+            return compared < 0 || compared == 0 && roomId < otherRoomId;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.suneth.hotel.service;
+
+import com.suneth.hotel.response.OccupancyResponse;
+import com.suneth.hotel.response.OccupancySummaryResponse;
+import com.suneth.hotel.response.RollupRebuildResponse;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface IAnalyticsService {
+    List<OccupancyResponse> getDailyOccupancy(LocalDate from, LocalDate to, String roomType);
+
+    OccupancySummaryResponse getOccupancySummary(LocalDate from, LocalDate to);
+
+    RollupRebuildResponse rebuildRollups(LocalDate from, LocalDate to);
+}
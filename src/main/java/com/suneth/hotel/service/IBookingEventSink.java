@@ -0,0 +1,16 @@
+package com.suneth.hotel.service;
+
+import com.suneth.hotel.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Downstream consumer of booking events, such as housekeeping, channel managers or email.
+ * <p>
+ * Events arrive in the order they were written for any one room. A sink that throws gets the same
+ * batch again after a backoff, and an event can also be delivered again if the dispatcher fails
+ * after the sink accepted it, so consumers should use the event id to ignore duplicates.
+ */
+public interface IBookingEventSink {
+    void publish(List<OutboxEvent> events) throws Exception;
+}
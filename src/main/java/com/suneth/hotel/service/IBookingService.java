@@ -1,17 +1,29 @@
 package com.suneth.hotel.service;
 
 import com.suneth.hotel.model.BookedRoom;
+import com.suneth.hotel.request.GroupBookingRequest;
+import com.suneth.hotel.response.BookingResponse;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface IBookingService {
     List<BookedRoom> getAllBookingsByRoomId(Long roomId);
 
     List<BookedRoom> getAllBookings();
 
+    List<BookingResponse> getBookingResponses(long afterId, LocalDate checkInFrom, LocalDate checkInTo, int limit);
+
+    void exportBookings(long afterId, LocalDate checkInFrom, Consumer<BookingResponse> consumer);
+
     void cancelBooking(Long bookingId);
 
     String saveBooking(Long roomId, BookedRoom bookingRequest);
 
+    List<BookedRoom> saveGroupBooking(GroupBookingRequest groupBookingRequest);
+
+    List<BookedRoom> findByGroupConfirmationCode(String groupConfirmationCode);
+
     BookedRoom findByBookingConfirmationCode(String confirmationCode);
 }
@@ -0,0 +1,14 @@
+package com.suneth.hotel.service;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface IPhotoStorageService {
+    String store(InputStream content) throws IOException;
+
+    Resource load(String hash);
+
+    boolean exists(String hash);
+}
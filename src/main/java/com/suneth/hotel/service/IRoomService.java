@@ -1,29 +1,42 @@
 package com.suneth.hotel.service;
 
 import com.suneth.hotel.model.Room;
+import com.suneth.hotel.model.RoomDetails;
+import com.suneth.hotel.response.FlexibleStayResponse;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
-import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface IRoomService {
-    Room addNewRoom(MultipartFile photo, String roomType, BigDecimal roomPrice) throws IOException, SQLException;
+    Room addNewRoom(MultipartFile photo, String roomType, BigDecimal roomPrice) throws IOException;
 
     List<String> getAllRoomTypes();
 
     List<Room> getAllRooms();
 
-    byte[] getRoomPhotoByRoomId(Long roomId) throws SQLException;
+    List<Room> getRooms(long afterId, String roomType, BigDecimal minPrice, BigDecimal maxPrice, int limit);
 
     void deleteRoom(Long roomId);
 
-    Room updateRoom(Long roomId, String roomType, BigDecimal roomPrice, byte[] photoBytes);
+    int deleteRooms(Collection<Long> roomIds);
 
-    Optional<Room> getRoomById(Long roomId);
+    int deleteRoomsByType(String roomType);
+
+    int adjustPricesByType(String roomType, BigDecimal percent);
+
+    void importRooms(InputStream content, RoomImportFormat format, BulkJob job) throws IOException;
+
+    Room updateRoom(Long roomId, String roomType, BigDecimal roomPrice, MultipartFile photo);
+
+    Optional<RoomDetails> getRoomById(Long roomId);
 
     List<Room> getAvailableRooms(LocalDate checkInDate, LocalDate checkOutDate, String roomType);
+
+    List<FlexibleStayResponse> getFlexibleStays(LocalDate windowStart, LocalDate windowEnd, int nights, String roomType);
 }
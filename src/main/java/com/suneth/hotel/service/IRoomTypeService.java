@@ -0,0 +1,23 @@
+package com.suneth.hotel.service;
+
+import com.suneth.hotel.model.RoomType;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface IRoomTypeService {
+    List<RoomType> getRoomTypes();
+
+    RoomType getRoomType(Long roomTypeId);
+
+    RoomType saveRoomType(String name, Integer capacity, String description);
+
+    RoomType updateRoomType(Long roomTypeId, Integer capacity, String description);
+
+    RoomType getOrCreate(String name);
+
+    Map<String, RoomType> getOrCreate(Collection<String> names);
+
+    List<Long> findMatchingTypeIds(String query);
+}
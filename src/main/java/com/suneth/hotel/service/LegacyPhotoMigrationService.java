@@ -0,0 +1,78 @@
+package com.suneth.hotel.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URLConnection;
+import java.util.List;
+
+/**
+ * Moves photos that older versions stored in the {@code room.photo} BLOB column into the photo store.
+ * <p>
+ * Runs once on startup and works through plain JDBC because the {@code photo} column is no longer
+ * mapped on {@link com.suneth.hotel.model.Room}. Each photo is streamed straight from the result set
+ * into the store, then the BLOB is cleared so the row stops carrying the bytes. The old rows never
+ * recorded a content type, so it is guessed from the first bytes of the photo, or taken to be JPEG.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LegacyPhotoMigrationService {
+
+    private static final String DEFAULT_CONTENT_TYPE = "image/jpeg";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IPhotoStorageService photoStorageService;
+
+    private record StoredPhoto(String hash, String contentType) {
+    }
+
+    // Runs before PhotoVariantService picks up rooms that still need variants
+    @Order(1)
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyPhotos() {
+        List<Long> roomIds;
+        try {
+            roomIds = jdbcTemplate.queryForList(
+                    "SELECT id FROM room WHERE photo IS NOT NULL AND photo_hash IS NULL", Long.class);
+        } catch (DataAccessException e) {
+            // Schemas created after the photo store was introduced have no photo column
+            log.debug("No legacy photo column to migrate: {}", e.getMessage());
+            return;
+        }
+        for (Long roomId : roomIds) {
+            StoredPhoto photo = jdbcTemplate.query("SELECT photo FROM room WHERE id = ?", rs -> {
+                if (!rs.next()) {
+                    return null;
+                }
+                try (InputStream blob = rs.getBinaryStream(1)) {
+                    if (blob == null) {
+                        return null;
+                    }
+                    // Buffered so the guess can read the first bytes and reset before the store reads them
+                    InputStream content = new BufferedInputStream(blob);
+                    String contentType = URLConnection.guessContentTypeFromStream(content);
+                    return new StoredPhoto(photoStorageService.store(content),
+                            contentType != null ? contentType : DEFAULT_CONTENT_TYPE);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, roomId);
+            jdbcTemplate.update("UPDATE room SET photo_hash = ?, photo_content_type = ?, photo = NULL WHERE id = ?",
+                    photo != null ? photo.hash() : null, photo != null ? photo.contentType() : null, roomId);
+        }
+        if (!roomIds.isEmpty()) {
+            log.info("Migrated {} legacy room photos to the photo store", roomIds.size());
+        }
+    }
+}
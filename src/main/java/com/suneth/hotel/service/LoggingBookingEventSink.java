@@ -0,0 +1,23 @@
+package com.suneth.hotel.service;
+
+import com.suneth.hotel.model.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Default sink: logs each event without the guest details in the payload
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "hotel.outbox.sink", havingValue = "log", matchIfMissing = true)
+public class LoggingBookingEventSink implements IBookingEventSink {
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            log.info("Booking event {}: {} for booking {} of room {}",
+                    event.getId(), event.getEventType(), event.getBookingId(), event.getRoomId());
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.suneth.hotel.service;
+
+import com.suneth.hotel.config.AnalyticsProperties;
+import com.suneth.hotel.model.BookedRoom;
+import com.suneth.hotel.model.BookingStay;
+import com.suneth.hotel.repository.BookingRepository;
+import com.suneth.hotel.repository.RoomTypeDailyStatsRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Maintains the daily rooms sold and revenue per room type in the room_type_daily_stats table.
+ * <p>
+ * Booking changes add or subtract their nights in the transaction that makes the change, with one
+ * batched upsert, so the rollup commits if and only if the change does. The rows touched are
+ * upserted in date and room type order, so concurrent bookings lock them in the same order. Revenue
+ * counts the nightly rate recorded on the booking. The rollup can also be rebuilt from the bookings,
+ * a month per transaction with several months in parallel, to backfill history or to repair it.
+ */
+@Component
+public class OccupancyRollup {
+    private static final String UPSERT_NIGHTS = "INSERT INTO room_type_daily_stats " +
+            "(stay_date, room_type, rooms_sold, revenue) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE rooms_sold = rooms_sold + VALUES(rooms_sold), revenue = revenue + VALUES(revenue)";
+
+    private final BookingRepository bookingRepository;
+    private final RoomTypeDailyStatsRepository statsRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService rebuildExecutor;
+
+    public OccupancyRollup(BookingRepository bookingRepository, RoomTypeDailyStatsRepository statsRepository,
+                           JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                           AnalyticsProperties properties) {
+        this.bookingRepository = bookingRepository;
+        this.statsRepository = statsRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.rebuildExecutor = Executors.newFixedThreadPool(Math.max(1, properties.getRebuildThreads()),
+                new CustomizableThreadFactory("occupancy-rebuild-"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    // Method to add the nights of new bookings; their rooms must be loaded and their rates set
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bookingsCreated(List<BookedRoom> bookings) {
+        Map<Night, Delta> deltas = new TreeMap<>();
+        for (BookedRoom booking : bookings) {
+            addStay(deltas, booking.getRoom().getRoomType(), booking.getCheckInDate(), booking.getCheckOutDate(),
+                    rateOf(booking), 1, null, null);
+        }
+        apply(deltas);
+    }
+
+    // Method to take the nights of a cancelled booking back out
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bookingCancelled(BookedRoom booking) {
+        Map<Night, Delta> deltas = new TreeMap<>();
+        addStay(deltas, booking.getRoom().getRoomType(), booking.getCheckInDate(), booking.getCheckOutDate(),
+                rateOf(booking), -1, null, null);
+        apply(deltas);
+    }
+
+    // Method to move a room's booked nights from its old room type to its new one.
+    // Must be called before the room's new type and price are written.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void roomTypeChanged(Long roomId, String oldRoomType, String newRoomType) {
+        Map<Night, Delta> deltas = new TreeMap<>();
+        for (BookingStay stay : bookingRepository.findStaysByRoomIdIn(List.of(roomId))) {
+            addStay(deltas, oldRoomType, stay.getCheckInDate(), stay.getCheckOutDate(), stay.getNightlyRate(), -1,
+                    null, null);
+            addStay(deltas, newRoomType, stay.getCheckInDate(), stay.getCheckOutDate(), stay.getNightlyRate(), 1,
+                    null, null);
+        }
+        apply(deltas);
+    }
+
+    // Method to take out the nights of all bookings of rooms about to be deleted
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void roomsDeleted(Collection<Long> roomIds) {
+        Map<Night, Delta> deltas = new TreeMap<>();
+        for (BookingStay stay : bookingRepository.findStaysByRoomIdIn(roomIds)) {
+            addStay(deltas, stay.getRoomType(), stay.getCheckInDate(), stay.getCheckOutDate(), stay.getNightlyRate(),
+                    -1, null, null);
+        }
+        apply(deltas);
+    }
+
+    // Method to recompute the rollup of the nights in [from, to) from the bookings.
+    // Each month is replaced in its own transaction, up to rebuildThreads months at once.
+    // Returns the number of rollup rows written.
+    public int rebuild(LocalDate from, LocalDate to) {
+        List<CompletableFuture<Integer>> months = new ArrayList<>();
+        LocalDate start = from;
+        while (start.isBefore(to)) {
+            LocalDate monthFrom = start;
+            LocalDate monthTo = start.withDayOfMonth(1).plusMonths(1);
+            LocalDate end = monthTo.isBefore(to) ? monthTo : to;
+            months.add(CompletableFuture.supplyAsync(() -> rebuildRange(monthFrom, end), rebuildExecutor));
+            start = end;
+        }
+        try {
+            return months.stream().mapToInt(CompletableFuture::join).sum();
+        } catch (CompletionException e) {
+            months.forEach(month -> month.cancel(false));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // Helper method to replace the rollup rows of [from, to) in one transaction. The rows are deleted
+    // before the bookings are read; on MySQL that locks the range, so a booking committing meanwhile
+    // waits and then adds its nights on top of the rebuilt rows.
+    private int rebuildRange(LocalDate from, LocalDate to) {
+        Integer rows = transactionTemplate.execute(status -> {
+            statsRepository.deleteBetween(from, to);
+            Map<Night, Delta> deltas = new TreeMap<>();
+            try (Stream<BookingStay> stays = bookingRepository.streamStaysBetween(from, to)) {
+                stays.forEach(stay -> addStay(deltas, stay.getRoomType(), stay.getCheckInDate(),
+                        stay.getCheckOutDate(), stay.getNightlyRate(), 1, from, to));
+            }
+            apply(deltas);
+            return deltas.size();
+        });
+        return rows != null ? rows : 0;
+    }
+
+    // Helper method to add one room for each night of a stay, limited to [from, to) when given,
+    // with sign -1 to take the nights out again
+    private static void addStay(Map<Night, Delta> deltas, String roomType, LocalDate checkIn, LocalDate checkOut,
+                                BigDecimal rate, int sign, LocalDate from, LocalDate to) {
+        LocalDate first = from != null && from.isAfter(checkIn) ? from : checkIn;
+        LocalDate end = to != null && to.isBefore(checkOut) ? to : checkOut;
+        BigDecimal nightRevenue = rate != null ? rate : BigDecimal.ZERO;
+        if (sign < 0) {
+            nightRevenue = nightRevenue.negate();
+        }
+        String type = Objects.requireNonNullElse(roomType, "");
+        for (LocalDate night = first; night.isBefore(end); night = night.plusDays(1)) {
+            Delta delta = deltas.computeIfAbsent(new Night(night, type), key -> new Delta());
+            delta.rooms += sign;
+            delta.revenue = delta.revenue.add(nightRevenue);
+        }
+    }
+
+    // Helper method to write the changes of all nights with one batched upsert
+    private void apply(Map<Night, Delta> deltas) {
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((night, delta) -> {
+            if (delta.rooms != 0 || delta.revenue.signum() != 0) {
+                rows.add(new Object[]{night.date(), night.roomType(), delta.rooms, delta.revenue});
+            }
+        });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_NIGHTS, rows);
+        }
+    }
+
+    // Rate counted for each night of the booking; bookings made before rates were recorded count the
+    // room's current price
+    private static BigDecimal rateOf(BookedRoom booking) {
+        return booking.getNightlyRate() != null ? booking.getNightlyRate() : booking.getRoom().getRoomPrice();
+    }
+
+    private record Night(LocalDate date, String roomType) implements Comparable<Night> {
+        private static final Comparator<Night> ORDER = Comparator.comparing(Night::date).thenComparing(Night::roomType);
+
+        @Override
+        public int compareTo(Night other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private static final class Delta {
+        long rooms;
+        BigDecimal revenue = BigDecimal.ZERO;
+    }
+}
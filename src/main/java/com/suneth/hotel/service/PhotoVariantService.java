@@ -0,0 +1,185 @@
+package com.suneth.hotel.service;
+
+import com.suneth.hotel.config.PhotoStorageProperties;
+import com.suneth.hotel.model.PhotoStatus;
+import com.suneth.hotel.model.PhotoVariant;
+import com.suneth.hotel.model.Room;
+import com.suneth.hotel.repository.RoomRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates the resized {@link PhotoVariant}s of room photos in the background.
+ * <p>
+ * Uploads only store the original and queue the room here, so they return as soon as the original
+ * is on disk. A small fixed pool does the decoding and resizing; its size bounds how many decoded
+ * images are held in memory at once, and a full queue marks the photo FAILED instead of piling up
+ * work. The original keeps being served for any variant that is not ready. Variants are stored as
+ * JPEG in the same content-addressed photo store as the originals.
+ */
+@Slf4j
+@Service
+public class PhotoVariantService {
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private final RoomRepository roomRepository;
+    private final IPhotoStorageService photoStorageService;
+    private final RoomCacheEvictor roomCacheEvictor;
+    private final CatalogVersion catalogVersion;
+    private final ThreadPoolExecutor executor;
+
+    public PhotoVariantService(RoomRepository roomRepository, IPhotoStorageService photoStorageService,
+                               RoomCacheEvictor roomCacheEvictor, CatalogVersion catalogVersion,
+                               PhotoStorageProperties properties) {
+        this.roomRepository = roomRepository;
+        this.photoStorageService = photoStorageService;
+        this.roomCacheEvictor = roomCacheEvictor;
+        this.catalogVersion = catalogVersion;
+        int threads = Math.max(1, properties.getVariantThreads());
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getVariantQueueCapacity())),
+                new CustomizableThreadFactory("photo-variant-"));
+    }
+
+    // Method to queue variant generation for a room's current photo
+    public void submit(Long roomId, String photoHash) {
+        try {
+            executor.execute(() -> generateVariants(roomId, photoHash));
+        } catch (RejectedExecutionException e) {
+            log.warn("Photo variant queue is full, serving the original photo for room {}", roomId);
+            recordResult(roomId, photoHash, new EnumMap<>(PhotoVariant.class), PhotoStatus.FAILED);
+        }
+    }
+
+    // Picks up photos whose variants were never generated, e.g. after a restart or a legacy migration
+    @Order(2)
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePendingVariants() {
+        List<Room> rooms = roomRepository.findRoomsWithPendingPhotoVariants();
+        for (Room room : rooms) {
+            submit(room.getId(), room.getPhotoHash());
+        }
+        if (!rooms.isEmpty()) {
+            log.info("Queued photo variants for {} rooms", rooms.size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void generateVariants(Long roomId, String photoHash) {
+        Map<PhotoVariant, String> hashes = new EnumMap<>(PhotoVariant.class);
+        PhotoStatus status;
+        try {
+            BufferedImage source = readImage(photoHash);
+            if (source == null) {
+                log.warn("Photo of room {} is not a readable image, serving the original only", roomId);
+                status = PhotoStatus.FAILED;
+            } else {
+                for (PhotoVariant variant : PhotoVariant.values()) {
+                    hashes.put(variant, storeJpeg(scale(source, variant.getMaxWidth())));
+                }
+                status = PhotoStatus.READY;
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to generate photo variants for room {}", roomId, e);
+            hashes.clear();
+            status = PhotoStatus.FAILED;
+        }
+        recordResult(roomId, photoHash, hashes, status);
+    }
+
+    private void recordResult(Long roomId, String photoHash, Map<PhotoVariant, String> hashes, PhotoStatus status) {
+        roomRepository.updatePhotoVariants(roomId, photoHash, hashes.get(PhotoVariant.THUMBNAIL),
+                hashes.get(PhotoVariant.CARD), hashes.get(PhotoVariant.FULL), status);
+        roomCacheEvictor.evict(roomId);
+        // Listings link the new variant
+        catalogVersion.changed();
+    }
+
+    // Decodes a stored photo, subsampling large images while reading so the decoded image is no
+    // bigger than needed for the largest variant. Returns null if no image reader understands it.
+    private BufferedImage readImage(String photoHash) throws IOException {
+        try (InputStream content = photoStorageService.load(photoHash).getInputStream();
+             ImageInputStream input = ImageIO.createImageInputStream(content)) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, reader.getWidth(0) / PhotoVariant.FULL.getMaxWidth());
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Scales an image down to at most maxWidth pixels wide onto an opaque RGB canvas, since JPEG has no alpha
+    private static BufferedImage scale(BufferedImage source, int maxWidth) {
+        int width = Math.min(maxWidth, source.getWidth());
+        int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    // Encodes an image as JPEG and puts it in the photo store, returning its hash
+    private String storeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return photoStorageService.store(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+}
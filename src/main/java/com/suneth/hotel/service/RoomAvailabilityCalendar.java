@@ -0,0 +1,456 @@
+package com.suneth.hotel.service;
+
+import com.suneth.hotel.event.BookingCancelledEvent;
+import com.suneth.hotel.event.BookingSavedEvent;
+import com.suneth.hotel.model.BookingDates;
+import com.suneth.hotel.model.Room;
+import com.suneth.hotel.repository.BookingRepository;
+import com.suneth.hotel.repository.RoomRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Precomputed room × night availability for a rolling horizon starting today.
+ * <p>
+ * Every room gets a slot (a bit position) and every night in the horizon gets a bitset with one bit
+ * per room slot that is booked that night. Finding the free rooms of a type for a stay is then a
+ * matter of taking the type's room mask and clearing the booked bits of each requested night, a few
+ * machine words per night, with no database access.
+ * <p>
+ * The calendar is rebuilt from the database on startup, every night to roll the horizon forward, and
+ * after bulk imports. Bookings and cancellations update it incrementally, and so do single room
+ * changes: a new room is given the next free slot, a deleted room's slot is cleared and left unused
+ * until the next rebuild, and a room whose type changed moves to the new type's mask. Updates are
+ * serialised by a lock and replace a night's bitset or the room layout rather than modifying them,
+ * so searches read a consistent calendar without locking.
+ * <p>
+ * Changes made through other application instances reach the calendar by polling: every booking,
+ * cancellation and room change bumps the room's version, so every
+ * {@code hotel.availability.sync-interval-seconds} the versions of all rooms are compared with those
+ * the calendar last read, and the rooms that moved on are laid out and have their nights reloaded.
+ * Searches may therefore miss another instance's change for that long; bookings never rely on the
+ * calendar.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "hotel.availability.engine", havingValue = "calendar")
+public class RoomAvailabilityCalendar {
+
+    private final RoomRepository roomRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final int horizonDays;
+
+    // A lock rather than synchronized, so a rebuild's database reads do not pin a virtual thread's carrier
+    private final Lock updateLock = new ReentrantLock();
+    private volatile Calendar calendar;
+    // Version of each room when its nights were last read from the database; guarded by updateLock
+    private final Map<Long, Long> roomVersions = new HashMap<>();
+
+    public RoomAvailabilityCalendar(RoomRepository roomRepository,
+                                    BookingRepository bookingRepository,
+                                    BookingIntervalIndex bookingIntervalIndex,
+                                    @Value("${hotel.availability.horizon-days:730}") int horizonDays) {
+        this.roomRepository = roomRepository;
+        this.bookingRepository = bookingRepository;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.horizonDays = horizonDays;
+    }
+
+    // Rebuilds the whole calendar from the database, starting the horizon today
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${hotel.availability.rebuild-cron:0 5 0 * * *}")
+    public void rebuild() {
+        updateLock.lock();
+        try {
+            rebuildCalendar();
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private void rebuildCalendar() {
+        long startedAt = System.nanoTime();
+        LocalDate firstNight = LocalDate.now();
+        List<Room> rooms = roomRepository.findAll();
+        rooms.sort((a, b) -> Long.compare(a.getId(), b.getId()));
+        // Read before the bookings, so a booking committed in between is loaded again by the next sync
+        roomVersions.clear();
+        rooms.forEach(room -> roomVersions.put(room.getId(), room.getVersion()));
+
+        Calendar rebuilt = new Calendar(firstNight.toEpochDay(), horizonDays, rooms);
+        for (BookingDates booking : bookingRepository.findBookingDatesBetween(firstNight, firstNight.plusDays(horizonDays))) {
+            rebuilt.mark(booking.getRoomId(), booking.getCheckInDate(), booking.getCheckOutDate(), true);
+        }
+        calendar = rebuilt;
+        log.info("Built availability calendar for {} rooms over {} nights in {} ms",
+                rooms.size(), horizonDays, (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    // Gives a new room a slot with every night free, or moves a room that has one to the mask of its
+    // current type, e.g. after its type changed
+    public void putRoom(Room room) {
+        updateLock.lock();
+        try {
+            Calendar current = calendar;
+            if (current != null) {
+                calendar = current.withRoom(room.getId(), typeIdOf(room));
+            }
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    // Frees every night of deleted rooms and drops them from the masks of their types
+    public void removeRooms(Collection<Long> roomIds) {
+        updateLock.lock();
+        try {
+            Calendar current = calendar;
+            if (current != null) {
+                calendar = current.withoutRooms(roomIds);
+            }
+            roomIds.forEach(roomVersions::remove);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    // Brings the rooms whose version moved on since the calendar read them up to date, whichever instance
+    // changed them: moves them to their type's mask, or gives new rooms a slot, and reloads their nights.
+    // Rooms that are gone are dropped. Changes of this instance are applied again, which is harmless.
+    @Scheduled(initialDelayString = "${hotel.availability.sync-interval-seconds:5}",
+            fixedDelayString = "${hotel.availability.sync-interval-seconds:5}", timeUnit = TimeUnit.SECONDS)
+    public void syncChangedRooms() {
+        updateLock.lock();
+        try {
+            Calendar current = calendar;
+            if (current == null) {
+                return;
+            }
+            Set<Long> existing = new HashSet<>();
+            List<RoomRepository.RoomVersion> changed = new ArrayList<>();
+            for (RoomRepository.RoomVersion room : roomRepository.findAllVersions()) {
+                existing.add(room.getRoomId());
+                if (!room.getRoomVersion().equals(roomVersions.get(room.getRoomId()))) {
+                    changed.add(room);
+                }
+            }
+            List<Long> deleted = current.roomIds().stream().filter(roomId -> !existing.contains(roomId)).toList();
+            if (!deleted.isEmpty()) {
+                current = current.withoutRooms(deleted);
+                deleted.forEach(roomVersions::remove);
+            }
+            if (!changed.isEmpty()) {
+                for (RoomRepository.RoomVersion room : changed) {
+                    if (!current.hasRoom(room.getRoomId(), room.getTypeId())) {
+                        current = current.withRoom(room.getRoomId(), room.getTypeId());
+                    }
+                }
+                List<Long> changedRoomIds = changed.stream().map(RoomRepository.RoomVersion::getRoomId).toList();
+                Map<Long, List<BookingDates>> bookingsByRoom = bookingRepository
+                        .findBookingDatesByRoomIdInBetween(changedRoomIds, current.firstNight(), current.endNight())
+                        .stream()
+                        .collect(Collectors.groupingBy(BookingDates::getRoomId));
+                for (RoomRepository.RoomVersion room : changed) {
+                    current.replaceBookings(room.getRoomId(), bookingsByRoom.getOrDefault(room.getRoomId(), List.of()));
+                    roomVersions.put(room.getRoomId(), room.getRoomVersion());
+                }
+            }
+            calendar = current;
+            if (!deleted.isEmpty() || !changed.isEmpty()) {
+                log.debug("Synced {} changed and {} deleted rooms into the availability calendar",
+                        changed.size(), deleted.size());
+            }
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    @EventListener
+    public void onBookingSaved(BookingSavedEvent event) {
+        updateLock.lock();
+        try {
+            Calendar current = calendar;
+            if (current != null) {
+                current.mark(event.roomId(), event.checkInDate(), event.checkOutDate(), true);
+            }
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    @EventListener
+    public void onBookingCancelled(BookingCancelledEvent event) {
+        updateLock.lock();
+        try {
+            Calendar current = calendar;
+            if (current == null) {
+                return;
+            }
+            // Free the cancelled nights, then re-mark any of them still covered by another booking
+            current.mark(event.roomId(), event.checkInDate(), event.checkOutDate(), false);
+            for (LocalDate night = event.checkInDate(); night.isBefore(event.checkOutDate()); night = night.plusDays(1)) {
+                if (!bookingIntervalIndex.isAvailable(event.roomId(), night, night.plusDays(1))) {
+                    current.mark(event.roomId(), night, night.plusDays(1), true);
+                }
+            }
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of the rooms of the given types that are free for every night in
+     * [checkInDate, checkOutDate), in ascending order, or null if the stay is not entirely within
+     * the calendar's horizon and must be answered some other way.
+     */
+    public List<Long> findAvailableRoomIds(LocalDate checkInDate, LocalDate checkOutDate, Collection<Long> typeIds) {
+        Calendar current = calendar;
+        if (current == null) {
+            return null;
+        }
+        return current.findAvailable(checkInDate.toEpochDay(), checkOutDate.toEpochDay(), typeIds);
+    }
+
+    private static Long typeIdOf(Room room) {
+        return room.getType() != null ? room.getType().getId() : null;
+    }
+
+    /**
+     * The booked bitsets of every night together with the room layout: which room has which slot
+     * and which slots belong to each type. Bookings change the bitsets in place; room changes create
+     * a new Calendar with a copy of the layout that shares the bitsets, or widens them when a new
+     * room needs another word. Slots of deleted rooms hold {@link #NO_ROOM} and are never reused.
+     */
+    private static final class Calendar {
+        private static final long NO_ROOM = -1;
+
+        private final long firstDay;
+        private final int nights;
+        private final long[] roomIds;
+        private final Map<Long, Integer> slotsByRoomId;
+        private final Map<Long, long[]> masksByTypeId;
+        private final AtomicReferenceArray<long[]> bookedByNight;
+
+        Calendar(long firstDay, int nights, List<Room> rooms) {
+            this.firstDay = firstDay;
+            this.nights = nights;
+            this.roomIds = new long[rooms.size()];
+            this.slotsByRoomId = new HashMap<>();
+            this.masksByTypeId = new HashMap<>();
+            int words = wordsFor(rooms.size());
+            for (int slot = 0; slot < rooms.size(); slot++) {
+                Room room = rooms.get(slot);
+                roomIds[slot] = room.getId();
+                slotsByRoomId.put(room.getId(), slot);
+                long[] mask = masksByTypeId.computeIfAbsent(typeIdOf(room), t -> new long[words]);
+                mask[slot >>> 6] |= 1L << slot;
+            }
+            this.bookedByNight = new AtomicReferenceArray<>(nights);
+            for (int night = 0; night < nights; night++) {
+                bookedByNight.set(night, new long[words]);
+            }
+        }
+
+        private Calendar(Calendar previous, long[] roomIds, Map<Long, Integer> slotsByRoomId,
+                         Map<Long, long[]> masksByTypeId, AtomicReferenceArray<long[]> bookedByNight) {
+            this.firstDay = previous.firstDay;
+            this.nights = previous.nights;
+            this.roomIds = roomIds;
+            this.slotsByRoomId = slotsByRoomId;
+            this.masksByTypeId = masksByTypeId;
+            this.bookedByNight = bookedByNight;
+        }
+
+        private static int wordsFor(int slots) {
+            return (slots + 63) >>> 6;
+        }
+
+        LocalDate firstNight() {
+            return LocalDate.ofEpochDay(firstDay);
+        }
+
+        // The day after the last night of the horizon
+        LocalDate endNight() {
+            return LocalDate.ofEpochDay(firstDay + nights);
+        }
+
+        // Ids of the rooms that have a slot
+        Set<Long> roomIds() {
+            return slotsByRoomId.keySet();
+        }
+
+        // Whether the room has a slot in the mask of the given type
+        boolean hasRoom(Long roomId, Long typeId) {
+            Integer slot = slotsByRoomId.get(roomId);
+            long[] mask = masksByTypeId.get(typeId);
+            return slot != null && mask != null && (slot >>> 6) < mask.length && (mask[slot >>> 6] & (1L << slot)) != 0;
+        }
+
+        // A copy with the room in the mask of the given type, in a new slot if it has none yet
+        Calendar withRoom(Long roomId, Long typeId) {
+            Map<Long, long[]> masks = new HashMap<>(masksByTypeId);
+            Integer existing = slotsByRoomId.get(roomId);
+            if (existing != null) {
+                masks.replaceAll((id, mask) -> clearBit(mask, existing));
+                masks.merge(typeId, setBit(new long[0], existing), (mask, bit) -> setBit(mask, existing));
+                return new Calendar(this, roomIds, slotsByRoomId, masks, bookedByNight);
+            }
+            int slot = roomIds.length;
+            long[] grownRoomIds = Arrays.copyOf(roomIds, slot + 1);
+            grownRoomIds[slot] = roomId;
+            Map<Long, Integer> slots = new HashMap<>(slotsByRoomId);
+            slots.put(roomId, slot);
+            masks.merge(typeId, setBit(new long[0], slot), (mask, bit) -> setBit(mask, slot));
+            AtomicReferenceArray<long[]> booked = bookedByNight;
+            int words = wordsFor(slot + 1);
+            if (words > wordsFor(slot)) {
+                // The new slot starts another word; a freshly added room has no bookings yet
+                booked = new AtomicReferenceArray<>(nights);
+                for (int night = 0; night < nights; night++) {
+                    booked.set(night, Arrays.copyOf(bookedByNight.get(night), words));
+                }
+            }
+            return new Calendar(this, grownRoomIds, slots, masks, booked);
+        }
+
+        // A copy without the rooms, whose booked nights are cleared so searches never see them again
+        Calendar withoutRooms(Collection<Long> removedRoomIds) {
+            long[] remainingRoomIds = roomIds.clone();
+            Map<Long, Integer> slots = new HashMap<>(slotsByRoomId);
+            Map<Long, long[]> masks = new HashMap<>(masksByTypeId);
+            for (Long roomId : removedRoomIds) {
+                Integer slot = slots.remove(roomId);
+                if (slot == null) {
+                    continue;
+                }
+                remainingRoomIds[slot] = NO_ROOM;
+                masks.replaceAll((id, mask) -> clearBit(mask, slot));
+                for (int night = 0; night < nights; night++) {
+                    long[] words = bookedByNight.get(night);
+                    if ((words[slot >>> 6] & (1L << slot)) != 0) {
+                        bookedByNight.set(night, clearBit(words, slot));
+                    }
+                }
+            }
+            return new Calendar(this, remainingRoomIds, slots, masks, bookedByNight);
+        }
+
+        // Copy of the words with the slot's bit cleared, or the words themselves if it was not set
+        private static long[] clearBit(long[] words, int slot) {
+            int word = slot >>> 6;
+            if (word >= words.length || (words[word] & (1L << slot)) == 0) {
+                return words;
+            }
+            long[] cleared = words.clone();
+            cleared[word] &= ~(1L << slot);
+            return cleared;
+        }
+
+        // Copy of the words, widened if needed, with the slot's bit set
+        private static long[] setBit(long[] words, int slot) {
+            long[] set = Arrays.copyOf(words, Math.max(words.length, wordsFor(slot + 1)));
+            set[slot >>> 6] |= 1L << slot;
+            return set;
+        }
+
+        // Sets or clears the booked bit of a room for every night of [checkIn, checkOut) inside the horizon
+        void mark(Long roomId, LocalDate checkIn, LocalDate checkOut, boolean booked) {
+            Integer slot = slotsByRoomId.get(roomId);
+            if (slot == null) {
+                return;
+            }
+            int from = (int) Math.max(0, checkIn.toEpochDay() - firstDay);
+            int to = (int) Math.min(nights, checkOut.toEpochDay() - firstDay);
+            for (int night = from; night < to; night++) {
+                long[] words = bookedByNight.get(night).clone();
+                if (booked) {
+                    words[slot >>> 6] |= 1L << slot;
+                } else {
+                    words[slot >>> 6] &= ~(1L << slot);
+                }
+                bookedByNight.set(night, words);
+            }
+        }
+
+        // Sets the booked bits of a room to exactly the nights of the given bookings inside the horizon. Only
+        // nights whose bit changes are replaced, so searches never see a still booked night freed meanwhile.
+        void replaceBookings(Long roomId, List<BookingDates> bookings) {
+            Integer slot = slotsByRoomId.get(roomId);
+            if (slot == null) {
+                return;
+            }
+            boolean[] booked = new boolean[nights];
+            for (BookingDates booking : bookings) {
+                int from = (int) Math.max(0, booking.getCheckInDate().toEpochDay() - firstDay);
+                int to = (int) Math.min(nights, booking.getCheckOutDate().toEpochDay() - firstDay);
+                for (int night = from; night < to; night++) {
+                    booked[night] = true;
+                }
+            }
+            for (int night = 0; night < nights; night++) {
+                long[] words = bookedByNight.get(night);
+                if (((words[slot >>> 6] & (1L << slot)) != 0) != booked[night]) {
+                    long[] changed = words.clone();
+                    changed[slot >>> 6] ^= 1L << slot;
+                    bookedByNight.set(night, changed);
+                }
+            }
+        }
+
+        List<Long> findAvailable(long checkInDay, long checkOutDay, Collection<Long> typeIds) {
+            long from = checkInDay - firstDay;
+            long to = checkOutDay - firstDay;
+            if (from < 0 || to > nights || from >= to) {
+                return null;
+            }
+            // Start from every room of the given types
+            long[] free = new long[(roomIds.length + 63) >>> 6];
+            for (Long typeId : typeIds) {
+                long[] mask = masksByTypeId.get(typeId);
+                if (mask != null) {
+                    // Masks of types whose rooms all sit in the first words may be shorter
+                    for (int i = 0; i < Math.min(free.length, mask.length); i++) {
+                        free[i] |= mask[i];
+                    }
+                }
+            }
+            // Drop every room that is booked on any requested night
+            for (int night = (int) from; night < to; night++) {
+                long[] booked = bookedByNight.get(night);
+                for (int i = 0; i < free.length; i++) {
+                    free[i] &= ~booked[i];
+                }
+            }
+            List<Long> available = new ArrayList<>();
+            for (int i = 0; i < free.length; i++) {
+                long word = free[i];
+                while (word != 0) {
+                    available.add(roomIds[(i << 6) + Long.numberOfTrailingZeros(word)]);
+                    word &= word - 1;
+                }
+            }
+            return available;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.suneth.hotel.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Evicts rooms from the cache filled by {@link RoomServiceImpl#getRoomById}.
+ * <p>
+ * Called by the code that changes a room or books it. Inside a transaction the entries are evicted
+ * once it has committed, so that a request reading the room in the meantime cannot put the old state
+ * back into the cache. Evictions are local: other instances serve their copy until it expires, at most
+ * the expireAfterWrite of spring.cache.caffeine.spec.
+ */
+@Component
+@RequiredArgsConstructor
+public class RoomCacheEvictor {
+
+    private final CacheManager cacheManager;
+
+    // Method to evict one room, after the current transaction commits if there is one
+    public void evict(Long roomId) {
+        evict(List.of(roomId));
+    }
+
+    // Method to evict several rooms, after the current transaction commits if there is one
+    public void evict(Collection<Long> roomIds) {
+        afterCommit(() -> {
+            Cache rooms = cacheManager.getCache(RoomServiceImpl.ROOMS_CACHE);
+            if (rooms != null) {
+                roomIds.forEach(rooms::evict);
+            }
+        });
+    }
+
+    // Method to evict every room, e.g. after a statement that changed rooms without naming them
+    public void evictAll() {
+        afterCommit(() -> {
+            Cache rooms = cacheManager.getCache(RoomServiceImpl.ROOMS_CACHE);
+            if (rooms != null) {
+                rooms.clear();
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.suneth.hotel.service;
+
+/**
+ * File formats accepted by the bulk room import.
+ * <p>
+ * CSV needs a header row naming the roomType and roomPrice columns; NDJSON has one JSON object with
+ * those fields per line.
+ */
+public enum RoomImportFormat {
+    CSV,
+    NDJSON
+}
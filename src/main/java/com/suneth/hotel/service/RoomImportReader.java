@@ -0,0 +1,139 @@
+package com.suneth.hotel.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads rooms one line at a time from a CSV or NDJSON import file.
+ * <p>
+ * A row that cannot be turned into a room is reported with its line number through
+ * {@link InvalidRowException} and reading simply continues with the next line.
+ */
+class RoomImportReader {
+
+    private final BufferedReader reader;
+    private final RoomImportFormat format;
+    private final ObjectMapper objectMapper;
+    private int lineNumber;
+    private int roomTypeColumn = -1;
+    private int roomPriceColumn = -1;
+
+    RoomImportReader(BufferedReader reader, RoomImportFormat format, ObjectMapper objectMapper) throws IOException {
+        this.reader = reader;
+        this.format = format;
+        this.objectMapper = objectMapper;
+        if (format == RoomImportFormat.CSV) {
+            readHeader();
+        }
+    }
+
+    // A room to import; its type is resolved to a RoomType by the caller, a batch at a time
+    record Row(String roomType, BigDecimal roomPrice) {
+    }
+
+    // Returns the next room, or null at the end of the file
+    Row next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            lineNumber++;
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        String roomType;
+        String roomPrice;
+        if (format == RoomImportFormat.CSV) {
+            List<String> fields = splitCsv(line);
+            roomType = field(fields, roomTypeColumn);
+            roomPrice = field(fields, roomPriceColumn);
+        } else {
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line);
+            } catch (JsonProcessingException e) {
+                throw new InvalidRowException(lineNumber, "not valid JSON");
+            }
+            roomType = node.path("roomType").asText(null);
+            roomPrice = node.path("roomPrice").asText(null);
+        }
+
+        if (roomType == null || roomType.isBlank()) {
+            throw new InvalidRowException(lineNumber, "roomType is missing");
+        }
+        BigDecimal price;
+        try {
+            price = new BigDecimal(roomPrice.trim());
+        } catch (NullPointerException | NumberFormatException e) {
+            throw new InvalidRowException(lineNumber, "roomPrice is not a number");
+        }
+        if (price.signum() < 0) {
+            throw new InvalidRowException(lineNumber, "roomPrice is negative");
+        }
+        return new Row(roomType.trim(), price);
+    }
+
+    private void readHeader() throws IOException {
+        String header = reader.readLine();
+        lineNumber++;
+        List<String> columns = header != null ? splitCsv(header) : List.of();
+        for (int i = 0; i < columns.size(); i++) {
+            String column = columns.get(i).trim();
+            if (column.equalsIgnoreCase("roomType")) {
+                roomTypeColumn = i;
+            } else if (column.equalsIgnoreCase("roomPrice")) {
+                roomPriceColumn = i;
+            }
+        }
+        if (roomTypeColumn < 0 || roomPriceColumn < 0) {
+            throw new IllegalArgumentException("CSV header must name the roomType and roomPrice columns");
+        }
+    }
+
+    private static String field(List<String> fields, int column) {
+        return column < fields.size() ? fields.get(column) : null;
+    }
+
+    // Splits one CSV line, honouring double-quoted fields with "" as an escaped quote
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    static class InvalidRowException extends RuntimeException {
+        InvalidRowException(int lineNumber, String message) {
+            super("Line " + lineNumber + ": " + message);
+        }
+    }
+}
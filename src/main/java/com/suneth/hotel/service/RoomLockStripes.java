@@ -0,0 +1,55 @@
+package com.suneth.hotel.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed pool of locks shared out across rooms by room id.
+ * <p>
+ * Booking attempts for the same room always map to the same lock and are serialised, while attempts
+ * for rooms on different stripes run fully in parallel. Using a fixed number of stripes keeps memory
+ * bounded no matter how many rooms exist; two rooms sharing a stripe merely wait for each other.
+ */
+@Component
+public class RoomLockStripes {
+
+    private final Lock[] stripes;
+
+    public RoomLockStripes(@Value("${hotel.booking.lock-stripes:64}") int stripeCount) {
+        this.stripes = new Lock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    // Method to get the lock guarding the given room
+    public Lock forRoom(Long roomId) {
+        return stripes[stripeIndex(roomId)];
+    }
+
+    // Method to get the distinct locks guarding the given rooms, always in the same order so that
+    // two callers locking overlapping sets of rooms one after the other cannot deadlock
+    public List<Lock> forRooms(Collection<Long> roomIds) {
+        SortedSet<Integer> indexes = new TreeSet<>();
+        for (Long roomId : roomIds) {
+            indexes.add(stripeIndex(roomId));
+        }
+        List<Lock> locks = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            locks.add(stripes[index]);
+        }
+        return locks;
+    }
+
+    private int stripeIndex(Long roomId) {
+        return Math.floorMod(Long.hashCode(roomId) * 0x9E3779B9, stripes.length);
+    }
+}
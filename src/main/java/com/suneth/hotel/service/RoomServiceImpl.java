@@ -1,103 +1,339 @@
 package com.suneth.hotel.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.suneth.hotel.config.MetricsConfig;
 import com.suneth.hotel.exception.InternalServerException;
 import com.suneth.hotel.exception.ResourceNotFoundException;
+import com.suneth.hotel.model.PhotoStatus;
 import com.suneth.hotel.model.Room;
+import com.suneth.hotel.model.RoomDetails;
+import com.suneth.hotel.model.RoomType;
+import com.suneth.hotel.repository.BookingRepository;
 import com.suneth.hotel.repository.RoomRepository;
+import com.suneth.hotel.repository.RoomTypeRepository;
+import com.suneth.hotel.response.FlexibleStayResponse;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import javax.sql.rowset.serial.SerialBlob;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.math.BigDecimal;
-import java.sql.Blob;
-import java.sql.SQLException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.locks.Lock;
 
 @Service
 @RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class RoomServiceImpl implements IRoomService {
+    static final String ROOMS_CACHE = "rooms";
+    static final String ROOM_TYPES_CACHE = "roomTypes";
+    private static final int IMPORT_CHUNK_SIZE = 500;
+    private static final int DELETE_CHUNK_SIZE = 1000;
+    private static final int MAX_UPDATE_ATTEMPTS = 3;
+
     private final RoomRepository roomRepository;
+    private final BookingRepository bookingRepository;
+    private final IPhotoStorageService photoStorageService;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final PhotoVariantService photoVariantService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final CatalogVersion catalogVersion;
+    private final RoomCacheEvictor roomCacheEvictor;
+    private final OccupancyRollup occupancyRollup;
+    private final BookingOutbox bookingOutbox;
+    private final IRoomTypeService roomTypeService;
+    private final RoomTypeRepository roomTypeRepository;
+    private final RoomLockStripes roomLockStripes;
 
     // Method to add a new room
     @Override
-    public Room addNewRoom(MultipartFile photo, String roomType, BigDecimal roomPrice) throws IOException, SQLException {
+    @CacheEvict(cacheNames = ROOM_TYPES_CACHE, allEntries = true)
+    public Room addNewRoom(MultipartFile photo, String roomType, BigDecimal roomPrice) throws IOException {
         Room room = new Room();
-        room.setRoomType(roomType);
+        room.setType(roomTypeService.getOrCreate(roomType));
         room.setRoomPrice(roomPrice);
-        // If photo is provided, set photo as Blob
+        // If photo is provided, put it in the photo store and keep only its hash on the room
         if (!photo.isEmpty()) {
-            byte[] photoBytes = photo.getBytes(); // Converting photo to bytes
-            Blob photoBlob = new SerialBlob(photoBytes); // Creating Blob object from bytes
-            room.setPhoto(photoBlob);
+            storePhoto(room, photo);
+        }
+        Room savedRoom = transactionTemplate.execute(status -> {
+            catalogVersion.changed();
+            return roomRepository.save(room);
+        });
+        if (savedRoom.getPhotoHash() != null) {
+            photoVariantService.submit(savedRoom.getId(), savedRoom.getPhotoHash());
         }
-        return roomRepository.save(room);
+        return savedRoom;
     }
 
     // Method to get all distinct room types
+    // Reads from the primary in a read-write transaction, since a stale replica read would stay in
+    // the cache until the next eviction; cache hits do not open a transaction
     @Override
+    @Transactional
+    @Cacheable(ROOM_TYPES_CACHE)
     public List<String> getAllRoomTypes() {
-        return roomRepository.findDistinctRoomTypes();
+        return roomTypeRepository.findNamesInUse();
     }
 
     // Method to get all rooms
     @Override
+    @Transactional(readOnly = true)
     public List<Room> getAllRooms() {
         return roomRepository.findAll();
     }
 
-    // Method to get room photo bytes by room ID
+    // Method to get one keyset page of rooms matching the given filters
     @Override
-    public byte[] getRoomPhotoByRoomId(Long roomId) throws SQLException {
-        Optional<Room> room = roomRepository.findById(roomId);
-        if (room.isEmpty()) {
-            throw new ResourceNotFoundException("Unable to find the room");
-        }
-        // Retrieve photo blob from the room
-        Blob photoBlob = room.get().getPhoto();
-        if (photoBlob != null) {
-            return photoBlob.getBytes(1, (int) photoBlob.length());
-        }
-        return null;
+    @Transactional(readOnly = true)
+    public List<Room> getRooms(long afterId, String roomType, BigDecimal minPrice, BigDecimal maxPrice, int limit) {
+        return roomRepository.findPage(afterId, roomType, minPrice, maxPrice, PageRequest.ofSize(limit));
     }
 
-    // Method to delete a room by room ID
+    // Method to delete a room by room ID together with its bookings, without loading either
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = ROOM_TYPES_CACHE, allEntries = true)
     public void deleteRoom(Long roomId) {
-        Optional<Room> room = roomRepository.findById(roomId);
-        if (room.isPresent()) {
-            roomRepository.deleteById(roomId);
+        deleteRoomsById(List.of(roomId));
+    }
+
+    // Method to delete several rooms by room ID together with their bookings
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = ROOM_TYPES_CACHE, allEntries = true)
+    public int deleteRooms(Collection<Long> roomIds) {
+        return deleteRoomsById(roomIds);
+    }
+
+    // Method to delete all rooms of a type together with their bookings
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = ROOM_TYPES_CACHE, allEntries = true)
+    public int deleteRoomsByType(String roomType) {
+        return deleteRoomsById(roomRepository.findIdsByRoomType(roomType));
+    }
+
+    // Method to change the price of every room of a type by a percentage, e.g. 10 for +10%,
+    // with a single UPDATE statement
+    @Override
+    @Transactional
+    public int adjustPricesByType(String roomType, BigDecimal percent) {
+        int updated = roomRepository.scalePricesByType(roomType, BigDecimal.ONE.add(percent.movePointLeft(2)));
+        roomCacheEvictor.evictAll();
+        catalogVersion.changed();
+        return updated;
+    }
+
+    // Method to import rooms from a CSV or NDJSON stream.
+    // Rooms are inserted in batches, each in its own short transaction, so a large import neither
+    // holds a transaction open nor grows the persistence context, and the job's progress advances
+    // batch by batch. Rows that cannot be read are counted as failures and skipped.
+    @Override
+    @CacheEvict(cacheNames = ROOM_TYPES_CACHE, allEntries = true)
+    public void importRooms(InputStream content, RoomImportFormat format, BulkJob job) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(content, StandardCharsets.UTF_8));
+        RoomImportReader rooms = new RoomImportReader(reader, format, objectMapper);
+        List<RoomImportReader.Row> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        while (true) {
+            RoomImportReader.Row room;
+            try {
+                room = rooms.next();
+            } catch (RoomImportReader.InvalidRowException e) {
+                job.addFailure(e.getMessage());
+                continue;
+            }
+            if (room == null) {
+                break;
+            }
+            chunk.add(room);
+            if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                insertRooms(chunk, job);
+                chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            insertRooms(chunk, job);
         }
     }
 
     // Method to update a room
+    // A new photo is put in the photo store first, outside of any lock. The room is then loaded and
+    // changed in one transaction under the room's lock, like a booking, so a booking of this instance
+    // cannot bump the room's version in between. A booking through another instance still can; the
+    // change is then applied again to the room as that booking left it.
     @Override
-    public Room updateRoom(Long roomId, String roomType, BigDecimal roomPrice, byte[] photoBytes) {
-        Room room = roomRepository.findById(roomId).get();
-        if (roomType != null) room.setRoomType(roomType);
-        if (roomPrice != null) room.setRoomPrice(roomPrice);
-        if (photoBytes != null && photoBytes.length > 0) {
-            try {
-                room.setPhoto(new SerialBlob(photoBytes));
-            } catch (SQLException e) {
+    @CacheEvict(cacheNames = ROOM_TYPES_CACHE, allEntries = true)
+    public Room updateRoom(Long roomId, String roomType, BigDecimal roomPrice, MultipartFile photo) {
+        RoomType type = roomType != null ? roomTypeService.getOrCreate(roomType) : null;
+        String photoHash = null;
+        if (photo != null && !photo.isEmpty()) {
+            try (InputStream content = photo.getInputStream()) {
+                photoHash = photoStorageService.store(content);
+            } catch (IOException e) {
                 throw new InternalServerException("unable to update room");
             }
         }
-        return roomRepository.save(room);
+        String photoContentType = photoHash != null ? photo.getContentType() : null;
+        Room savedRoom;
+        Lock roomLock = roomLockStripes.forRoom(roomId);
+        roomLock.lock();
+        try {
+            savedRoom = changeRoom(roomId, type, roomPrice, photoHash, photoContentType);
+        } finally {
+            roomLock.unlock();
+        }
+        roomCacheEvictor.evict(roomId);
+        if (photoHash != null) {
+            photoVariantService.submit(savedRoom.getId(), savedRoom.getPhotoHash());
+        }
+        return savedRoom;
     }
 
-    // Method to get a room by its ID
+    // Helper method to load the room and apply the changes that are not null in one transaction, retried
+    // when a booking through another instance commits first. Must be called while holding the room's lock.
+    private Room changeRoom(Long roomId, RoomType type, BigDecimal roomPrice, String photoHash, String photoContentType) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    Room room = roomRepository.findById(roomId)
+                            .orElseThrow(() -> new ResourceNotFoundException("Room not found"));
+                    String oldRoomType = room.getRoomType();
+                    if (type != null) room.setType(type);
+                    if (roomPrice != null) room.setRoomPrice(roomPrice);
+                    if (photoHash != null) setPhoto(room, photoHash, photoContentType);
+                    // A new room type moves the room's booked nights to the new type in the occupancy rollup
+                    if (!Objects.equals(oldRoomType, room.getRoomType())) {
+                        occupancyRollup.roomTypeChanged(roomId, oldRoomType, room.getRoomType());
+                    }
+                    catalogVersion.changed();
+                    return room;
+                });
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (attempt >= MAX_UPDATE_ATTEMPTS) {
+                    throw new InternalServerException("unable to update room, it is being booked");
+                }
+            }
+        }
+    }
+
+    // Method to get a room's details by its ID, with a single select.
+    // The immutable details are cached rather than the entity; every change to a room or its bookings
+    // evicts them through RoomCacheEvictor. Read from the primary for the same reason as the room types.
     @Override
-    public Optional<Room> getRoomById(Long roomId) {
-        return Optional.of(roomRepository.findById(roomId).get());
+    @Transactional
+    @Cacheable(cacheNames = ROOMS_CACHE, unless = "#result == null")
+    public Optional<RoomDetails> getRoomById(Long roomId) {
+        return roomRepository.findDetailsById(roomId);
     }
 
-    // Method to get available rooms
+    // Method to get available rooms of the types matching roomType
     @Override
+    @Transactional(readOnly = true)
     public List<Room> getAvailableRooms(LocalDate checkInDate, LocalDate checkOutDate, String roomType) {
-        return roomRepository.findAvailableRoomsByDatesAndType(checkInDate, checkOutDate, roomType);
+        List<Long> typeIds = roomTypeService.findMatchingTypeIds(roomType);
+        if (typeIds.isEmpty()) {
+            return List.of();
+        }
+        return roomRepository.findAvailableRoomsByDatesAndTypes(checkInDate, checkOutDate, typeIds);
+    }
+
+    // Method to find, for every check-in date in [windowStart, windowEnd - nights], how many rooms of a type
+    // are free for the stay and the cheapest of them. The rooms and their bookings in the window are
+    // read with one query, then every candidate stay is evaluated in memory.
+    @Override
+    @Transactional(readOnly = true)
+    public List<FlexibleStayResponse> getFlexibleStays(LocalDate windowStart, LocalDate windowEnd, int nights,
+                                                       String roomType) {
+        FlexibleStaySearch search = new FlexibleStaySearch(windowStart, windowEnd, nights);
+        List<Long> typeIds = roomTypeService.findMatchingTypeIds(roomType);
+        if (typeIds.isEmpty()) {
+            return search.evaluate(List.of());
+        }
+        Map<Long, FlexibleStaySearch.RoomNights> rooms = new LinkedHashMap<>();
+        for (RoomRepository.RoomBookingDates row
+                : roomRepository.findRoomsWithBookingsBetween(typeIds, windowStart, windowEnd)) {
+            FlexibleStaySearch.RoomNights room = rooms.computeIfAbsent(row.getRoomId(),
+                    id -> new FlexibleStaySearch.RoomNights(id, row.getRoomPrice(), new BitSet()));
+            if (row.getCheckInDate() != null) {
+                search.markBooked(room.bookedNights(), row.getCheckInDate(), row.getCheckOutDate());
+            }
+        }
+        return search.evaluate(rooms.values());
+    }
+
+    // Helper method to insert one batch of imported rooms; ids come from the pooled sequence,
+    // so Hibernate sends the inserts as JDBC batches. Types new to the catalog are created first.
+    private void insertRooms(List<RoomImportReader.Row> rows, BulkJob job) {
+        Map<String, RoomType> types = roomTypeService.getOrCreate(
+                rows.stream().map(RoomImportReader.Row::roomType).toList());
+        List<Room> rooms = new ArrayList<>(rows.size());
+        for (RoomImportReader.Row row : rows) {
+            Room room = new Room();
+            room.setType(types.get(row.roomType()));
+            room.setRoomPrice(row.roomPrice());
+            rooms.add(room);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            roomRepository.saveAll(rooms);
+            catalogVersion.changed();
+        });
+        job.addProcessed(rooms.size());
+    }
+
+    // Helper method to delete rooms and their bookings with set-based statements, a chunk of ids at a time.
+    // Every deleted booking gets a cancellation event in the outbox, written in the same transaction.
+    private int deleteRoomsById(Collection<Long> roomIds) {
+        List<Long> ids = List.copyOf(roomIds);
+        int deleted = 0;
+        for (int from = 0; from < ids.size(); from += DELETE_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + DELETE_CHUNK_SIZE, ids.size()));
+            occupancyRollup.roomsDeleted(chunk);
+            bookingOutbox.bookingsCancelled(bookingRepository.findWithRoomByRoomIdIn(chunk));
+            bookingRepository.deleteAllByRoomIdIn(chunk);
+            deleted += roomRepository.deleteAllByIdIn(chunk);
+        }
+        ids.forEach(bookingIntervalIndex::removeRoom);
+        roomCacheEvictor.evict(ids);
+        catalogVersion.changed();
+        return deleted;
+    }
+
+    // Helper method to stream an uploaded photo into the photo store and reference it from the room.
+    // Resized variants of the previous photo no longer apply; new ones are generated after saving.
+    private void storePhoto(Room room, MultipartFile photo) throws IOException {
+        try (InputStream content = photo.getInputStream()) {
+            setPhoto(room, photoStorageService.store(content), photo.getContentType());
+        }
+    }
+
+    // Helper method to reference a photo already in the photo store from the room
+    private static void setPhoto(Room room, String photoHash, String photoContentType) {
+        room.setPhotoHash(photoHash);
+        room.setPhotoContentType(photoContentType);
+        room.setThumbnailHash(null);
+        room.setCardHash(null);
+        room.setFullHash(null);
+        room.setPhotoStatus(PhotoStatus.PENDING);
     }
 }
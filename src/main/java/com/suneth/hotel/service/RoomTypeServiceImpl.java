@@ -0,0 +1,210 @@
+package com.suneth.hotel.service;
+
+import com.suneth.hotel.config.MetricsConfig;
+import com.suneth.hotel.exception.ResourceNotFoundException;
+import com.suneth.hotel.model.RoomType;
+import com.suneth.hotel.repository.RoomTypeRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Room types and the resolution of a searched type name to type ids.
+ * <p>
+ * All types are held in an in-memory index, so resolving a search costs no query: a name that
+ * matches a type exactly (ignoring case) resolves to that type alone, otherwise to every type whose
+ * name starts with it, otherwise to every type whose name contains it. The index is reloaded after
+ * local changes and every few minutes to pick up types created by other instances. A search that
+ * matches nothing reloads it too, but at most once per {@value #MISS_RELOAD_INTERVAL_SECONDS} seconds,
+ * so searches for made-up types cannot turn every request into a read of all types. Writes resolve
+ * type names against the database, not the index.
+ */
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class RoomTypeServiceImpl implements IRoomTypeService {
+
+    static final long MISS_RELOAD_INTERVAL_SECONDS = 10;
+
+    private final RoomTypeRepository roomTypeRepository;
+    private final TransactionTemplate newTransaction;
+    private volatile TypeIndex index;
+    private final AtomicLong lastMissReload;
+
+    public RoomTypeServiceImpl(RoomTypeRepository roomTypeRepository, TransactionTemplate transactionTemplate) {
+        this.roomTypeRepository = roomTypeRepository;
+        // Types are created in their own transaction, so a lost race on the unique name does not
+        // roll back the caller's work
+        this.newTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.lastMissReload = new AtomicLong(System.nanoTime() - TimeUnit.SECONDS.toNanos(MISS_RELOAD_INTERVAL_SECONDS));
+    }
+
+    // Method to get all room types in name order
+    @Override
+    public List<RoomType> getRoomTypes() {
+        return roomTypeRepository.findAll(Sort.by("name"));
+    }
+
+    // Method to get a room type by its ID
+    @Override
+    public RoomType getRoomType(Long roomTypeId) {
+        return roomTypeRepository.findById(roomTypeId)
+                .orElseThrow(() -> new ResourceNotFoundException("Room type not found"));
+    }
+
+    // Method to create a room type, or update the capacity and description of the type with that name
+    @Override
+    public RoomType saveRoomType(String name, Integer capacity, String description) {
+        return updateRoomType(getOrCreate(name).getId(), capacity, description);
+    }
+
+    // Method to update the capacity and description of a room type; null values are left unchanged
+    @Override
+    public RoomType updateRoomType(Long roomTypeId, Integer capacity, String description) {
+        RoomType roomType = getRoomType(roomTypeId);
+        if (capacity != null) roomType.setCapacity(capacity);
+        if (description != null) roomType.setDescription(description);
+        RoomType savedType = roomTypeRepository.save(roomType);
+        reload();
+        return savedType;
+    }
+
+    // Method to get the type with exactly this name, creating it if there is none yet
+    @Override
+    public RoomType getOrCreate(String name) {
+        return getOrCreate(List.of(name)).get(name);
+    }
+
+    // Same as getOrCreate for several names, e.g. all types of an import batch, with one query for the
+    // types that exist already. Always reads the database, so rooms never reference a type the index
+    // has wrong; the index is reloaded if it turns out to be out of date.
+    @Override
+    public Map<String, RoomType> getOrCreate(Collection<String> names) {
+        if (names.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, String> typeNames = new HashMap<>();
+        names.forEach(name -> typeNames.put(name, name.trim()));
+        Map<String, RoomType> existing = new HashMap<>();
+        roomTypeRepository.findByNameIn(new HashSet<>(typeNames.values()))
+                .forEach(roomType -> existing.put(roomType.getName(), roomType));
+
+        TypeIndex current = index();
+        boolean outdated = false;
+        Map<String, RoomType> types = new HashMap<>();
+        for (Map.Entry<String, String> typeName : typeNames.entrySet()) {
+            RoomType roomType = existing.computeIfAbsent(typeName.getValue(), this::createIfAbsent);
+            RoomType indexed = current.byName().get(roomType.getName());
+            outdated |= indexed == null || !indexed.getId().equals(roomType.getId());
+            types.put(typeName.getKey(), roomType);
+        }
+        if (outdated) {
+            reload();
+        }
+        return types;
+    }
+
+    // Method to resolve a searched type name to the ids of the matching types; empty if none matches
+    @Override
+    public List<Long> findMatchingTypeIds(String query) {
+        List<Long> typeIds = index().match(query);
+        if (typeIds.isEmpty() && claimMissReload()) {
+            // The type may have been created on another instance since the last reload
+            typeIds = reload().match(query);
+        }
+        return typeIds;
+    }
+
+    // Loads the index on startup
+    @Order(2)
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        reload();
+    }
+
+    @Scheduled(initialDelay = 5, fixedDelay = 5, timeUnit = TimeUnit.MINUTES)
+    public void refreshIndex() {
+        reload();
+    }
+
+    // Helper method to insert a type, or read the one a concurrent request or instance inserted first
+    private RoomType createIfAbsent(String name) {
+        try {
+            return newTransaction.execute(status -> roomTypeRepository.findByName(name)
+                    .orElseGet(() -> roomTypeRepository.saveAndFlush(new RoomType(name))));
+        } catch (DataIntegrityViolationException e) {
+            return newTransaction.execute(status -> roomTypeRepository.findByName(name)).orElseThrow(() -> e);
+        }
+    }
+
+    // Helper method to let one of the searches that miss reload the index once the interval has passed
+    private boolean claimMissReload() {
+        long last = lastMissReload.get();
+        long now = System.nanoTime();
+        return now - last >= TimeUnit.SECONDS.toNanos(MISS_RELOAD_INTERVAL_SECONDS)
+                && lastMissReload.compareAndSet(last, now);
+    }
+
+    private TypeIndex index() {
+        TypeIndex current = index;
+        return current != null ? current : reload();
+    }
+
+    private TypeIndex reload() {
+        TypeIndex reloaded = TypeIndex.of(roomTypeRepository.findAll());
+        index = reloaded;
+        return reloaded;
+    }
+
+    // Types by exact name, and type ids by lower-cased name in sorted order for prefix lookups
+    private record TypeIndex(Map<String, RoomType> byName, NavigableMap<String, List<Long>> idsByLowerName) {
+
+        static TypeIndex of(List<RoomType> roomTypes) {
+            Map<String, RoomType> byName = new HashMap<>();
+            NavigableMap<String, List<Long>> idsByLowerName = new TreeMap<>();
+            for (RoomType roomType : roomTypes) {
+                byName.put(roomType.getName(), roomType);
+                idsByLowerName.computeIfAbsent(roomType.getName().toLowerCase(Locale.ROOT), name -> new ArrayList<>())
+                        .add(roomType.getId());
+            }
+            return new TypeIndex(byName, idsByLowerName);
+        }
+
+        List<Long> match(String query) {
+            String wanted = query.trim().toLowerCase(Locale.ROOT);
+            List<Long> exact = idsByLowerName.get(wanted);
+            if (exact != null) {
+                return exact;
+            }
+            List<Long> typeIds = new ArrayList<>();
+            idsByLowerName.subMap(wanted, true, wanted + Character.MAX_VALUE, true).values().forEach(typeIds::addAll);
+            if (typeIds.isEmpty()) {
+                idsByLowerName.forEach((name, ids) -> {
+                    if (name.contains(wanted)) {
+                        typeIds.addAll(ids);
+                    }
+                });
+            }
+            return typeIds;
+        }
+    }
+}
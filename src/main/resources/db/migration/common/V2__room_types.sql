@@ -0,0 +1,25 @@
+-- Room types get their own table. Every distinct name in room.room_type becomes a type, numbered in name
+-- order, and the rooms point at it through room_type_id; the name column is dropped afterwards.
+-- room_type_seq continues after these ids, see V6.
+
+create table room_type (
+    id bigint not null,
+    name varchar(255) not null,
+    capacity integer,
+    description varchar(255),
+    primary key (id)
+);
+
+insert into room_type (id, name)
+select row_number() over (order by room_type), room_type
+from (select distinct room_type from room where room_type is not null) names;
+
+alter table room add column room_type_id bigint;
+
+update room set room_type_id = (select t.id from room_type t where t.name = room.room_type)
+where room_type is not null;
+
+alter table room drop column room_type;
+
+create unique index uk_room_type_name on room_type (name);
+alter table room add constraint fk_room_room_type foreign key (room_type_id) references room_type (id);
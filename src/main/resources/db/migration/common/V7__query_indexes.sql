@@ -0,0 +1,19 @@
+-- Indexes for the hot queries.
+
+create unique index uk_booked_room_confirmation_code on booked_room (confirmation_code);
+create index idx_booked_room_group_code on booked_room (group_confirmation_code);
+
+-- Bookings occupying any night of [from, to): a range scan on check_in that also holds check_out and
+-- room_id, so the overlap subquery of the availability search and the calendar rebuild read the index only
+create index idx_booked_room_stay on booked_room (check_in, check_out, room_id);
+
+-- Bookings of given rooms: lookups per room, the NOT IN probe of the availability search when it is run
+-- as an anti-join, the overlap re-check of a booking and deleting a room's bookings
+create index idx_booked_room_room_stay on booked_room (room_id, check_in, check_out);
+
+-- Rooms of given types in id order: the type filter of the availability searches and keyset pages of
+-- the room listing filtered by type
+create index idx_room_type_listing on room (room_type_id, id);
+
+create index idx_outbox_event_due on outbox_event (next_attempt_at, id);
+create index idx_outbox_event_room on outbox_event (room_id, room_version, id);
@@ -0,0 +1,12 @@
+-- Version of the room catalog shared by all instances, see CatalogVersion. One row, bumped by every
+-- transaction that changes what the catalog endpoints show; last_modified is in epoch seconds,
+-- the resolution of Last-Modified.
+
+create table catalog_version (
+    id integer not null,
+    version bigint not null,
+    last_modified bigint not null,
+    primary key (id)
+);
+
+insert into catalog_version (id, version, last_modified) values (1, 0, unix_timestamp());
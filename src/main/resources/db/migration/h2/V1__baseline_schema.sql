@@ -0,0 +1,48 @@
+-- H2 counterpart of mysql/V1__baseline_schema.sql, used by the tests and benchmarks.
+
+create table booked_room (
+    booking_id bigint generated by default as identity,
+    confirmation_code varchar(255),
+    check_in date,
+    check_out date,
+    guest_email varchar(255),
+    guest_full_name varchar(255),
+    adults integer,
+    children integer,
+    total_guests integer,
+    room_id bigint,
+    primary key (booking_id)
+);
+
+create table role (
+    id bigint generated by default as identity,
+    name varchar(255),
+    primary key (id)
+);
+
+create table room (
+    id bigint generated by default as identity,
+    is_booked boolean not null,
+    photo blob,
+    room_price decimal(38,2),
+    room_type varchar(255),
+    primary key (id)
+);
+
+create table user (
+    id bigint generated by default as identity,
+    email varchar(255),
+    first_name varchar(255),
+    last_name varchar(255),
+    password varchar(255),
+    primary key (id)
+);
+
+create table user_roles (
+    user_id bigint not null,
+    role_id bigint not null
+);
+
+alter table booked_room add constraint FKdpu8cukldi44emkf2rty0j40y foreign key (room_id) references room;
+alter table user_roles add constraint FKrhfovtciq1l558cw6udg0h0d3 foreign key (role_id) references role;
+alter table user_roles add constraint FK55itppkw3i07do3h7qoclqd4k foreign key (user_id) references user;
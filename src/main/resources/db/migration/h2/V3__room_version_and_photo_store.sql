@@ -0,0 +1,9 @@
+-- H2 counterpart of mysql/V3__room_version_and_photo_store.sql.
+
+alter table room add column version bigint not null default 0;
+alter table room add column photo_hash varchar(64);
+alter table room add column photo_content_type varchar(255);
+alter table room add column thumbnail_hash varchar(64);
+alter table room add column card_hash varchar(64);
+alter table room add column full_hash varchar(64);
+alter table room add column photo_status varchar(255);
@@ -0,0 +1,5 @@
+-- H2 counterpart of mysql/V4__booking_codes_and_rates.sql.
+
+alter table booked_room alter column confirmation_code varchar(16);
+alter table booked_room add column group_confirmation_code varchar(16);
+alter table booked_room add column nightly_rate decimal(19,2);
@@ -0,0 +1,23 @@
+-- H2 counterpart of mysql/V5__outbox_and_occupancy_stats.sql.
+
+create table outbox_event (
+    id bigint not null,
+    event_type varchar(32) not null,
+    booking_id bigint not null,
+    room_id bigint not null,
+    room_version bigint not null,
+    payload varchar(2000) not null,
+    created_at timestamp(6) with time zone not null,
+    attempts integer,
+    next_attempt_at timestamp(6) with time zone not null,
+    last_error varchar(500),
+    primary key (id)
+);
+
+create table room_type_daily_stats (
+    stay_date date not null,
+    room_type varchar(255) not null,
+    rooms_sold bigint not null,
+    revenue decimal(19,2) not null,
+    primary key (stay_date, room_type)
+);
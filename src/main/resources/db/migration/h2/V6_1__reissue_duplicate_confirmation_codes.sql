@@ -0,0 +1,6 @@
+-- H2 counterpart of mysql/V6_1__reissue_duplicate_confirmation_codes.sql, with a subquery for the join.
+
+update booked_room set confirmation_code = concat('R', booking_id)
+where exists (select 1 from booked_room older
+              where older.confirmation_code = booked_room.confirmation_code
+                and older.booking_id < booked_room.booking_id);
@@ -0,0 +1,13 @@
+-- H2 counterpart of mysql/V6__id_sequences.sql, with native sequences; the increments match the
+-- allocationSize of the sequence generators.
+
+create sequence booked_room_seq start with 50 increment by 50;
+alter sequence booked_room_seq restart with (select coalesce(max(booking_id), 0) + 50 from booked_room);
+
+create sequence outbox_event_seq start with 50 increment by 50;
+
+create sequence room_seq start with 50 increment by 50;
+alter sequence room_seq restart with (select coalesce(max(id), 0) + 50 from room);
+
+create sequence room_type_seq start with 1 increment by 1;
+alter sequence room_type_seq restart with (select coalesce(max(id), 0) + 1 from room_type);
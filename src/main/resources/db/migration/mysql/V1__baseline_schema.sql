@@ -0,0 +1,49 @@
+-- Schema as created by Hibernate's ddl-auto: update before the migrations took it over.
+-- Existing databases are baselined at this version and start with V2.
+
+create table booked_room (
+    booking_id bigint not null auto_increment,
+    confirmation_code varchar(255),
+    check_in date,
+    check_out date,
+    guest_email varchar(255),
+    guest_full_name varchar(255),
+    adults integer,
+    children integer,
+    total_guests integer,
+    room_id bigint,
+    primary key (booking_id)
+) engine=InnoDB;
+
+create table role (
+    id bigint not null auto_increment,
+    name varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table room (
+    id bigint not null auto_increment,
+    is_booked bit not null,
+    photo mediumblob,
+    room_price decimal(38,2),
+    room_type varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table user (
+    id bigint not null auto_increment,
+    email varchar(255),
+    first_name varchar(255),
+    last_name varchar(255),
+    password varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table user_roles (
+    user_id bigint not null,
+    role_id bigint not null
+) engine=InnoDB;
+
+alter table booked_room add constraint FKdpu8cukldi44emkf2rty0j40y foreign key (room_id) references room (id);
+alter table user_roles add constraint FKrhfovtciq1l558cw6udg0h0d3 foreign key (role_id) references role (id);
+alter table user_roles add constraint FK55itppkw3i07do3h7qoclqd4k foreign key (user_id) references user (id);
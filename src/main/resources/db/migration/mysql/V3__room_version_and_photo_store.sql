@@ -0,0 +1,11 @@
+-- Optimistic lock version of the rooms, and the photo store: the hash of the original photo and its
+-- resized variants. Photos still in room.photo are moved to the store on startup by LegacyPhotoMigrationService.
+
+alter table room
+    add column version bigint not null default 0,
+    add column photo_hash varchar(64),
+    add column photo_content_type varchar(255),
+    add column thumbnail_hash varchar(64),
+    add column card_hash varchar(64),
+    add column full_hash varchar(64),
+    add column photo_status enum ('FAILED','PENDING','READY');
@@ -0,0 +1,7 @@
+-- Confirmation codes of 16 characters, shared codes of group bookings and the nightly rate at booking
+-- time. Bookings made before keep a null rate; the room's current price stands in for it.
+
+alter table booked_room
+    modify confirmation_code varchar(16),
+    add column group_confirmation_code varchar(16),
+    add column nightly_rate decimal(19,2);
@@ -0,0 +1,24 @@
+-- Booking events waiting for delivery, and the nightly occupancy rollup per room type. The rollup starts
+-- empty; fill it for past bookings through the rollup rebuild endpoint.
+
+create table outbox_event (
+    id bigint not null,
+    event_type enum ('BOOKING_CANCELLED','BOOKING_CREATED') not null,
+    booking_id bigint not null,
+    room_id bigint not null,
+    room_version bigint not null,
+    payload varchar(2000) not null,
+    created_at datetime(6) not null,
+    attempts integer,
+    next_attempt_at datetime(6) not null,
+    last_error varchar(500),
+    primary key (id)
+) engine=InnoDB;
+
+create table room_type_daily_stats (
+    stay_date date not null,
+    room_type varchar(255) not null,
+    rooms_sold bigint not null,
+    revenue decimal(19,2) not null,
+    primary key (stay_date, room_type)
+) engine=InnoDB;
@@ -0,0 +1,11 @@
+-- Codes issued before the confirmation code generator were 10 random digits that were never checked for
+-- duplicates, so a long booking history may hold the same code twice, and V7 makes the column unique.
+-- The oldest booking keeps a duplicated code; every later one gets R followed by its booking id, which no
+-- generator ever issued. Find them with confirmation_code like 'R%' to let their guests know.
+-- Sorts between V6 and V7, so it runs in sequence right before V7 adds the unique index. A database whose
+-- V7 failed on a duplicate has that failure recorded and needs flyway repair first.
+
+update booked_room b
+    join booked_room older
+        on older.confirmation_code = b.confirmation_code and older.booking_id < b.booking_id
+set b.confirmation_code = concat('R', b.booking_id);
@@ -0,0 +1,24 @@
+-- Ids now come from sequences, emulated on MySQL by one-row tables, so that Hibernate can batch inserts.
+-- The pooled optimizer reads a value and hands out the block of ids up to it, so each sequence starting
+-- a full block above the highest existing id hands out ids right after it. room_type_seq has blocks of
+-- one. The auto_increment of the old id columns stays; explicit ids are inserted past it.
+
+create table booked_room_seq (
+    next_val bigint
+) engine=InnoDB;
+insert into booked_room_seq select coalesce(max(booking_id), 0) + 50 from booked_room;
+
+create table outbox_event_seq (
+    next_val bigint
+) engine=InnoDB;
+insert into outbox_event_seq values (50);
+
+create table room_seq (
+    next_val bigint
+) engine=InnoDB;
+insert into room_seq select coalesce(max(id), 0) + 50 from room;
+
+create table room_type_seq (
+    next_val bigint
+) engine=InnoDB;
+insert into room_type_seq select coalesce(max(id), 0) + 1 from room_type;
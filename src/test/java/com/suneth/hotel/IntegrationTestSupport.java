@@ -0,0 +1,98 @@
+package com.suneth.hotel;
+
+import com.suneth.hotel.model.Room;
+import com.suneth.hotel.repository.BookingRepository;
+import com.suneth.hotel.repository.OutboxEventRepository;
+import com.suneth.hotel.repository.RoomRepository;
+import com.suneth.hotel.repository.RoomTypeDailyStatsRepository;
+import com.suneth.hotel.repository.RoomTypeRepository;
+import com.suneth.hotel.service.BookingIntervalIndex;
+import com.suneth.hotel.service.CatalogVersion;
+import com.suneth.hotel.service.IRoomTypeService;
+import com.suneth.hotel.service.RoomAvailabilityCalendar;
+import com.suneth.hotel.service.RoomTypeServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Base class of the {@code @SpringBootTest}s that work on rooms and bookings.
+ * <p>
+ * The test contexts share one in-memory database, so after every test all rooms, room types,
+ * bookings, outbox events and rollup rows are deleted, and the in-memory state built from them
+ * (booking interval index, availability calendar, room type index, caches and catalog version)
+ * is reset to match.
+ */
+public abstract class IntegrationTestSupport {
+
+    protected static final String PHOTO_HASH = "0".repeat(64);
+
+    @Autowired
+    protected RoomRepository roomRepository;
+
+    @Autowired
+    protected BookingRepository bookingRepository;
+
+    @Autowired
+    protected IRoomTypeService roomTypeService;
+
+    @Autowired
+    private RoomTypeRepository roomTypeRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private RoomTypeDailyStatsRepository statsRepository;
+
+    @Autowired
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Autowired
+    private ObjectProvider<RoomAvailabilityCalendar> calendar;
+
+    @Autowired
+    private RoomTypeServiceImpl roomTypeIndex;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @AfterEach
+    void resetData() {
+        List<Long> roomIds = roomRepository.findAll().stream().map(Room::getId).toList();
+        outboxEventRepository.deleteAllInBatch();
+        bookingRepository.deleteAllInBatch();
+        roomRepository.deleteAllInBatch();
+        roomTypeRepository.deleteAllInBatch();
+        statsRepository.deleteAllInBatch();
+
+        roomIds.forEach(bookingIntervalIndex::removeRoom);
+        calendar.ifAvailable(RoomAvailabilityCalendar::rebuild);
+        roomTypeIndex.loadIndex();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        catalogVersion.changed();
+    }
+
+    // Creates a room of the type at the price, without a photo
+    protected Room createRoom(String roomType, int price) {
+        return createRoom(roomType, price, false);
+    }
+
+    // Creates a room of the type at the price; only rooms with a photo are listed in the catalog
+    protected Room createRoom(String roomType, int price, boolean withPhoto) {
+        Room room = new Room();
+        room.setType(roomTypeService.getOrCreate(roomType));
+        room.setRoomPrice(BigDecimal.valueOf(price));
+        if (withPhoto) {
+            room.setPhotoHash(PHOTO_HASH);
+        }
+        return roomRepository.save(room);
+    }
+}
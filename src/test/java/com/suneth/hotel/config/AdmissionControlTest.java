@@ -0,0 +1,124 @@
+package com.suneth.hotel.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "hotel.admission.client-header=X-Forwarded-For",
+        "hotel.admission.search-rate=0.5",
+        "hotel.admission.search-burst=2"})
+@AutoConfigureMockMvc
+class AdmissionControlTest {
+
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    // A client over its rate is turned away with the time its next token is due; others are not affected
+    @Test
+    void rejectsSearchesOverTheClientRate() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(search("203.0.113.7")).andExpect(status().isNoContent());
+        }
+        mockMvc.perform(search("203.0.113.7"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"));
+
+        mockMvc.perform(search("198.51.100.2")).andExpect(status().isNoContent());
+    }
+
+    // The proxy appends the address the request came from; whatever the client put in front of it
+    // does not give it a fresh bucket
+    @Test
+    void spoofedForwardedForDoesNotResetTheBucket() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(search("192.0.2.10")).andExpect(status().isNoContent());
+        }
+        for (int i = 1; i <= 3; i++) {
+            mockMvc.perform(search("1.2.3." + i + ", 192.0.2.10")).andExpect(status().isTooManyRequests());
+        }
+    }
+
+    // Without trusted proxies the header is the client's own word, so the remote address is used
+    @Test
+    void noTrustedProxiesIgnoresTheClientHeader() {
+        AdmissionProperties properties = forwardedFor(0);
+        assertThat(AdmissionConfig.clientKey(forwardedRequest("1.2.3.4, 192.0.2.10"), properties))
+                .isEqualTo("10.0.0.1");
+    }
+
+    // A request that passed fewer proxies than configured is keyed by the leftmost entry it has
+    @Test
+    void fewerHopsThanTrustedProxiesUsesTheLeftmost() {
+        AdmissionProperties properties = forwardedFor(3);
+        assertThat(AdmissionConfig.clientKey(forwardedRequest("192.0.2.10, 10.0.0.2"), properties))
+                .isEqualTo("192.0.2.10");
+        assertThat(AdmissionConfig.clientKey(forwardedRequest("1.2.3.4, 192.0.2.10, 10.0.0.2"), properties))
+                .isEqualTo("1.2.3.4");
+    }
+
+    @Test
+    void tokenBucketAllowsBurstThenRate() {
+        TokenBucket bucket = new TokenBucket(2, 3, 0);
+        for (int i = 0; i < 3; i++) {
+            assertThat(bucket.tryTake(0)).isZero();
+        }
+        assertThat(bucket.tryTake(0)).isEqualTo(SECOND / 2);
+        assertThat(bucket.tryTake(SECOND / 2)).isZero();
+        assertThat(bucket.tryTake(SECOND / 2)).isPositive();
+    }
+
+    // Searches queue for a slot held by a booking only up to the wait target, and not at all once
+    // the expected wait is longer than that
+    @Test
+    void bookingsTakePriorityOverSearches() {
+        AdmissionGate gate = new AdmissionGate(1, Duration.ofMillis(20).toNanos(), new SimpleMeterRegistry());
+        boolean heldPermit = gate.bookingStarted();
+        assertThat(heldPermit).isTrue();
+        assertThat(gate.admitSearch()).isNotEqualTo(AdmissionGate.ADMITTED);
+        gate.bookingFinished(heldPermit);
+
+        assertThat(gate.admitSearch()).isEqualTo(AdmissionGate.ADMITTED);
+        gate.searchFinished(System.nanoTime() - SECOND);
+        assertThat(gate.admitSearch()).isEqualTo(AdmissionGate.ADMITTED);
+        long started = System.nanoTime();
+        assertThat(gate.admitSearch()).isGreaterThanOrEqualTo(SECOND);
+        assertThat(System.nanoTime() - started).isLessThan(Duration.ofMillis(20).toNanos());
+    }
+
+    private static AdmissionProperties forwardedFor(int trustedProxies) {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setClientHeader("X-Forwarded-For");
+        properties.setTrustedProxies(trustedProxies);
+        return properties;
+    }
+
+    private static MockHttpServletRequest forwardedRequest(String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.1");
+        request.addHeader("X-Forwarded-For", forwardedFor);
+        return request;
+    }
+
+    private static MockHttpServletRequestBuilder search(String forwardedFor) {
+        return get("/api/v1/rooms/available-rooms")
+                .header("X-Forwarded-For", forwardedFor)
+                .param("checkInDate", "2033-01-01")
+                .param("checkOutDate", "2033-01-03")
+                .param("roomType", "Suite");
+    }
+}
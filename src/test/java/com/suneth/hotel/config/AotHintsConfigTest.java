@@ -0,0 +1,34 @@
+package com.suneth.hotel.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AotHintsConfigTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    AotHintsConfigTest() {
+        new AotHintsConfig.Hints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    // Every vendor directory of the Flyway locations is included in the native image
+    @Test
+    void registersMigrationsOfEachVendor() {
+        assertThat(RuntimeHintsPredicates.resource().forResource("db/migration/h2/V1__baseline_schema.sql"))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("db/migration/mysql/V1__baseline_schema.sql"))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("db/migration/common/V2__room_types.sql"))
+                .accepts(hints);
+    }
+
+    @Test
+    void registersVirtualThreadExecutorLookup() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(Executors.class)).accepts(hints);
+    }
+}
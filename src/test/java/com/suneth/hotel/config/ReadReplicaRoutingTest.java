@@ -0,0 +1,126 @@
+package com.suneth.hotel.config;
+
+import com.suneth.hotel.IntegrationTestSupport;
+import com.suneth.hotel.model.BookedRoom;
+import com.suneth.hotel.model.Room;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Primary and replica are two separate in-memory databases; the replica gets a copy of the primary
+// that then falls behind
+@SpringBootTest(properties = {
+        "hotel.datasource.replica.url=jdbc:h2:mem:hotel_replica;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+        "hotel.datasource.replica.username=sa",
+        "hotel.datasource.replica.password=",
+        "hotel.datasource.replica.read-your-writes-window=1m"})
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTest extends IntegrationTestSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @BeforeEach
+    void setUpLaggingReplica() {
+        Room room = createRoom("Deluxe", 150);
+        BookedRoom booking = new BookedRoom();
+        booking.setCheckInDate(LocalDate.of(2034, 2, 1));
+        booking.setCheckOutDate(LocalDate.of(2034, 2, 3));
+        booking.setGuestFullName("Replica Guest");
+        booking.setRoom(room);
+        bookingRepository.save(booking);
+
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("DROP ALL OBJECTS");
+        for (String statement : new JdbcTemplate(primaryDataSource).queryForList("SCRIPT", String.class)) {
+            replica.execute(statement);
+        }
+        // A price change the replica has not caught up with
+        room.setRoomPrice(BigDecimal.valueOf(200));
+        roomRepository.save(room);
+    }
+
+    @Test
+    void readRequestsUseTheReplica() throws Exception {
+        mockMvc.perform(get("/api/v1/bookings"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].room.roomPrice").value(150));
+    }
+
+    // After a write the client reads from the primary for the read-your-writes window
+    @Test
+    void clientsReadTheirOwnWritesFromThePrimary() throws Exception {
+        Cookie lastWrite = mockMvc.perform(delete("/api/v1/bookings/{bookingId}", Long.MAX_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(cookie().exists(ReadYourWritesFilter.LAST_WRITE_COOKIE))
+                .andReturn().getResponse().getCookie(ReadYourWritesFilter.LAST_WRITE_COOKIE);
+
+        mockMvc.perform(get("/api/v1/bookings").cookie(lastWrite))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].room.roomPrice").value(200));
+    }
+
+    // A replica that cannot be reached is tried once, then skipped until the retry interval has passed
+    @Test
+    void fallsBackToThePrimaryWhenTheReplicaIsDown() throws SQLException {
+        AtomicInteger replicaAttempts = new AtomicInteger();
+        DataSource unreachableReplica = new AbstractDataSource() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                replicaAttempts.incrementAndGet();
+                throw new SQLException("Connection refused");
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return getConnection();
+            }
+        };
+        ReplicaRoutingDataSource routing =
+                new ReplicaRoutingDataSource(primaryDataSource, unreachableReplica, Duration.ofMinutes(1));
+        ReplicaRoutingDataSource.allowReplica(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            for (int i = 0; i < 2; i++) {
+                try (Connection connection = routing.getConnection()) {
+                    assertThat(connection.getMetaData().getURL()).contains("hotel_mng_sys");
+                }
+            }
+            assertThat(replicaAttempts).hasValue(1);
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+            ReplicaRoutingDataSource.clear();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.suneth.hotel.controller;
+
+import com.suneth.hotel.IntegrationTestSupport;
+import com.suneth.hotel.model.BookedRoom;
+import com.suneth.hotel.model.Room;
+import com.suneth.hotel.repository.RoomTypeDailyStatsRepository;
+import com.suneth.hotel.service.IBookingService;
+import com.suneth.hotel.service.IRoomService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AnalyticsControllerTest extends IntegrationTestSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IBookingService bookingService;
+
+    @Autowired
+    private IRoomService roomService;
+
+    @Autowired
+    private RoomTypeDailyStatsRepository statsRepository;
+
+    private Room suite;
+
+    @BeforeEach
+    void setUp() {
+        suite = createRoom("Suite", 100);
+        createRoom("Suite", 100);
+        Room twin = createRoom("Twin", 80);
+        bookingService.saveBooking(suite.getId(), booking(LocalDate.of(2036, 1, 30), LocalDate.of(2036, 2, 2)));
+        bookingService.saveBooking(twin.getId(), booking(LocalDate.of(2036, 2, 1), LocalDate.of(2036, 2, 2)));
+    }
+
+    // Every night of the range gets a row, and the rates come from the rooms sold and available
+    @Test
+    void reportsDailyOccupancyOfARoomType() throws Exception {
+        mockMvc.perform(get("/api/v1/analytics/occupancy/daily")
+                        .param("from", "2036-01-29").param("to", "2036-01-31").param("roomType", "Suite"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].date").value("2036-01-29"))
+                .andExpect(jsonPath("$[0].roomNightsSold").value(0))
+                .andExpect(jsonPath("$[0].averageDailyRate").doesNotExist())
+                .andExpect(jsonPath("$[1].roomNightsAvailable").value(2))
+                .andExpect(jsonPath("$[1].roomNightsSold").value(1))
+                .andExpect(jsonPath("$[1].occupancyRate").value(0.5))
+                .andExpect(jsonPath("$[1].revenue").value(100));
+    }
+
+    // Revenue keeps the rate a booking was made at, so a cancellation after a price change takes out
+    // exactly what the booking added
+    @Test
+    void summarisesARangeAndFollowsCancellations() throws Exception {
+        summary("2036-02-01", "2036-02-03")
+                .andExpect(jsonPath("$.total.roomNightsAvailable").value(6))
+                .andExpect(jsonPath("$.total.roomNightsSold").value(2))
+                .andExpect(jsonPath("$.total.revenue").value(180))
+                .andExpect(jsonPath("$.total.averageDailyRate").value(90))
+                .andExpect(jsonPath("$.roomTypes[0].roomType").value("Suite"))
+                .andExpect(jsonPath("$.roomTypes[0].revenue").value(100))
+                .andExpect(jsonPath("$.roomTypes[1].roomType").value("Twin"))
+                .andExpect(jsonPath("$.roomTypes[1].occupancyRate").value(0.5));
+
+        roomService.adjustPricesByType("Suite", BigDecimal.valueOf(50));
+        Long bookingId = bookingRepository.findByRoomId(suite.getId()).get(0).getBookingId();
+        bookingService.cancelBooking(bookingId);
+
+        summary("2036-01-01", "2036-03-01")
+                .andExpect(jsonPath("$.total.roomNightsSold").value(1))
+                .andExpect(jsonPath("$.total.revenue").value(80))
+                .andExpect(jsonPath("$.roomTypes[0].roomNightsSold").value(0))
+                .andExpect(jsonPath("$.roomTypes[0].revenue").value(0));
+    }
+
+    // A changed room type takes the room's booked nights along
+    @Test
+    void movesNightsWithTheRoomType() throws Exception {
+        roomService.updateRoom(suite.getId(), "Twin", null, null);
+
+        summary("2036-01-30", "2036-02-02")
+                .andExpect(jsonPath("$.roomTypes[0].roomType").value("Suite"))
+                .andExpect(jsonPath("$.roomTypes[0].roomNightsSold").value(0))
+                .andExpect(jsonPath("$.roomTypes[1].roomNightsSold").value(4))
+                .andExpect(jsonPath("$.roomTypes[1].revenue").value(380));
+    }
+
+    // A rebuild from the bookings, one month per task, gives the same figures as the incremental updates
+    @Test
+    void rebuildsTheRollupFromTheBookings() throws Exception {
+        long rows = statsRepository.count();
+        statsRepository.deleteAll();
+
+        mockMvc.perform(post("/api/v1/analytics/rollups/rebuild"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.from").value("2036-01-30"))
+                .andExpect(jsonPath("$.to").value("2036-02-02"))
+                .andExpect(jsonPath("$.rows").value(rows));
+        assertThat(statsRepository.count()).isEqualTo(rows);
+
+        summary("2036-01-01", "2036-03-01")
+                .andExpect(jsonPath("$.total.roomNightsSold").value(4))
+                .andExpect(jsonPath("$.total.revenue").value(380));
+    }
+
+    @Test
+    void rejectsAnEmptyRange() throws Exception {
+        mockMvc.perform(get("/api/v1/analytics/occupancy/summary").param("from", "2036-02-01").param("to", "2036-02-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private ResultActions summary(String from, String to) throws Exception {
+        return mockMvc.perform(get("/api/v1/analytics/occupancy/summary").param("from", from).param("to", to))
+                .andExpect(status().isOk());
+    }
+
+    private static BookedRoom booking(LocalDate checkIn, LocalDate checkOut) {
+        BookedRoom booking = new BookedRoom();
+        booking.setCheckInDate(checkIn);
+        booking.setCheckOutDate(checkOut);
+        booking.setGuestFullName("Analytics Guest");
+        booking.setNumOfAdults(1);
+        return booking;
+    }
+}
@@ -0,0 +1,93 @@
+package com.suneth.hotel.controller;
+
+import com.suneth.hotel.IntegrationTestSupport;
+import com.suneth.hotel.model.BookedRoom;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class BookingControllerConcurrencyTest extends IntegrationTestSupport {
+
+    private static final int ROOMS = 4;
+    private static final int REQUESTS = 2_000;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    // Fires thousands of overlapping booking requests at a handful of rooms from many threads
+    // and checks that the bookings that were accepted never overlap each other.
+    @Test
+    void concurrentOverlappingBookingsNeverDoubleBookARoom() throws Exception {
+        List<Long> roomIds = new ArrayList<>();
+        for (int i = 0; i < ROOMS; i++) {
+            roomIds.add(createRoom("Stress", 10).getId());
+        }
+        LocalDate firstNight = LocalDate.now().plusDays(1);
+        Random random = new Random(7);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ResponseEntity<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            Long roomId = roomIds.get(random.nextInt(ROOMS));
+            LocalDate checkIn = firstNight.plusDays(random.nextInt(60));
+            LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(5));
+            Map<String, Object> request = Map.of(
+                    "checkInDate", checkIn.toString(),
+                    "checkOutDate", checkOut.toString(),
+                    "guestFullName", "Guest " + i,
+                    "guestEmail", "guest" + i + "@example.com",
+                    "numOfAdults", 1,
+                    "numOfChildren", 0);
+            responses.add(executor.submit(() -> {
+                start.await();
+                return restTemplate.postForEntity("/api/v1/bookings/{roomId}/booking", request, String.class, roomId);
+            }));
+        }
+        start.countDown();
+
+        int accepted = 0;
+        for (Future<ResponseEntity<String>> response : responses) {
+            ResponseEntity<String> result = response.get();
+            assertThat(result.getStatusCode().is2xxSuccessful() || result.getStatusCode().value() == 400)
+                    .as("unexpected response %s", result)
+                    .isTrue();
+            if (result.getStatusCode().is2xxSuccessful()) {
+                accepted++;
+            }
+        }
+        executor.shutdown();
+
+        Map<Long, List<BookedRoom>> bookingsByRoom = bookingRepository.findAll().stream()
+                .collect(Collectors.groupingBy(booking -> booking.getRoom().getId()));
+        assertThat(bookingsByRoom.values().stream().mapToInt(List::size).sum()).isEqualTo(accepted);
+        assertThat(accepted).isGreaterThan(0).isLessThan(REQUESTS);
+
+        bookingsByRoom.forEach((roomId, bookings) -> {
+            bookings.sort(Comparator.comparing(BookedRoom::getCheckInDate));
+            for (int i = 1; i < bookings.size(); i++) {
+                assertThat(bookings.get(i).getCheckInDate())
+                        .as("room %d double booked", roomId)
+                        .isAfterOrEqualTo(bookings.get(i - 1).getCheckOutDate());
+            }
+        });
+    }
+}
@@ -0,0 +1,58 @@
+package com.suneth.hotel.controller;
+
+import com.suneth.hotel.IntegrationTestSupport;
+import com.suneth.hotel.model.BookedRoom;
+import com.suneth.hotel.model.Room;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class BookingControllerQueryCountTest extends IntegrationTestSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Listing bookings must issue the same number of statements however many bookings and rooms exist
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void listingBookingsIssuesASingleQuery(int bookingCount) throws Exception {
+        for (int i = 0; i < bookingCount; i++) {
+            Room room = createRoom("Deluxe", 100 + i);
+
+            BookedRoom booking = new BookedRoom();
+            booking.setCheckInDate(LocalDate.of(2030, 1, 1));
+            booking.setCheckOutDate(LocalDate.of(2030, 1, 3));
+            booking.setGuestFullName("Guest " + i);
+            booking.setRoom(room);
+            bookingRepository.save(booking);
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/v1/bookings").param("size", String.valueOf(bookingCount)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(bookingCount))
+                .andExpect(jsonPath("$.content[0].room.roomType").value("Deluxe"));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+}
@@ -0,0 +1,212 @@
+package com.suneth.hotel.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.suneth.hotel.model.BookedRoom;
+import com.suneth.hotel.model.Room;
+import com.suneth.hotel.repository.BookingRepository;
+import com.suneth.hotel.repository.RoomRepository;
+import com.suneth.hotel.service.IRoomTypeService;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingExportTest {
+
+    private static final LocalDate CHECK_IN = LocalDate.of(2033, 2, 1);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BookingController bookingController;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private IRoomTypeService roomTypeService;
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        roomRepository.deleteAll();
+    }
+
+    // NDJSON is the default: one JSON object per line, in booking id order
+    @Test
+    void exportsOneJsonObjectPerLine() throws Exception {
+        Room room = createRoom("Single", 80);
+        BookedRoom first = book(room, CHECK_IN, "Ada");
+        BookedRoom second = book(room, CHECK_IN.plusDays(3), "Grace");
+
+        String body = export("ndjson", "application/x-ndjson", null, null);
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        JsonNode line = objectMapper.readTree(lines[0]);
+        assertThat(line.get("id").asLong()).isEqualTo(first.getBookingId());
+        assertThat(line.get("guestName").asText()).isEqualTo("Ada");
+        assertThat(line.get("room").get("roomType").asText()).isEqualTo("Single");
+        assertThat(objectMapper.readTree(lines[1]).get("id").asLong()).isEqualTo(second.getBookingId());
+    }
+
+    // Fields with separators, quotes or line breaks are quoted, with quotes doubled
+    @Test
+    void quotesCsvFields() throws Exception {
+        Room room = createRoom("Sea View, Deluxe", 250);
+        BookedRoom booking = book(room, CHECK_IN, "Doe, \"JJ\"\nJr.");
+
+        String body = export("csv", "text/csv", null, null);
+
+        assertThat(body).isEqualTo("id,checkInDate,checkOutDate,guestName,guestEmail,numOfAdults,"
+                + "numOfChildren,totalNumOfGuests,bookingConfirmationCode,roomId,roomType,roomPrice\n"
+                + booking.getBookingId() + ",2033-02-01,2033-02-02,\"Doe, \"\"JJ\"\"\nJr.\",guest@example.com,"
+                + "2,0,2,," + room.getId() + ",\"Sea View, Deluxe\",250.00\n");
+    }
+
+    // Only ndjson and csv are exported; anything else is turned down before the export starts
+    @Test
+    void rejectsUnknownFormats() throws Exception {
+        for (String format : List.of("xml", "json", "tsv")) {
+            mockMvc.perform(get("/api/v1/bookings/export").param("format", format))
+                    .andExpect(status().isBadRequest());
+        }
+        export("NDJSON", "application/x-ndjson", null, null);
+    }
+
+    // sinceId continues after the last booking of a previous export; checkInFrom drops earlier stays
+    @Test
+    void exportsOnlyBookingsAfterSinceIdAndFromCheckIn() throws Exception {
+        Room room = createRoom("Single", 80);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            ids.add(book(room, CHECK_IN.plusDays(i), "Guest " + i).getBookingId());
+        }
+
+        assertThat(exportedIds(ids.get(1), null)).containsExactlyElementsOf(ids.subList(2, 6));
+        assertThat(exportedIds(null, CHECK_IN.plusDays(4))).containsExactlyElementsOf(ids.subList(4, 6));
+        assertThat(exportedIds(ids.get(4), CHECK_IN.plusDays(2))).containsExactly(ids.get(5));
+    }
+
+    // A client that goes away mid-export ends the database stream and gives its connection back
+    @Test
+    void closesTheDatabaseStreamWhenTheClientDisconnects() throws Exception {
+        Room room = createRoom("Single", 80);
+        List<BookedRoom> bookings = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            bookings.add(booking(room, CHECK_IN.plusDays(i % 300), "Guest " + i));
+        }
+        bookingRepository.saveAll(bookings);
+        HikariPoolMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+        int[] activeWhenDisconnected = new int[1];
+        OutputStream disconnecting = new OutputStream() {
+            private int written;
+
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                written += len;
+                if (written > 16 * 1024) {
+                    activeWhenDisconnected[0] = pool.getActiveConnections();
+                    throw new IOException("Broken pipe");
+                }
+            }
+        };
+
+        StreamingResponseBody body = bookingController.exportBookings("ndjson", 0, null).getBody();
+
+        assertThatThrownBy(() -> body.writeTo(disconnecting)).hasRootCauseMessage("Broken pipe");
+        assertThat(activeWhenDisconnected[0]).isEqualTo(1);
+        assertThat(pool.getActiveConnections()).isZero();
+    }
+
+    private String export(String format, String contentType, Long sinceId, LocalDate checkInFrom) throws Exception {
+        MockHttpServletRequestBuilder request = get("/api/v1/bookings/export").param("format", format);
+        if (sinceId != null) {
+            request.param("sinceId", sinceId.toString());
+        }
+        if (checkInFrom != null) {
+            request.param("checkInFrom", checkInFrom.toString());
+        }
+        MvcResult started = mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", contentType))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private List<Long> exportedIds(Long sinceId, LocalDate checkInFrom) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (String line : export("ndjson", "application/x-ndjson", sinceId, checkInFrom).split("\n")) {
+            if (!line.isEmpty()) {
+                ids.add(objectMapper.readTree(line).get("id").asLong());
+            }
+        }
+        return ids;
+    }
+
+    private Room createRoom(String roomType, int price) {
+        Room room = new Room();
+        room.setType(roomTypeService.getOrCreate(roomType));
+        room.setRoomPrice(BigDecimal.valueOf(price));
+        return roomRepository.save(room);
+    }
+
+    private BookedRoom book(Room room, LocalDate checkIn, String guestName) {
+        return bookingRepository.save(booking(room, checkIn, guestName));
+    }
+
+    private static BookedRoom booking(Room room, LocalDate checkIn, String guestName) {
+        BookedRoom booking = new BookedRoom();
+        booking.setRoom(room);
+        booking.setCheckInDate(checkIn);
+        booking.setCheckOutDate(checkIn.plusDays(1));
+        booking.setGuestFullName(guestName);
+        booking.setGuestEmail("guest@example.com");
+        booking.setNumOfAdults(2);
+        return booking;
+    }
+}
@@ -0,0 +1,132 @@
+package com.suneth.hotel.controller;
+
+import com.suneth.hotel.IntegrationTestSupport;
+import com.suneth.hotel.model.BookedRoom;
+import com.suneth.hotel.model.Room;
+import com.suneth.hotel.service.CatalogVersion;
+import com.suneth.hotel.service.IBookingService;
+import com.suneth.hotel.service.IRoomService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class CatalogConditionalGetTest extends IntegrationTestSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IRoomService roomService;
+
+    @Autowired
+    private IBookingService bookingService;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // A client with the current ETag gets a 304 without a query; a price change or a booking moves the ETag on
+    @Test
+    void revalidatesTheRoomListingAgainstTheCatalogVersion() throws Exception {
+        Room room = createRoom("Suite", 300, true);
+        MockHttpServletResponse first = mockMvc.perform(get("/api/v1/rooms"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse();
+        String etag = first.getHeader("ETag");
+        assertThat(etag).startsWith("\"");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get("/api/v1/rooms").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        roomService.adjustPricesByType("Suite", BigDecimal.TEN);
+        String afterPriceChange = mockMvc.perform(get("/api/v1/rooms").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(afterPriceChange).isNotEqualTo(etag);
+
+        BookedRoom booking = new BookedRoom();
+        booking.setCheckInDate(LocalDate.of(2035, 4, 1));
+        booking.setCheckOutDate(LocalDate.of(2035, 4, 2));
+        booking.setGuestFullName("Guest");
+        bookingService.saveBooking(room.getId(), booking);
+        // The booking turned the room's booked flag on; bookings bump the version shortly after they commit
+        catalogVersion.bumpPending();
+        mockMvc.perform(get("/api/v1/rooms").header("If-None-Match", afterPriceChange))
+                .andExpect(status().isOk());
+    }
+
+    // The same cached bytes are served compressed to clients that accept gzip
+    @Test
+    void servesPrecompressedRoomTypes() throws Exception {
+        createRoom("Suite", 300, true);
+        MockHttpServletResponse response = mockMvc.perform(get("/api/v1/rooms/room-types"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        assertThat(response.getHeaders("Vary")).contains("Accept-Encoding");
+        byte[] plain = response.getContentAsByteArray();
+        assertThat(new String(plain)).isEqualTo("[\"Suite\"]");
+
+        byte[] compressed = mockMvc.perform(get("/api/v1/rooms/room-types").header("Accept-Encoding", "br, gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertThat(in.readAllBytes()).isEqualTo(plain);
+        }
+
+        assertThat(CatalogResponseCache.acceptsGzip("gzip;q=0, *")).isFalse();
+        assertThat(CatalogResponseCache.acceptsGzip("deflate, *;q=0.5")).isTrue();
+    }
+
+    // The gzipped and identity bodies are different bytes, so each has its own ETag and revalidates on its own
+    @Test
+    void tagsEachEncodingSeparately() throws Exception {
+        createRoom("Suite", 300, true);
+        String identityEtag = mockMvc.perform(get("/api/v1/rooms/room-types"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        String gzipEtag = mockMvc.perform(get("/api/v1/rooms/room-types").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(identityEtag).startsWith("\"");
+        assertThat(gzipEtag).startsWith("\"").isNotEqualTo(identityEtag);
+
+        mockMvc.perform(get("/api/v1/rooms/room-types").header("If-None-Match", identityEtag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/rooms/room-types").header("Accept-Encoding", "gzip")
+                        .header("If-None-Match", gzipEtag))
+                .andExpect(status().isNotModified());
+        // A copy in the other encoding is not the representation this client would get
+        mockMvc.perform(get("/api/v1/rooms/room-types").header("Accept-Encoding", "gzip")
+                        .header("If-None-Match", identityEtag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", gzipEtag));
+    }
+}
@@ -0,0 +1,44 @@
+package com.suneth.hotel.controller;
+
+import com.suneth.hotel.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorTokenTest {
+
+    @Test
+    void decodesTheLastIdOfItsListing() {
+        String token = CursorToken.encode("rooms", 4_000_000_000L);
+
+        assertThat(token).doesNotContain("=", "+", "/");
+        assertThat(CursorToken.decode("rooms", token)).isEqualTo(4_000_000_000L);
+    }
+
+    @Test
+    void startsFromTheFirstPageWithoutCursor() {
+        assertThat(CursorToken.decode("rooms", null)).isZero();
+        assertThat(CursorToken.decode("rooms", " ")).isZero();
+    }
+
+    // Tokens of another listing, edited tokens and garbage are all rejected alike
+    @Test
+    void rejectsTokensItDidNotHandOut() {
+        assertThatThrownBy(() -> CursorToken.decode("rooms", CursorToken.encode("bookings", 5)))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> CursorToken.decode("rooms", encode("rooms:5 OR 1=1")))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> CursorToken.decode("rooms", encode("rooms:")))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> CursorToken.decode("rooms", "not a cursor!"))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,196 @@
+package com.suneth.hotel.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.suneth.hotel.model.BookedRoom;
+import com.suneth.hotel.model.Room;
+import com.suneth.hotel.repository.BookingRepository;
+import com.suneth.hotel.repository.RoomRepository;
+import com.suneth.hotel.service.IRoomTypeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class KeysetPaginationTest {
+
+    private static final LocalDate CHECK_IN = LocalDate.of(2032, 6, 1);
+    private static final String PHOTO_HASH = "0".repeat(64);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private IRoomTypeService roomTypeService;
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        roomRepository.deleteAll();
+    }
+
+    // Rooms added while a client pages through the listing neither shift nor repeat earlier rooms
+    @Test
+    void walksAllRoomPagesWhileRoomsAreAdded() throws Exception {
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            expected.add(createRoom("Single", 80 + i, true).getId());
+        }
+        createRoom("Single", 80);
+
+        List<Long> seen = walk("/api/v1/rooms", 3, request -> request,
+                () -> expected.add(createRoom("Double", 150, true).getId()));
+
+        assertThat(seen).containsExactlyElementsOf(expected);
+    }
+
+    // Rooms of other types or outside the price range are skipped on every page, not just the first
+    @Test
+    void appliesFiltersOnEveryPage() throws Exception {
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            createRoom("Single", 100, true);
+            expected.add(createRoom("Double", 90, true).getId());
+            createRoom("Double", 70, true);
+            expected.add(createRoom("Double", 200, true).getId());
+            createRoom("Double", 300, true);
+        }
+
+        List<Long> seen = walk("/api/v1/rooms", 3, request -> request
+                .param("roomType", "Double").param("minPrice", "80").param("maxPrice", "250"), () -> {
+            expected.add(createRoom("Double", 120, true).getId());
+            createRoom("Single", 120, true);
+        });
+
+        assertThat(seen).containsExactlyElementsOf(expected);
+    }
+
+    // Bookings are paged the same way, here restricted to check-ins in a date range
+    @Test
+    void walksBookingPagesWithCheckInRange() throws Exception {
+        Room room = createRoom("Single", 80);
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            BookedRoom booking = book(room, CHECK_IN.plusDays(i));
+            if (i >= 2 && i < 8) {
+                expected.add(booking.getBookingId());
+            }
+        }
+
+        List<Long> seen = walk("/api/v1/bookings", 4, request -> request
+                .param("checkInFrom", CHECK_IN.plusDays(2).toString())
+                .param("checkInTo", CHECK_IN.plusDays(8).toString()), () -> {
+            expected.add(book(room, CHECK_IN.plusDays(5)).getBookingId());
+            book(room, CHECK_IN.plusDays(9));
+        });
+
+        assertThat(seen).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void rejectsTamperedOrForeignCursors() throws Exception {
+        createRoom("Single", 80, true);
+        createRoom("Single", 90, true);
+        String roomsCursor = JsonPath.read(mockMvc.perform(get("/api/v1/rooms").param("size", "1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(), "$.nextCursor");
+
+        mockMvc.perform(get("/api/v1/bookings").param("cursor", roomsCursor))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/rooms").param("cursor", roomsCursor + "x"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/rooms").param("cursor", "garbage!"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/bookings").param("cursor", "garbage!"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // Page sizes below one are raised to one and sizes above the maximum are capped
+    @Test
+    void boundsThePageSize() throws Exception {
+        for (int i = 0; i <= RoomController.MAX_PAGE_SIZE; i++) {
+            createRoom("Single", 80, true);
+        }
+
+        mockMvc.perform(get("/api/v1/rooms").param("size", "0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1));
+        mockMvc.perform(get("/api/v1/rooms").param("size", "100000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(RoomController.MAX_PAGE_SIZE))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+        mockMvc.perform(get("/api/v1/rooms"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(RoomController.DEFAULT_PAGE_SIZE));
+    }
+
+    // Fetches every page of the listing, calling betweenPages after the first one, and returns the ids in order
+    private List<Long> walk(String path, int size, UnaryOperator<MockHttpServletRequestBuilder> filters,
+                            Runnable betweenPages) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            MockHttpServletRequestBuilder request = get(path).param("size", String.valueOf(size));
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String json = mockMvc.perform(filters.apply(request))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            List<Number> page = JsonPath.read(json, "$.content[*].id");
+            assertThat(page).hasSizeLessThanOrEqualTo(size);
+            page.forEach(id -> ids.add(id.longValue()));
+            cursor = JsonPath.read(json, "$.nextCursor");
+            if (pages++ == 0) {
+                betweenPages.run();
+            }
+        } while (cursor != null);
+        return ids;
+    }
+
+    private Room createRoom(String roomType, int price) {
+        return createRoom(roomType, price, false);
+    }
+
+    // Only rooms with a photo are listed in the catalog
+    private Room createRoom(String roomType, int price, boolean withPhoto) {
+        Room room = new Room();
+        room.setType(roomTypeService.getOrCreate(roomType));
+        room.setRoomPrice(BigDecimal.valueOf(price));
+        if (withPhoto) {
+            room.setPhotoHash(PHOTO_HASH);
+        }
+        return roomRepository.save(room);
+    }
+
+    private BookedRoom book(Room room, LocalDate checkIn) {
+        BookedRoom booking = new BookedRoom();
+        booking.setRoom(room);
+        booking.setCheckInDate(checkIn);
+        booking.setCheckOutDate(checkIn.plusDays(1));
+        booking.setGuestFullName("Guest");
+        return bookingRepository.save(booking);
+    }
+}
@@ -0,0 +1,56 @@
+package com.suneth.hotel.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "management.endpoints.web.exposure.include=prometheus",
+        "management.metrics.distribution.percentiles-histogram.http.server.requests=true",
+        "management.metrics.distribution.percentiles-histogram.hotel.service=true"})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsInstrumentationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void responsesCarryServerTiming() throws Exception {
+        mockMvc.perform(get("/api/v1/rooms/room-types"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Server-Timing", matchesPattern("app;dur=\\d+\\.\\d")));
+    }
+
+    // Endpoint and service timers, booking rejections and pool gauges all reach the Prometheus endpoint
+    @Test
+    void prometheusEndpointExposesHotelMetrics() throws Exception {
+        mockMvc.perform(get("/api/v1/rooms/room-types")).andExpect(status().isOk());
+        mockMvc.perform(post("/api/v1/bookings/1/booking")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"checkInDate\":\"2031-01-05\",\"checkOutDate\":\"2031-01-05\"}"))
+                .andExpect(status().isBadRequest());
+
+        String metrics = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(metrics)
+                .contains("http_server_requests_seconds_bucket{")
+                .contains("hotel_service_seconds_bucket{")
+                .contains("method=\"getAllRoomTypes\"")
+                .contains("hotel_bookings_rejected_total{reason=\"invalid_dates\"")
+                .contains("hikaricp_connections_active");
+    }
+}
@@ -0,0 +1,134 @@
+package com.suneth.hotel.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.suneth.hotel.IntegrationTestSupport;
+import com.suneth.hotel.model.BookedRoom;
+import com.suneth.hotel.model.Room;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class RoomControllerBulkOperationsTest extends IntegrationTestSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // A large CSV import runs as a job that reports its progress and skips bad rows
+    @Test
+    void importsRoomsFromCsvInTheBackground() throws Exception {
+        StringBuilder csv = new StringBuilder("roomPrice,roomType\n");
+        for (int i = 0; i < 1200; i++) {
+            csv.append(100 + i % 50).append(",\"Sea View, Deluxe\"\n");
+        }
+        csv.append("cheap,Single\n").append("80,\n");
+        MockMultipartFile file = new MockMultipartFile("file", "rooms.csv", "text/csv",
+                csv.toString().getBytes(StandardCharsets.UTF_8));
+
+        String location = mockMvc.perform(multipart("/api/v1/rooms/import").file(file))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getHeader("Location");
+
+        JsonNode job = awaitJob(location);
+        assertThat(job.get("status").asText()).isEqualTo("COMPLETED");
+        assertThat(job.get("processed").asLong()).isEqualTo(1200);
+        assertThat(job.get("failed").asLong()).isEqualTo(2);
+        assertThat(job.get("errors").get(0).asText()).startsWith("Line 1202");
+        assertThat(roomRepository.findIdsByRoomType("Sea View, Deluxe")).hasSize(1200);
+    }
+
+    @Test
+    void importsRoomsFromNdjson() throws Exception {
+        String ndjson = "{\"roomType\":\"Suite\",\"roomPrice\":250}\n{\"roomType\":\"Single\",\"roomPrice\":\"90.50\"}\n";
+        MockMultipartFile file = new MockMultipartFile("file", "rooms.ndjson", "application/x-ndjson",
+                ndjson.getBytes(StandardCharsets.UTF_8));
+
+        String location = mockMvc.perform(multipart("/api/v1/rooms/import").file(file))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getHeader("Location");
+
+        assertThat(awaitJob(location).get("processed").asLong()).isEqualTo(2);
+    }
+
+    // Prices change with one statement and no room is loaded into the persistence context
+    @Test
+    void adjustsPricesOfOneTypeWithoutLoadingRooms() throws Exception {
+        Room suite = createRoom("Suite", 200);
+        Room single = createRoom("Single", 80);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(patch("/api/v1/rooms/prices").param("roomType", "Suite").param("percent", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affectedRooms").value(1));
+
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(roomRepository.findById(suite.getId()).orElseThrow().getRoomPrice()).isEqualByComparingTo("220.00");
+        assertThat(roomRepository.findById(single.getId()).orElseThrow().getRoomPrice()).isEqualByComparingTo("80.00");
+    }
+
+    @Test
+    void deletesAllRoomsOfATypeWithTheirBookings() throws Exception {
+        Room suite = createRoom("Suite", 200);
+        createRoom("Suite", 210);
+        Room single = createRoom("Single", 80);
+        BookedRoom booking = new BookedRoom();
+        booking.setCheckInDate(LocalDate.of(2031, 1, 1));
+        booking.setCheckOutDate(LocalDate.of(2031, 1, 2));
+        booking.setRoom(suite);
+        bookingRepository.save(booking);
+
+        mockMvc.perform(delete("/api/v1/rooms").param("roomType", "Suite"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affectedRooms").value(2));
+
+        assertThat(roomRepository.findAll()).extracting(Room::getId).containsExactly(single.getId());
+        assertThat(bookingRepository.count()).isZero();
+    }
+
+    @Test
+    void bulkDeleteNeedsExactlyOneCriterion() throws Exception {
+        mockMvc.perform(delete("/api/v1/rooms")).andExpect(status().isBadRequest());
+        mockMvc.perform(delete("/api/v1/rooms").param("roomIds", "1,2").param("roomType", "Suite"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode awaitJob(String location) throws Exception {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (true) {
+            String body = mockMvc.perform(get(location)).andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode job = objectMapper.readTree(body);
+            String jobStatus = job.get("status").asText();
+            if (!jobStatus.equals("QUEUED") && !jobStatus.equals("RUNNING") || System.currentTimeMillis() > deadline) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.suneth.hotel.controller;
+
+import com.suneth.hotel.model.Room;
+import com.suneth.hotel.repository.RoomRepository;
+import com.suneth.hotel.service.IRoomService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RoomPhotoEndpointTest {
+
+    private static final byte[] PHOTO = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IRoomService roomService;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @AfterEach
+    void cleanUp() {
+        roomRepository.deleteAll();
+    }
+
+    // The content hash is the ETag, so a client holding it gets a 304; the photo may be cached for good
+    @Test
+    void servesPhotoWithHashAsETag() throws Exception {
+        Room room = addRoomWithPhoto();
+        String etag = "\"" + HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(PHOTO)) + "\"";
+
+        mockMvc.perform(get("/api/v1/rooms/{roomId}/photo", room.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(header().string("Cache-Control", allOf(
+                        containsString("max-age=31536000"), containsString("public"), containsString("immutable"))))
+                .andExpect(header().string("Content-Type", "image/png"))
+                .andExpect(content().bytes(PHOTO));
+
+        mockMvc.perform(get("/api/v1/rooms/{roomId}/photo", room.getId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    // On a connector with sendfile the whole photo is left to Tomcat: only the headers are written
+    // here, and the file and its length are handed over in request attributes
+    @Test
+    void handsWholePhotoToSendfile() throws Exception {
+        Room room = addRoomWithPhoto();
+        String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(PHOTO));
+
+        mockMvc.perform(get("/api/v1/rooms/{roomId}/photo", room.getId())
+                        .requestAttr("org.apache.tomcat.sendfile.support", true))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + hash + "\""))
+                .andExpect(header().longValue("Content-Length", PHOTO.length))
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.filename", endsWith(hash)))
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.start", 0L))
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.end", (long) PHOTO.length))
+                .andExpect(content().bytes(new byte[0]));
+
+        // Ranges are still cut out by Spring
+        mockMvc.perform(get("/api/v1/rooms/{roomId}/photo", room.getId())
+                        .requestAttr("org.apache.tomcat.sendfile.support", true)
+                        .header("Range", "bytes=4-9"))
+                .andExpect(status().isPartialContent())
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.filename", nullValue()))
+                .andExpect(content().bytes("456789".getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Test
+    void answersRangeRequestsWithPartialContent() throws Exception {
+        Room room = addRoomWithPhoto();
+
+        mockMvc.perform(get("/api/v1/rooms/{roomId}/photo", room.getId()).header("Range", "bytes=4-9"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 4-9/16"))
+                .andExpect(content().bytes("456789".getBytes(StandardCharsets.US_ASCII)));
+        mockMvc.perform(get("/api/v1/rooms/{roomId}/photo", room.getId()).header("Range", "bytes=-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes("def".getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    // Adds a room through the service so the photo goes into the photo store
+    private Room addRoomWithPhoto() throws Exception {
+        return roomService.addNewRoom(new MockMultipartFile("photo", "photo.png", "image/png", PHOTO),
+                "Deluxe", BigDecimal.valueOf(120));
+    }
+}
@@ -0,0 +1,86 @@
+package com.suneth.hotel.controller;
+
+import com.suneth.hotel.IntegrationTestSupport;
+import com.suneth.hotel.config.SqlBudget;
+import com.suneth.hotel.exception.SqlBudgetExceededException;
+import com.suneth.hotel.model.Room;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The tests run with hotel.sql-budget.enforcement=fail, so every controller test also checks its budget
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(SqlBudgetTest.RoomCountController.class)
+class SqlBudgetTest extends IntegrationTestSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    // Listing rooms with photos used to load the bookings of every room, one query each
+    @Test
+    void listsRoomsWithinASingleStatement() throws Exception {
+        List<Room> rooms = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Room room = new Room();
+            room.setType(roomTypeService.getOrCreate("Suite"));
+            room.setRoomPrice(BigDecimal.valueOf(100 + i));
+            room.setPhotoHash("%064d".formatted(i));
+            rooms.add(room);
+        }
+        roomRepository.saveAll(rooms);
+
+        mockMvc.perform(get("/api/v1/rooms").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(10));
+    }
+
+    @Test
+    void failsRequestsThatRepeatAStatement() {
+        assertThatThrownBy(() -> mockMvc.perform(get("/test/sql-budget/room-counts")))
+                .isInstanceOf(ServletException.class)
+                .cause()
+                .isInstanceOf(SqlBudgetExceededException.class)
+                .hasMessageContaining("GET /test/sql-budget/room-counts")
+                .hasMessageContaining("a likely N+1 query")
+                .hasMessageContaining("SqlBudgetTest$RoomCountController.countRooms");
+    }
+
+    @RestController
+    static class RoomCountController {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        RoomCountController(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @GetMapping("/test/sql-budget/room-counts")
+        @SqlBudget(sameStatement = 2)
+        public List<Long> countRooms() {
+            List<Long> counts = new ArrayList<>();
+            for (long roomId = 1; roomId <= 3; roomId++) {
+                counts.add(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM room WHERE id = ?", Long.class, roomId));
+            }
+            assertThat(counts).hasSize(3);
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.suneth.hotel.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks with EXPLAIN that the hot queries are answered from the indexes created by the migrations
+ * instead of scanning their tables. The statements mirror the SQL Hibernate generates for the
+ * repository queries.
+ */
+@SpringBootTest
+class QueryIndexTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Availability search: the rooms of the wanted types minus the rooms with an overlapping stay
+    @Test
+    void availabilitySearchUsesTypeAndStayIndexes() {
+        String plan = explain("SELECT r.id FROM room r WHERE r.room_type_id IN (1, 2) AND r.id NOT IN "
+                + "(SELECT br.room_id FROM booked_room br "
+                + "WHERE br.check_in < DATE '2030-01-05' AND br.check_out > DATE '2030-01-02')");
+
+        // H2 keeps a separate index for the room_type_id foreign key and may pick it over
+        // idx_room_type_listing; both seek on the type id
+        assertThat(plan).containsPattern("PUBLIC\\.\\w+: ROOM_TYPE_ID IN");
+        assertThat(plan).contains("IDX_BOOKED_ROOM_STAY");
+    }
+
+    @Test
+    void overlappingStaysUseStayIndex() {
+        String plan = explain("SELECT br.check_in, br.check_out, br.room_id FROM booked_room br "
+                + "WHERE br.check_in < DATE '2030-01-05' AND br.check_out > DATE '2030-01-02'");
+
+        assertThat(plan).contains("IDX_BOOKED_ROOM_STAY");
+    }
+
+    // Conflict check of a booking and the bookings shown for a room
+    @Test
+    void staysOfRoomUseRoomStayIndex() {
+        String plan = explain("SELECT br.booking_id FROM booked_room br WHERE br.room_id = 1 "
+                + "AND br.check_in < DATE '2030-01-05' AND br.check_out > DATE '2030-01-02'");
+
+        assertThat(plan).contains("IDX_BOOKED_ROOM_ROOM_STAY");
+    }
+
+    @Test
+    void confirmationLookupUsesUniqueKey() {
+        String plan = explain("SELECT br.booking_id, r.id FROM booked_room br JOIN room r ON r.id = br.room_id "
+                + "LEFT JOIN room_type t ON t.id = r.room_type_id WHERE br.confirmation_code = 'ABC123'");
+
+        assertThat(plan).contains("UK_BOOKED_ROOM_CONFIRMATION_CODE");
+    }
+
+    // Catalog page filtered by type, seeking past the last room id of the previous page
+    @Test
+    void catalogPageUsesTypeListingIndex() {
+        String plan = explain("SELECT r.id FROM room r WHERE r.id > 0 AND r.photo_hash IS NOT NULL "
+                + "AND r.room_type_id = (SELECT t.id FROM room_type t WHERE t.name = 'Suite') "
+                + "ORDER BY r.id LIMIT 21");
+
+        assertThat(plan).contains("IDX_ROOM_TYPE_LISTING");
+        assertThat(plan).contains("UK_ROOM_TYPE_NAME");
+    }
+
+    private String explain(String sql) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+        assertThat(plan).doesNotContainIgnoringCase("tableScan");
+        return plan;
+    }
+}
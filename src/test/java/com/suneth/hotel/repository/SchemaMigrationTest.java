@@ -0,0 +1,110 @@
+package com.suneth.hotel.repository;
+
+import com.suneth.hotel.model.BookedRoom;
+import com.suneth.hotel.model.Room;
+import com.suneth.hotel.model.RoomType;
+import com.suneth.hotel.service.IBookingService;
+import com.suneth.hotel.service.IRoomTypeService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the application on a database created by ddl-auto: update before the migrations, holding
+ * rooms and bookings: Flyway baselines it at V1 and migrates it to the latest version, and Hibernate
+ * validates the result against the entities.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + SchemaMigrationTest.URL,
+        "spring.flyway.baseline-on-migrate=true",
+        "spring.flyway.baseline-version=1"})
+class SchemaMigrationTest {
+
+    static final String URL = "jdbc:h2:mem:legacy_schema;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private RoomTypeRepository roomTypeRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private IRoomTypeService roomTypeService;
+
+    @Autowired
+    private IBookingService bookingService;
+
+    @BeforeAll
+    static void createLegacyDatabase() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/h2/V1__baseline_schema.sql"));
+            statement.execute("INSERT INTO room (id, is_booked, room_price, room_type) VALUES "
+                    + "(3, false, 80.00, 'Single'), (7, true, 120.00, 'Double'), (12, false, 85.00, 'Single')");
+            statement.execute("INSERT INTO booked_room (booking_id, confirmation_code, check_in, check_out, "
+                    + "guest_email, guest_full_name, adults, children, total_guests, room_id) VALUES "
+                    + "(40, '4711081512', DATE '2030-03-01', DATE '2030-03-04', 'ada@example.com', 'Ada', 2, 0, 2, 7), "
+                    // The old generator never checked its random codes for duplicates
+                    + "(41, '4711081512', DATE '2030-05-01', DATE '2030-05-02', 'bo@example.com', 'Bo', 1, 0, 1, 3)");
+        }
+    }
+
+    @Test
+    void movesRoomTypeNamesIntoRoomTypes() {
+        assertThat(roomTypeRepository.findAll()).extracting(RoomType::getName).contains("Single", "Double");
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT r.id FROM room r JOIN room_type t ON t.id = r.room_type_id WHERE t.name = 'Single' ORDER BY r.id",
+                Long.class)).containsExactly(3L, 12L);
+        assertThat(roomTypeService.findMatchingTypeIds("single"))
+                .containsExactly(roomTypeService.getOrCreate("Single").getId());
+        assertThat(bookingRepository.findByBookingConfirmationCode("4711081512"))
+                .hasValueSatisfying(booking -> assertThat(booking.getNightlyRate()).isNull());
+    }
+
+    // The unique index on confirmation codes is created once the later bookings sharing a code are re-issued
+    @Test
+    void reissuesDuplicateConfirmationCodes() {
+        assertThat(bookingService.findByBookingConfirmationCode("4711081512").getBookingId()).isEqualTo(40L);
+        assertThat(bookingService.findByBookingConfirmationCode("R41").getGuestFullName()).isEqualTo("Bo");
+    }
+
+    // The sequences continue after the ids of the legacy rows
+    @Test
+    void newRowsGetIdsAfterLegacyRows() {
+        RoomType suite = roomTypeRepository.save(new RoomType("Suite"));
+        Room room = new Room();
+        room.setType(suite);
+        room.setRoomPrice(BigDecimal.valueOf(200));
+        room = roomRepository.save(room);
+
+        BookedRoom booking = new BookedRoom();
+        booking.setRoom(room);
+        booking.setCheckInDate(LocalDate.of(2030, 3, 1));
+        booking.setCheckOutDate(LocalDate.of(2030, 3, 2));
+        booking.setBookingConfirmationCode("NEW-CODE");
+        booking = bookingRepository.save(booking);
+
+        assertThat(suite.getId()).isGreaterThan(2L);
+        assertThat(room.getId()).isGreaterThan(12L);
+        assertThat(booking.getBookingId()).isGreaterThan(40L);
+    }
+}
@@ -0,0 +1,132 @@
+package com.suneth.hotel.service;
+
+import com.suneth.hotel.model.BookingDates;
+import com.suneth.hotel.service.BookingIntervalIndex.RoomIntervals;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookingIntervalIndexTest {
+
+    // Reference model: a plain list of half-open [start, end) ranges checked one by one
+    private record Range(long bookingId, long start, long end) {
+        boolean overlaps(long otherStart, long otherEnd) {
+            return start < otherEnd && otherStart < end;
+        }
+    }
+
+    @Test
+    void backToBackStaysDoNotConflict() {
+        RoomIntervals intervals = RoomIntervals.of(List.of()).with(1, 10, 13);
+
+        assertThat(intervals.overlaps(13, 15)).isFalse();
+        assertThat(intervals.overlaps(7, 10)).isFalse();
+        assertThat(intervals.overlaps(12, 13)).isTrue();
+        assertThat(intervals.overlaps(10, 11)).isTrue();
+        assertThat(intervals.overlaps(8, 20)).isTrue();
+        assertThat(intervals.overlaps(11, 12)).isTrue();
+    }
+
+    @Test
+    void addingTheSameBookingTwiceIsIgnored() {
+        RoomIntervals intervals = RoomIntervals.of(List.of()).with(1, 10, 13);
+
+        assertThat(intervals.with(1, 10, 13).size()).isEqualTo(1);
+        assertThat(intervals.without(1).overlaps(10, 13)).isFalse();
+    }
+
+    private record Dates(Long bookingId, Long roomId, LocalDate checkInDate, LocalDate checkOutDate)
+            implements BookingDates {
+        @Override
+        public Long getBookingId() {
+            return bookingId;
+        }
+
+        @Override
+        public Long getRoomId() {
+            return roomId;
+        }
+
+        @Override
+        public LocalDate getCheckInDate() {
+            return checkInDate;
+        }
+
+        @Override
+        public LocalDate getCheckOutDate() {
+            return checkOutDate;
+        }
+    }
+
+    // Loading a room's bookings in any order, with a booking listed twice, gives the same index as
+    // adding them one at a time
+    @ParameterizedTest
+    @ValueSource(longs = {1, 2, 3, 42})
+    void loadingMatchesAddingOneAtATime(long seed) {
+        Random random = new Random(seed);
+        List<BookingDates> bookings = new ArrayList<>();
+        for (long bookingId = 1; bookingId <= 300; bookingId++) {
+            LocalDate checkIn = LocalDate.ofEpochDay(random.nextInt(365));
+            bookings.add(new Dates(bookingId, 1L, checkIn, checkIn.plusDays(1 + random.nextInt(14))));
+        }
+        bookings.add(bookings.get(random.nextInt(bookings.size())));
+
+        RoomIntervals added = RoomIntervals.of(List.of());
+        for (BookingDates booking : bookings) {
+            added = added.with(booking.getBookingId(),
+                    booking.getCheckInDate().toEpochDay(), booking.getCheckOutDate().toEpochDay());
+        }
+        RoomIntervals loaded = RoomIntervals.of(bookings);
+
+        assertThat(loaded.size()).isEqualTo(300);
+        for (long start = -5; start < 380; start++) {
+            for (long end = start + 1; end <= start + 20; end += 4) {
+                assertThat(loaded.overlaps(start, end)).isEqualTo(added.overlaps(start, end));
+            }
+        }
+        for (long bookingId = 1; bookingId <= 300; bookingId += 7) {
+            added = added.without(bookingId);
+            loaded = loaded.without(bookingId);
+        }
+        assertThat(loaded.size()).isEqualTo(added.size());
+    }
+
+    // Randomised property check: for any history of adds and removes, including overlapping
+    // historic bookings, the index must agree with a linear scan of the same ranges.
+    @ParameterizedTest
+    @ValueSource(longs = {1, 2, 3, 42, 1234, 987654321})
+    void agreesWithLinearScan(long seed) {
+        Random random = new Random(seed);
+        RoomIntervals intervals = RoomIntervals.of(List.of());
+        List<Range> model = new ArrayList<>();
+        long nextBookingId = 1;
+
+        for (int step = 0; step < 2_000; step++) {
+            int action = random.nextInt(10);
+            if (action < 5) {
+                long start = random.nextInt(365);
+                long end = start + 1 + random.nextInt(14);
+                intervals = intervals.with(nextBookingId, start, end);
+                model.add(new Range(nextBookingId++, start, end));
+            } else if (action < 7 && !model.isEmpty()) {
+                Range removed = model.remove(random.nextInt(model.size()));
+                intervals = intervals.without(removed.bookingId());
+            } else {
+                long start = random.nextInt(380) - 10;
+                long end = start + 1 + random.nextInt(20);
+                boolean expected = model.stream().anyMatch(range -> range.overlaps(start, end));
+                assertThat(intervals.overlaps(start, end))
+                        .as("seed %d step %d query [%d, %d)", seed, step, start, end)
+                        .isEqualTo(expected);
+            }
+            assertThat(intervals.size()).isEqualTo(model.size());
+        }
+    }
+}
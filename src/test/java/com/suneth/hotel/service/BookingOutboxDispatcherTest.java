@@ -0,0 +1,156 @@
+package com.suneth.hotel.service;
+
+import com.suneth.hotel.IntegrationTestSupport;
+import com.suneth.hotel.model.BookedRoom;
+import com.suneth.hotel.model.BookingEventType;
+import com.suneth.hotel.model.OutboxEvent;
+import com.suneth.hotel.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class BookingOutboxDispatcherTest extends IntegrationTestSupport {
+
+    @Autowired
+    private IBookingService bookingService;
+
+    @Autowired
+    private IRoomService roomService;
+
+    @Autowired
+    private BookingOutboxDispatcher dispatcher;
+
+    @Autowired
+    private RecordingSink sink;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+        sink.events.clear();
+        sink.failing.set(false);
+    }
+
+    // Events are stored with the booking change and removed from the outbox once delivered
+    @Test
+    void deliversCreatedAndCancelledEvents() {
+        Long roomId = createRoom("Double", 90).getId();
+        bookingService.saveBooking(roomId, booking(LocalDate.of(2032, 5, 1), LocalDate.of(2032, 5, 3)));
+        Long bookingId = bookingRepository.findByRoomId(roomId).get(0).getBookingId();
+        bookingService.cancelBooking(bookingId);
+        assertThat(outboxEventRepository.count()).isEqualTo(2);
+
+        assertThat(dispatcher.dispatchPending()).isEqualTo(2);
+
+        assertThat(sink.events).extracting(OutboxEvent::getEventType)
+                .containsExactly(BookingEventType.BOOKING_CREATED, BookingEventType.BOOKING_CANCELLED);
+        assertThat(sink.events).allSatisfy(event -> {
+            assertThat(event.getBookingId()).isEqualTo(bookingId);
+            assertThat(event.getPayload()).contains("\"roomId\":" + roomId, "\"checkInDate\":\"2032-05-01\"");
+        });
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    // While a room's event waits for a retry, later events of that room wait too; other rooms go ahead
+    @Test
+    void retriesFailedEventsWithoutReordering() {
+        Long firstRoomId = createRoom("Double", 90).getId();
+        Long secondRoomId = createRoom("Double", 90).getId();
+        bookingService.saveBooking(firstRoomId, booking(LocalDate.of(2032, 6, 1), LocalDate.of(2032, 6, 3)));
+        sink.failing.set(true);
+        assertThat(dispatcher.dispatchPending()).isZero();
+        OutboxEvent failed = outboxEventRepository.findAll().get(0);
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getNextAttemptAt()).isAfter(Instant.now());
+        assertThat(failed.getLastError()).isEqualTo("Sink unavailable");
+
+        sink.failing.set(false);
+        bookingService.saveBooking(firstRoomId, booking(LocalDate.of(2032, 6, 5), LocalDate.of(2032, 6, 7)));
+        bookingService.saveBooking(secondRoomId, booking(LocalDate.of(2032, 6, 1), LocalDate.of(2032, 6, 3)));
+        assertThat(dispatcher.dispatchPending()).isEqualTo(1);
+        assertThat(sink.events).extracting(OutboxEvent::getRoomId).containsExactly(secondRoomId);
+
+        // Once the backoff has passed, the first room's events are delivered in the order they were made
+        failed = outboxEventRepository.findById(failed.getId()).orElseThrow();
+        failed.setNextAttemptAt(Instant.now().minusSeconds(1));
+        outboxEventRepository.save(failed);
+        assertThat(dispatcher.dispatchPending()).isEqualTo(2);
+        assertThat(sink.events.subList(1, 3)).extracting(OutboxEvent::getRoomId)
+                .containsExactly(firstRoomId, firstRoomId);
+        assertThat(sink.events.get(1).getId()).isEqualTo(failed.getId());
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    // Deleting a room cancels its bookings, and consumers are told so like for any other cancellation
+    @Test
+    void deletingRoomsCancelsTheirBookings() {
+        Long firstRoomId = createRoom("Double", 90).getId();
+        Long secondRoomId = createRoom("Double", 90).getId();
+        Long thirdRoomId = createRoom("Suite", 200).getId();
+        bookingService.saveBooking(firstRoomId, booking(LocalDate.of(2032, 7, 1), LocalDate.of(2032, 7, 3)));
+        bookingService.saveBooking(secondRoomId, booking(LocalDate.of(2032, 7, 1), LocalDate.of(2032, 7, 3)));
+        bookingService.saveBooking(secondRoomId, booking(LocalDate.of(2032, 7, 5), LocalDate.of(2032, 7, 6)));
+        bookingService.saveBooking(thirdRoomId, booking(LocalDate.of(2032, 7, 1), LocalDate.of(2032, 7, 3)));
+        List<Long> bookingIds = bookingRepository.findAll().stream().map(BookedRoom::getBookingId).toList();
+        assertThat(dispatcher.dispatchPending()).isEqualTo(4);
+        sink.events.clear();
+
+        roomService.deleteRoom(firstRoomId);
+        roomService.deleteRoomsByType("Double");
+        roomService.deleteRooms(List.of(thirdRoomId));
+
+        assertThat(dispatcher.dispatchPending()).isEqualTo(4);
+        assertThat(sink.events).extracting(OutboxEvent::getEventType).containsOnly(BookingEventType.BOOKING_CANCELLED);
+        assertThat(sink.events).extracting(OutboxEvent::getBookingId).containsExactlyInAnyOrderElementsOf(bookingIds);
+        assertThat(sink.events).extracting(OutboxEvent::getRoomId)
+                .containsExactly(firstRoomId, secondRoomId, secondRoomId, thirdRoomId);
+        assertThat(sink.events.get(0).getPayload()).contains("\"guestEmail\":\"jane@example.com\"");
+    }
+
+    private static BookedRoom booking(LocalDate checkIn, LocalDate checkOut) {
+        BookedRoom booking = new BookedRoom();
+        booking.setCheckInDate(checkIn);
+        booking.setCheckOutDate(checkOut);
+        booking.setGuestFullName("Jane Guest");
+        booking.setGuestEmail("jane@example.com");
+        booking.setNumOfAdults(2);
+        return booking;
+    }
+
+    static class RecordingSink implements IBookingEventSink {
+        final List<OutboxEvent> events = new ArrayList<>();
+        final AtomicBoolean failing = new AtomicBoolean();
+
+        @Override
+        public void publish(List<OutboxEvent> batch) {
+            if (failing.get()) {
+                throw new IllegalStateException("Sink unavailable");
+            }
+            events.addAll(batch);
+        }
+    }
+
+    @TestConfiguration
+    static class SinkConfig {
+        @Bean
+        @Primary
+        RecordingSink recordingSink() {
+            return new RecordingSink();
+        }
+    }
+}
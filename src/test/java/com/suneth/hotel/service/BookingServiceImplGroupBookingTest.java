@@ -0,0 +1,118 @@
+package com.suneth.hotel.service;
+
+import com.suneth.hotel.IntegrationTestSupport;
+import com.suneth.hotel.exception.InvalidBookingRequestException;
+import com.suneth.hotel.model.BookedRoom;
+import com.suneth.hotel.request.GroupBookingRequest;
+import com.suneth.hotel.request.GroupBookingRequest.RoomStay;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BookingServiceImplGroupBookingTest extends IntegrationTestSupport {
+
+    private static final LocalDate CHECK_IN = LocalDate.of(2031, 3, 1);
+    private static final LocalDate CHECK_OUT = LocalDate.of(2031, 3, 4);
+
+    @Autowired
+    private IBookingService bookingService;
+
+    @Autowired
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Forty rooms are booked under one group code with a handful of statements, not one per room
+    @Test
+    void booksAllRoomsWithBatchedInserts() {
+        List<Long> roomIds = createRooms(40);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<BookedRoom> bookings = bookingService.saveGroupBooking(groupOf(roomIds, CHECK_IN, CHECK_OUT));
+        // Room select, overlap re-check, sequence fetches, batched booking and outbox event inserts and
+        // batched room version updates
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(10);
+
+        assertThat(bookings).hasSize(40);
+        String groupCode = bookings.get(0).getGroupConfirmationCode();
+        assertThat(groupCode).isNotNull();
+        assertThat(bookings).allSatisfy(booking -> {
+            assertThat(booking.getGroupConfirmationCode()).isEqualTo(groupCode);
+            assertThat(booking.getBookingConfirmationCode()).isNotEqualTo(groupCode);
+        });
+        assertThat(bookingService.findByGroupConfirmationCode(groupCode)).hasSize(40);
+    }
+
+    // If one room is taken nothing of the group is booked
+    @Test
+    void bookingIsAtomicWhenOneRoomIsUnavailable() {
+        List<Long> roomIds = createRooms(10);
+        bookingService.saveGroupBooking(groupOf(roomIds.subList(9, 10), CHECK_IN.plusDays(1), CHECK_OUT));
+        long bookingsBefore = bookingRepository.count();
+
+        assertThatThrownBy(() -> bookingService.saveGroupBooking(groupOf(roomIds, CHECK_IN, CHECK_OUT)))
+                .isInstanceOf(InvalidBookingRequestException.class)
+                .hasMessageContaining("Room " + roomIds.get(9));
+        assertThat(bookingRepository.count()).isEqualTo(bookingsBefore);
+    }
+
+    // A booking another instance made after this one indexed the room is found in the database
+    @Test
+    void rejectsRoomBookedThroughAnotherInstance() {
+        List<Long> roomIds = createRooms(3);
+        BookedRoom other = new BookedRoom();
+        other.setCheckInDate(CHECK_OUT.minusDays(1));
+        other.setCheckOutDate(CHECK_OUT.plusDays(1));
+        other.setBookingConfirmationCode("OTHERINSTANCE001");
+        other.setRoom(roomRepository.findById(roomIds.get(1)).orElseThrow());
+        bookingRepository.save(other);
+
+        assertThatThrownBy(() -> bookingService.saveGroupBooking(groupOf(roomIds, CHECK_IN, CHECK_OUT)))
+                .isInstanceOf(InvalidBookingRequestException.class)
+                .hasMessageContaining("Room " + roomIds.get(1));
+        assertThat(bookingRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsOverlappingStaysOfTheSameRoom() {
+        Long roomId = createRooms(1).get(0);
+        GroupBookingRequest request = new GroupBookingRequest("Tour Operator", "tours@example.com", List.of(
+                new RoomStay(roomId, CHECK_IN, CHECK_OUT, 2, 0),
+                new RoomStay(roomId, CHECK_OUT.minusDays(1), CHECK_OUT.plusDays(2), 2, 0)));
+
+        assertThatThrownBy(() -> bookingService.saveGroupBooking(request))
+                .isInstanceOf(InvalidBookingRequestException.class);
+        assertThat(bookingRepository.count()).isZero();
+    }
+
+    private List<Long> createRooms(int count) {
+        List<Long> roomIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            roomIds.add(createRoom("Family", 150).getId());
+        }
+        // Load the rooms into the index up front so only the booking itself is measured
+        roomIds.forEach(bookingIntervalIndex::reloadRoom);
+        return roomIds;
+    }
+
+    private static GroupBookingRequest groupOf(List<Long> roomIds, LocalDate checkIn, LocalDate checkOut) {
+        List<RoomStay> stays = new ArrayList<>();
+        for (Long roomId : roomIds) {
+            stays.add(new RoomStay(roomId, checkIn, checkOut, 2, 1));
+        }
+        return new GroupBookingRequest("Tour Operator", "tours@example.com", stays);
+    }
+}
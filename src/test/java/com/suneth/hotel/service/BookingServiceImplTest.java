@@ -0,0 +1,93 @@
+package com.suneth.hotel.service;
+
+import com.suneth.hotel.IntegrationTestSupport;
+import com.suneth.hotel.exception.InvalidBookingRequestException;
+import com.suneth.hotel.model.BookedRoom;
+import com.suneth.hotel.model.Room;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class BookingServiceImplTest extends IntegrationTestSupport {
+
+    private static final LocalDate CHECK_IN = LocalDate.of(2031, 5, 10);
+    private static final LocalDate CHECK_OUT = LocalDate.of(2031, 5, 13);
+
+    @Autowired
+    private IBookingService bookingService;
+
+    @Autowired
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    // The index of this instance loaded the room before another instance booked it; the booking
+    // transaction finds that booking in the database and the stay is turned down
+    @Test
+    void rejectsStayBookedThroughAnotherInstance() {
+        Room room = createRoom("Double", 90);
+        bookingIntervalIndex.reloadRoom(room.getId());
+        bookingRepository.save(booking(room, CHECK_IN.plusDays(1), CHECK_OUT.plusDays(1), "OTHERINSTANCE001"));
+
+        assertThatThrownBy(() -> bookingService.saveBooking(room.getId(), booking(null, CHECK_IN, CHECK_OUT, null)))
+                .isInstanceOf(InvalidBookingRequestException.class)
+                .hasMessageContaining("Unavailable");
+        assertThat(bookingRepository.count()).isEqualTo(1);
+        assertThat(bookingIntervalIndex.isAvailable(room.getId(), CHECK_IN, CHECK_OUT)).isFalse();
+    }
+
+    // Stays next to the other instance's booking are still accepted
+    @Test
+    void acceptsStayNextToBookingOfAnotherInstance() {
+        Room room = createRoom("Double", 90);
+        bookingIntervalIndex.reloadRoom(room.getId());
+        bookingRepository.save(booking(room, CHECK_OUT, CHECK_OUT.plusDays(2), "OTHERINSTANCE002"));
+
+        assertThat(bookingService.saveBooking(room.getId(), booking(null, CHECK_IN, CHECK_OUT, null))).isNotNull();
+        assertThat(bookingRepository.count()).isEqualTo(2);
+    }
+
+    // Another instance cancelled a booking this instance's index still holds; the freed nights can be
+    // booked here without a restart
+    @Test
+    void acceptsStayCancelledThroughAnotherInstance() {
+        Room room = createRoom("Double", 90);
+        BookedRoom first = booking(null, CHECK_IN, CHECK_OUT, null);
+        bookingService.saveBooking(room.getId(), first);
+        bookingRepository.deleteById(first.getBookingId());
+
+        assertThat(bookingService.saveBooking(room.getId(), booking(null, CHECK_IN, CHECK_OUT, null))).isNotNull();
+        assertThat(bookingRepository.count()).isEqualTo(1);
+        assertThat(bookingIntervalIndex.isAvailable(room.getId(), CHECK_IN, CHECK_OUT)).isFalse();
+    }
+
+    // A single booking cannot join a group booking by naming its group code in the request body
+    @Test
+    void ignoresGroupConfirmationCodeOfRequest() {
+        Room room = createRoom("Double", 90);
+        BookedRoom request = booking(null, CHECK_IN, CHECK_OUT, null);
+        request.setGroupConfirmationCode("GROUPOFOTHERS001");
+
+        bookingService.saveBooking(room.getId(), request);
+
+        assertThat(bookingRepository.findByGroupConfirmationCode("GROUPOFOTHERS001")).isEmpty();
+        assertThat(bookingRepository.findAll()).singleElement()
+                .extracting(BookedRoom::getGroupConfirmationCode).isNull();
+    }
+
+    private static BookedRoom booking(Room room, LocalDate checkIn, LocalDate checkOut, String confirmationCode) {
+        BookedRoom booking = new BookedRoom();
+        booking.setCheckInDate(checkIn);
+        booking.setCheckOutDate(checkOut);
+        booking.setGuestFullName("Ada Guest");
+        booking.setGuestEmail("ada@example.com");
+        booking.setNumOfAdults(2);
+        booking.setBookingConfirmationCode(confirmationCode);
+        booking.setRoom(room);
+        return booking;
+    }
+}
@@ -0,0 +1,126 @@
+package com.suneth.hotel.service;
+
+import com.suneth.hotel.IntegrationTestSupport;
+import com.suneth.hotel.exception.InvalidBookingRequestException;
+import com.suneth.hotel.model.BookedRoom;
+import com.suneth.hotel.model.Room;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "hotel.availability.engine=calendar")
+class CalendarRoomServiceImplTest extends IntegrationTestSupport {
+
+    private static final List<String> ROOM_TYPES = List.of("Deluxe", "Deluxe Suite", "Single", "Family");
+    private static final MultipartFile NO_PHOTO = new MockMultipartFile("photo", new byte[0]);
+
+    @Autowired
+    private IRoomService roomService;
+
+    @Autowired
+    private RoomServiceImpl queryRoomService;
+
+    @Autowired
+    private RoomAvailabilityCalendar calendar;
+
+    @Autowired
+    private IBookingService bookingService;
+
+    // The calendar must return exactly the rooms the database query returns, after any mix of
+    // bookings and cancellations
+    @Test
+    void calendarAgreesWithDatabaseQuery() {
+        assertThat(roomService).isInstanceOf(CalendarRoomServiceImpl.class);
+        Random random = new Random(11);
+        List<Long> roomIds = new ArrayList<>();
+        for (int i = 0; i < 90; i++) {
+            roomIds.add(createRoom(ROOM_TYPES.get(i % ROOM_TYPES.size()), 80 + i).getId());
+        }
+        calendar.rebuild();
+
+        LocalDate today = LocalDate.now();
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            BookedRoom booking = new BookedRoom();
+            booking.setCheckInDate(today.plusDays(random.nextInt(90)));
+            booking.setCheckOutDate(booking.getCheckInDate().plusDays(1 + random.nextInt(6)));
+            booking.setGuestFullName("Guest " + i);
+            try {
+                bookingService.saveBooking(roomIds.get(random.nextInt(roomIds.size())), booking);
+                bookingIds.add(booking.getBookingId());
+            } catch (InvalidBookingRequestException e) {
+                // Overlaps an earlier booking of the same room
+            }
+            if (!bookingIds.isEmpty() && random.nextInt(5) == 0) {
+                bookingService.cancelBooking(bookingIds.remove(random.nextInt(bookingIds.size())));
+            }
+        }
+
+        for (int i = 0; i < 300; i++) {
+            LocalDate checkIn = today.plusDays(random.nextInt(100));
+            LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(10));
+            String roomType = random.nextBoolean() ? ROOM_TYPES.get(random.nextInt(ROOM_TYPES.size())) : "Suite";
+
+            assertThat(ids(roomService.getAvailableRooms(checkIn, checkOut, roomType)))
+                    .as("%s to %s, type %s", checkIn, checkOut, roomType)
+                    .containsExactlyElementsOf(ids(queryRoomService.getAvailableRooms(checkIn, checkOut, roomType)));
+        }
+    }
+
+    // Adding, retyping and deleting single rooms updates the calendar in place, including a room
+    // whose slot starts another word, and keeps the booked nights of every other room
+    @Test
+    void calendarFollowsSingleRoomChanges() throws IOException {
+        List<Long> roomIds = new ArrayList<>();
+        for (int i = 0; i < 63; i++) {
+            roomIds.add(createRoom(ROOM_TYPES.get(i % ROOM_TYPES.size()), 100).getId());
+        }
+        calendar.rebuild();
+        LocalDate checkIn = LocalDate.now().plusDays(3);
+        LocalDate checkOut = checkIn.plusDays(2);
+        for (int i = 0; i < roomIds.size(); i += 2) {
+            book(roomIds.get(i), checkIn, checkOut);
+        }
+
+        Room sixtyFourth = roomService.addNewRoom(NO_PHOTO, "Single", BigDecimal.valueOf(70));
+        Room sixtyFifth = roomService.addNewRoom(NO_PHOTO, "Family", BigDecimal.valueOf(140));
+        book(sixtyFifth.getId(), checkIn, checkOut);
+        roomService.updateRoom(roomIds.get(1), "Family", null, null);
+        roomService.updateRoom(roomIds.get(4), "Single", null, null);
+        roomService.deleteRoom(roomIds.get(6));
+        roomService.deleteRoomsByType("Deluxe Suite");
+
+        for (String roomType : ROOM_TYPES) {
+            for (LocalDate from = checkIn.minusDays(1); from.isBefore(checkOut.plusDays(1)); from = from.plusDays(1)) {
+                assertThat(ids(roomService.getAvailableRooms(from, from.plusDays(1), roomType)))
+                        .as("%s, type %s", from, roomType)
+                        .containsExactlyElementsOf(ids(queryRoomService.getAvailableRooms(from, from.plusDays(1), roomType)));
+            }
+        }
+        assertThat(ids(roomService.getAvailableRooms(checkOut, checkOut.plusDays(1), "Single")))
+                .contains(sixtyFourth.getId(), roomIds.get(4));
+    }
+
+    private void book(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        BookedRoom booking = new BookedRoom();
+        booking.setCheckInDate(checkIn);
+        booking.setCheckOutDate(checkOut);
+        booking.setGuestFullName("Guest");
+        bookingService.saveBooking(roomId, booking);
+    }
+
+    private static List<Long> ids(List<Room> rooms) {
+        return rooms.stream().map(Room::getId).sorted().toList();
+    }
+}
@@ -0,0 +1,84 @@
+package com.suneth.hotel.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class CatalogVersionTest {
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // All instances share the version row; each reads it again once its TTL has passed
+    @Test
+    void sharesTheVersionBetweenInstances() {
+        CatalogVersion otherInstance = new CatalogVersion(jdbcTemplate, Duration.ZERO);
+        CatalogVersion.Stamp before = catalogVersion.current();
+
+        otherInstance.changed();
+
+        assertThat(catalogVersion.current()).isEqualTo(before);
+        CatalogVersion.Stamp after = new CatalogVersion(jdbcTemplate, Duration.ZERO).current();
+        assertThat(after.version()).isEqualTo(before.version() + 1);
+        assertThat(after.etag()).isNotEqualTo(before.etag());
+    }
+
+    // A transaction bumps the version once however many changes it makes, and not at all if it rolls back
+    @Test
+    void bumpsOncePerCommittedTransaction() {
+        long before = catalogVersion.current().version();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            catalogVersion.changed();
+            catalogVersion.changed();
+        });
+        assertThat(catalogVersion.current().version()).isEqualTo(before + 1);
+
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            catalogVersion.changed();
+            throw new IllegalStateException("rolled back");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(catalogVersion.current().version()).isEqualTo(before + 1);
+    }
+
+    // Changes recorded for later leave the version row alone inside their transaction and are bumped
+    // together once committed
+    @Test
+    void coalescesChangesRecordedForLater() {
+        long before = storedVersion();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            catalogVersion.changedSoon();
+            catalogVersion.changedSoon();
+            assertThat(storedVersion()).isEqualTo(before);
+        });
+        catalogVersion.bumpPending();
+        catalogVersion.bumpPending();
+        assertThat(storedVersion()).isEqualTo(before + 1);
+
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            catalogVersion.changedSoon();
+            throw new IllegalStateException("rolled back");
+        })).isInstanceOf(IllegalStateException.class);
+        catalogVersion.bumpPending();
+        assertThat(storedVersion()).isEqualTo(before + 1);
+    }
+
+    private long storedVersion() {
+        return jdbcTemplate.queryForObject("SELECT version FROM catalog_version WHERE id = 1", Long.class);
+    }
+}
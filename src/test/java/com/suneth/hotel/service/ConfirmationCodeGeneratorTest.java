@@ -0,0 +1,110 @@
+package com.suneth.hotel.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConfirmationCodeGeneratorTest {
+
+    private static final long NOW = 1_760_000_000_000L;
+
+    // Threads hammering one generator within the same second must never see the same code
+    @Test
+    void codesAreUniqueAcrossThreads() throws InterruptedException {
+        ConfirmationCodeGenerator generator = new ConfirmationCodeGenerator(7, () -> NOW);
+        Set<String> codes = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 25_000; i++) {
+                    codes.add(generator.next());
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(codes).hasSize(200_000);
+    }
+
+    @Test
+    void nodesNeverShareCodes() {
+        ConfirmationCodeGenerator first = new ConfirmationCodeGenerator(1, () -> NOW);
+        ConfirmationCodeGenerator second = new ConfirmationCodeGenerator(2, () -> NOW);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(first.next()).isNotEqualTo(second.next());
+        }
+    }
+
+    @Test
+    void codesHaveFixedLengthAndValidCheckDigit() {
+        ConfirmationCodeGenerator generator = new ConfirmationCodeGenerator(42, () -> NOW);
+        String code = generator.next();
+        assertThat(code).hasSize(ConfirmationCodeGenerator.CODE_LENGTH).containsOnlyDigits();
+        assertThat(code.substring(13, 15)).isEqualTo("42");
+        assertThat(ConfirmationCodeGenerator.isWellFormed(code)).isTrue();
+    }
+
+    // Every single mistyped digit is caught by the check digit
+    @Test
+    void singleDigitErrorsAreDetected() {
+        String code = new ConfirmationCodeGenerator(3, () -> NOW).next();
+        for (int i = 0; i < code.length(); i++) {
+            for (char digit = '0'; digit <= '9'; digit++) {
+                if (digit != code.charAt(i)) {
+                    String typo = code.substring(0, i) + digit + code.substring(i + 1);
+                    assertThat(ConfirmationCodeGenerator.isWellFormed(typo)).as(typo).isFalse();
+                }
+            }
+        }
+    }
+
+    @Test
+    void legacyCodesStayWellFormed() {
+        assertThat(ConfirmationCodeGenerator.isWellFormed("0123456789")).isTrue();
+        assertThat(ConfirmationCodeGenerator.isWellFormed("01234x6789")).isFalse();
+        assertThat(ConfirmationCodeGenerator.isWellFormed("12345")).isFalse();
+        assertThat(ConfirmationCodeGenerator.isWellFormed(null)).isFalse();
+        // Duplicated legacy codes re-issued by the V6_1 migration
+        assertThat(ConfirmationCodeGenerator.isWellFormed("R41")).isTrue();
+        assertThat(ConfirmationCodeGenerator.isWellFormed("R")).isFalse();
+        assertThat(ConfirmationCodeGenerator.isWellFormed("R4x")).isFalse();
+    }
+
+    // After a restart the counter continues after the codes issued ahead of the clock before it
+    @Test
+    void resumesAfterCodesIssuedAheadOfTheClock() {
+        ConfirmationCodeGenerator before = new ConfirmationCodeGenerator(5, () -> NOW);
+        List<String> issued = new ArrayList<>();
+        for (int i = 0; i < 30_000; i++) {
+            issued.add(before.next());
+        }
+
+        ConfirmationCodeGenerator restarted = new ConfirmationCodeGenerator(5, () -> NOW);
+        restarted.resumeAfter(issued.get(issued.size() - 1));
+        restarted.resumeAfter(new ConfirmationCodeGenerator(6, () -> NOW + 60_000).next());
+        restarted.resumeAfter("9999999999");
+        restarted.resumeAfter("R999999999999999");
+
+        String next = restarted.next();
+        assertThat(issued).doesNotContain(next);
+        assertThat(next.substring(0, 13)).isEqualTo(nextTick(issued.get(issued.size() - 1)));
+    }
+
+    @Test
+    void rejectsNodeIdOutOfRange() {
+        assertThatThrownBy(() -> new ConfirmationCodeGenerator(100, () -> NOW))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String nextTick(String code) {
+        return String.format("%013d", Long.parseLong(code.substring(0, 13)) + 1);
+    }
+}
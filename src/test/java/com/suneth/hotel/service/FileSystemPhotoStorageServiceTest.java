@@ -0,0 +1,90 @@
+package com.suneth.hotel.service;
+
+import com.suneth.hotel.config.PhotoStorageProperties;
+import com.suneth.hotel.exception.PhotoRetrievalException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileSystemPhotoStorageServiceTest {
+
+    private static final byte[] PHOTO = "photo content".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    private Path directory;
+
+    // The key is the SHA-256 of the content, and the file sits in a directory named after its first two characters
+    @Test
+    void storesPhotoUnderItsContentHash() throws Exception {
+        String hash = storage().store(new ByteArrayInputStream(PHOTO));
+
+        assertThat(hash).isEqualTo(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(PHOTO)));
+        assertThat(directory.resolve(hash.substring(0, 2)).resolve(hash)).hasBinaryContent(PHOTO);
+        try (InputStream content = storage().load(hash).getInputStream()) {
+            assertThat(content.readAllBytes()).isEqualTo(PHOTO);
+        }
+    }
+
+    // Uploading the same content twice keeps one file and leaves no temp files behind
+    @Test
+    void storesIdenticalContentOnce() throws Exception {
+        FileSystemPhotoStorageService storage = storage();
+        String first = storage.store(new ByteArrayInputStream(PHOTO));
+        String second = storage.store(new ByteArrayInputStream(PHOTO));
+
+        assertThat(second).isEqualTo(first);
+        assertThat(files()).containsExactly(directory.resolve(first.substring(0, 2)).resolve(first));
+    }
+
+    // An upload that breaks off midway stores nothing and removes its temp file
+    @Test
+    void removesTempFileWhenStoreFails() throws Exception {
+        InputStream failing = new SequenceInputStream(new ByteArrayInputStream(PHOTO), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("connection reset");
+            }
+        });
+
+        assertThatThrownBy(() -> storage().store(failing)).isInstanceOf(IOException.class);
+        assertThat(files()).isEmpty();
+    }
+
+    // Only well-formed hashes are looked up, so a key can never point outside the photo directory
+    @Test
+    void rejectsKeysThatAreNotHashes() throws Exception {
+        FileSystemPhotoStorageService storage = storage();
+        storage.store(new ByteArrayInputStream(PHOTO));
+
+        assertThat(storage.exists(null)).isFalse();
+        assertThat(storage.exists("../" + "a".repeat(61))).isFalse();
+        assertThat(storage.exists("A".repeat(64))).isFalse();
+        assertThatThrownBy(() -> storage.load("0".repeat(64))).isInstanceOf(PhotoRetrievalException.class);
+    }
+
+    private FileSystemPhotoStorageService storage() throws IOException {
+        PhotoStorageProperties properties = new PhotoStorageProperties();
+        properties.setDirectory(directory.toString());
+        return new FileSystemPhotoStorageService(properties);
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).toList();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.suneth.hotel.service;
+
+import com.suneth.hotel.IntegrationTestSupport;
+import com.suneth.hotel.model.BookedRoom;
+import com.suneth.hotel.model.Room;
+import com.suneth.hotel.response.FlexibleStayResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class FlexibleStaySearchTest extends IntegrationTestSupport {
+
+    private static final LocalDate WINDOW_START = LocalDate.of(2037, 3, 1);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    // One call answers every check-in date of the window, with bookings around the window edges
+    // taken into account and rooms of other types or without a photo left out
+    @Test
+    void searchesEveryStayInTheWindow() throws Exception {
+        Room cheap = createRoom("Deluxe", 120, true);
+        Room dear = createRoom("Deluxe", 180, true);
+        createRoom("Deluxe", 50, false);
+        createRoom("Single", 40, true);
+        book(cheap, WINDOW_START.minusDays(2), WINDOW_START.plusDays(1));
+        book(cheap, WINDOW_START.plusDays(4), WINDOW_START.plusDays(5));
+        book(dear, WINDOW_START.plusDays(3), WINDOW_START.plusDays(9));
+
+        mockMvc.perform(get("/api/v1/rooms/available-rooms")
+                        .param("windowStart", WINDOW_START.toString())
+                        .param("windowEnd", WINDOW_START.plusDays(7).toString())
+                        .param("nights", "2")
+                        .param("roomType", "Deluxe"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(6))
+                .andExpect(jsonPath("$[0].checkInDate").value("2037-03-01"))
+                .andExpect(jsonPath("$[0].checkOutDate").value("2037-03-03"))
+                .andExpect(jsonPath("$[0].availableRooms").value(1))
+                .andExpect(jsonPath("$[0].cheapestRoomId").value(dear.getId()))
+                .andExpect(jsonPath("$[1].availableRooms").value(2))
+                .andExpect(jsonPath("$[1].cheapestPrice").value(120))
+                .andExpect(jsonPath("$[3].availableRooms").value(0))
+                .andExpect(jsonPath("$[3].cheapestRoomId").doesNotExist())
+                .andExpect(jsonPath("$[5].checkInDate").value("2037-03-06"))
+                .andExpect(jsonPath("$[5].cheapestRoomId").value(cheap.getId()));
+    }
+
+    @Test
+    void rejectsAStayLongerThanTheWindow() throws Exception {
+        mockMvc.perform(get("/api/v1/rooms/available-rooms")
+                        .param("windowStart", "2037-03-01")
+                        .param("windowEnd", "2037-03-03")
+                        .param("nights", "3")
+                        .param("roomType", "Deluxe"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // Enough rooms to be split across the fork-join pool; the merged tallies must match checking
+    // every room and check-in date one by one
+    @Test
+    void parallelEvaluationMatchesABruteForceCheck() {
+        LocalDate windowEnd = WINDOW_START.plusDays(30);
+        int nights = 3;
+        FlexibleStaySearch search = new FlexibleStaySearch(WINDOW_START, windowEnd, nights);
+        Random random = new Random(11);
+        List<FlexibleStaySearch.RoomNights> rooms = new ArrayList<>();
+        for (long roomId = 1; roomId <= 1000; roomId++) {
+            BitSet booked = new BitSet();
+            for (int i = 0; i < 4; i++) {
+                LocalDate checkIn = WINDOW_START.plusDays(random.nextInt(40) - 5);
+                search.markBooked(booked, checkIn, checkIn.plusDays(1 + random.nextInt(4)));
+            }
+            rooms.add(new FlexibleStaySearch.RoomNights(roomId, BigDecimal.valueOf(50 + random.nextInt(20)), booked));
+        }
+
+        List<FlexibleStayResponse> stays = search.evaluate(rooms);
+
+        assertThat(stays).hasSize(28);
+        for (int start = 0; start < stays.size(); start++) {
+            int available = 0;
+            FlexibleStaySearch.RoomNights cheapest = null;
+            for (FlexibleStaySearch.RoomNights room : rooms) {
+                if (room.bookedNights().get(start, start + nights).isEmpty()) {
+                    available++;
+                    if (cheapest == null || room.price().compareTo(cheapest.price()) < 0) {
+                        cheapest = room;
+                    }
+                }
+            }
+            FlexibleStayResponse stay = stays.get(start);
+            assertThat(stay.getCheckInDate()).isEqualTo(WINDOW_START.plusDays(start));
+            assertThat(stay.getAvailableRooms()).isEqualTo(available);
+            assertThat(stay.getCheapestRoomId()).isEqualTo(cheapest != null ? cheapest.roomId() : null);
+        }
+    }
+
+    private void book(Room room, LocalDate checkIn, LocalDate checkOut) {
+        BookedRoom booking = new BookedRoom();
+        booking.setCheckInDate(checkIn);
+        booking.setCheckOutDate(checkOut);
+        booking.setGuestFullName("Flexible Guest");
+        booking.setRoom(room);
+        bookingRepository.save(booking);
+    }
+}
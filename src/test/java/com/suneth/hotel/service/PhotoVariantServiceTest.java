@@ -0,0 +1,78 @@
+package com.suneth.hotel.service;
+
+import com.suneth.hotel.IntegrationTestSupport;
+import com.suneth.hotel.model.PhotoStatus;
+import com.suneth.hotel.model.PhotoVariant;
+import com.suneth.hotel.model.Room;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class PhotoVariantServiceTest extends IntegrationTestSupport {
+
+    @Autowired
+    private IRoomService roomService;
+
+    @Autowired
+    private IPhotoStorageService photoStorageService;
+
+    // Adding a room returns before the variants exist; they appear later, scaled to each variant's width
+    @Test
+    void generatesScaledVariantsInBackground() throws Exception {
+        Room room = roomService.addNewRoom(photo("image/png", png(2400, 1200)), "Deluxe", BigDecimal.valueOf(120));
+        assertThat(room.getPhotoStatus()).isEqualTo(PhotoStatus.PENDING);
+
+        Room processed = awaitProcessed(room.getId());
+        assertThat(processed.getPhotoStatus()).isEqualTo(PhotoStatus.READY);
+        for (PhotoVariant variant : PhotoVariant.values()) {
+            String hash = processed.getPhotoHash(variant);
+            assertThat(hash).isNotEqualTo(processed.getPhotoHash());
+            try (InputStream content = photoStorageService.load(hash).getInputStream()) {
+                BufferedImage image = ImageIO.read(content);
+                assertThat(image.getWidth()).isEqualTo(variant.getMaxWidth());
+                assertThat(image.getHeight()).isEqualTo(variant.getMaxWidth() / 2);
+            }
+        }
+    }
+
+    // Content that is not an image keeps being served as the original
+    @Test
+    void marksUnreadablePhotoAsFailed() throws Exception {
+        Room room = roomService.addNewRoom(photo("image/jpeg", "not an image".getBytes()), "Single", BigDecimal.TEN);
+
+        Room processed = awaitProcessed(room.getId());
+        assertThat(processed.getPhotoStatus()).isEqualTo(PhotoStatus.FAILED);
+        assertThat(processed.getPhotoHash(PhotoVariant.CARD)).isEqualTo(processed.getPhotoHash());
+    }
+
+    private Room awaitProcessed(Long roomId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        Room room = roomRepository.findById(roomId).orElseThrow();
+        while (room.getPhotoStatus() == PhotoStatus.PENDING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            room = roomRepository.findById(roomId).orElseThrow();
+        }
+        return room;
+    }
+
+    private static MockMultipartFile photo(String contentType, byte[] content) {
+        return new MockMultipartFile("photo", "photo", contentType, content);
+    }
+
+    private static byte[] png(int width, int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", bytes);
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,110 @@
+package com.suneth.hotel.service;
+
+import com.suneth.hotel.HotelMngBackendApplication;
+import com.suneth.hotel.model.BookedRoom;
+import com.suneth.hotel.model.Room;
+import com.suneth.hotel.repository.BookingRepository;
+import com.suneth.hotel.repository.OutboxEventRepository;
+import com.suneth.hotel.repository.RoomRepository;
+import com.suneth.hotel.repository.RoomTypeDailyStatsRepository;
+import com.suneth.hotel.repository.RoomTypeRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs two application instances on the same database, each with its own availability calendar, and
+ * checks that searches on one see the rooms added, booked, cancelled and deleted through the other
+ * once its calendar has synced.
+ */
+class RoomAvailabilityCalendarSyncTest {
+
+    private static final String ROOM_TYPE = "Sync Suite";
+    private static final LocalDate CHECK_IN = LocalDate.now().plusDays(10);
+    private static final LocalDate CHECK_OUT = CHECK_IN.plusDays(3);
+
+    private static ConfigurableApplicationContext instanceA;
+    private static ConfigurableApplicationContext instanceB;
+
+    @BeforeAll
+    static void startInstances() {
+        instanceA = start(1);
+        instanceB = start(2);
+    }
+
+    // The database is shared with the other Spring Boot tests, so everything written here is deleted
+    @AfterAll
+    static void stopInstances() {
+        if (instanceA != null) {
+            instanceA.getBean(OutboxEventRepository.class).deleteAllInBatch();
+            instanceA.getBean(BookingRepository.class).deleteAllInBatch();
+            instanceA.getBean(RoomRepository.class).deleteAllInBatch();
+            instanceA.getBean(RoomTypeRepository.class).deleteAllInBatch();
+            instanceA.getBean(RoomTypeDailyStatsRepository.class).deleteAllInBatch();
+            instanceA.close();
+        }
+        if (instanceB != null) {
+            instanceB.close();
+        }
+    }
+
+    @Test
+    void searchesSeeChangesMadeThroughTheOtherInstance() throws IOException {
+        IRoomService roomsOfA = instanceA.getBean(IRoomService.class);
+        IBookingService bookingsOfA = instanceA.getBean(IBookingService.class);
+        RoomAvailabilityCalendar calendarOfB = instanceB.getBean(RoomAvailabilityCalendar.class);
+
+        Room room = roomsOfA.addNewRoom(new MockMultipartFile("photo", new byte[0]), ROOM_TYPE, BigDecimal.valueOf(150));
+        // B learns of the new type on its own within minutes
+        instanceB.getBean(RoomTypeServiceImpl.class).loadIndex();
+        calendarOfB.syncChangedRooms();
+        assertThat(availableOnB()).containsExactly(room.getId());
+
+        BookedRoom booking = new BookedRoom();
+        booking.setCheckInDate(CHECK_IN);
+        booking.setCheckOutDate(CHECK_OUT);
+        booking.setGuestFullName("Guest");
+        bookingsOfA.saveBooking(room.getId(), booking);
+        calendarOfB.syncChangedRooms();
+        assertThat(availableOnB()).isEmpty();
+
+        bookingsOfA.cancelBooking(booking.getBookingId());
+        calendarOfB.syncChangedRooms();
+        assertThat(availableOnB()).containsExactly(room.getId());
+
+        roomsOfA.deleteRoom(room.getId());
+        calendarOfB.syncChangedRooms();
+        assertThat(availableOnB()).isEmpty();
+    }
+
+    private static ConfigurableApplicationContext start(int nodeId) {
+        return new SpringApplicationBuilder(HotelMngBackendApplication.class)
+                .properties(
+                        "server.port=0",
+                        "hotel.booking.node-id=" + nodeId,
+                        "hotel.availability.engine=calendar",
+                        // The test syncs the calendars itself
+                        "hotel.availability.sync-interval-seconds=3600")
+                .run();
+    }
+
+    // Ids of the rooms B's calendar finds free for the stay, also compared with B's database query
+    private static List<Long> availableOnB() {
+        List<Long> fromCalendar = instanceB.getBean(IRoomService.class)
+                .getAvailableRooms(CHECK_IN, CHECK_OUT, ROOM_TYPE).stream().map(Room::getId).toList();
+        List<Long> fromDatabase = instanceB.getBean(RoomServiceImpl.class)
+                .getAvailableRooms(CHECK_IN, CHECK_OUT, ROOM_TYPE).stream().map(Room::getId).toList();
+        assertThat(fromCalendar).isEqualTo(fromDatabase);
+        return fromCalendar;
+    }
+}
@@ -0,0 +1,64 @@
+package com.suneth.hotel.service;
+
+import com.suneth.hotel.IntegrationTestSupport;
+import com.suneth.hotel.model.BookedRoom;
+import com.suneth.hotel.model.Room;
+import com.suneth.hotel.model.RoomDetails;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class RoomCacheEvictorTest extends IntegrationTestSupport {
+
+    @Autowired
+    private IRoomService roomService;
+
+    @Autowired
+    private IBookingService bookingService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    // The cache holds immutable details, and a booking drops them so the booked flag is current
+    @Test
+    void bookingIsNotServedStale() {
+        Room room = createRoom("Suite", 200);
+        assertThat(roomService.getRoomById(room.getId()))
+                .hasValueSatisfying(details -> assertThat(details.isBooked()).isFalse());
+        assertThat(cacheManager.getCache(RoomServiceImpl.ROOMS_CACHE).get(room.getId(), RoomDetails.class)).isNotNull();
+
+        BookedRoom booking = new BookedRoom();
+        booking.setCheckInDate(LocalDate.of(2031, 7, 1));
+        booking.setCheckOutDate(LocalDate.of(2031, 7, 3));
+        booking.setGuestFullName("Ada Guest");
+        bookingService.saveBooking(room.getId(), booking);
+
+        assertThat(roomService.getRoomById(room.getId()))
+                .hasValueSatisfying(details -> assertThat(details.isBooked()).isTrue());
+    }
+
+    // A price change by type is evicted once its transaction has committed
+    @Test
+    void priceChangeIsNotServedStale() {
+        Room room = createRoom("Suite", 200);
+        assertThat(roomService.getRoomById(room.getId()).orElseThrow().roomPrice()).isEqualByComparingTo("200");
+
+        roomService.adjustPricesByType("Suite", BigDecimal.TEN);
+
+        assertThat(roomService.getRoomById(room.getId()).orElseThrow().roomPrice()).isEqualByComparingTo("220");
+    }
+
+    // Rooms that do not exist are not cached, so a room created under that id later is found
+    @Test
+    void missingRoomIsNotCached() {
+        assertThat(roomService.getRoomById(Long.MAX_VALUE)).isEmpty();
+        assertThat(cacheManager.getCache(RoomServiceImpl.ROOMS_CACHE).get(Long.MAX_VALUE)).isNull();
+    }
+}
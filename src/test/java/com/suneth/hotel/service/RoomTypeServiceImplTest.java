@@ -0,0 +1,91 @@
+package com.suneth.hotel.service;
+
+import com.suneth.hotel.IntegrationTestSupport;
+import com.suneth.hotel.model.Room;
+import com.suneth.hotel.model.RoomType;
+import com.suneth.hotel.repository.RoomTypeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RoomTypeServiceImplTest extends IntegrationTestSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RoomTypeRepository roomTypeRepository;
+
+    @Autowired
+    private RoomTypeServiceImpl roomTypeServiceImpl;
+
+    // A name that is a type resolves to that type alone; otherwise types starting with it match,
+    // and failing that types containing it
+    @Test
+    void searchesByExactTypeBeforeFuzzyMatching() throws Exception {
+        Room harbour = createRoom("Harbour", 90, true);
+        Room harbourSuite = createRoom("Harbour Suite", 90, true);
+        Room harbourLoft = createRoom("Harbour Loft", 90, true);
+
+        search("harbour").andExpect(jsonPath("$[*].id").value(containsInAnyOrder(harbour.getId().intValue())));
+        search("Harbour S").andExpect(jsonPath("$[*].id").value(containsInAnyOrder(harbourSuite.getId().intValue())));
+        search("Harb").andExpect(jsonPath("$[*].id").value(containsInAnyOrder(harbour.getId().intValue(),
+                harbourSuite.getId().intValue(), harbourLoft.getId().intValue())));
+        search("our Lo").andExpect(jsonPath("$[*].id").value(containsInAnyOrder(harbourLoft.getId().intValue())));
+        mockMvc.perform(get("/api/v1/rooms/available-rooms")
+                        .param("checkInDate", LocalDate.now().plusDays(10).toString())
+                        .param("checkOutDate", LocalDate.now().plusDays(12).toString())
+                        .param("roomType", "Lighthouse"))
+                .andExpect(status().isNoContent());
+    }
+
+    // Searches for a type nobody has created reload the index at most once per interval; the
+    // scheduled refresh picks up types created elsewhere in the meantime
+    @Test
+    void throttlesIndexReloadsOnMisses() {
+        roomTypeService.findMatchingTypeIds("Zephyr");
+        RoomType zephyr = roomTypeRepository.save(new RoomType("Zephyr"));
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(roomTypeService.findMatchingTypeIds("Zephyr")).isEmpty();
+        }
+
+        roomTypeServiceImpl.refreshIndex();
+        assertThat(roomTypeService.findMatchingTypeIds("Zephyr")).containsExactly(zephyr.getId());
+    }
+
+    @Test
+    void savesTypeAttributes() throws Exception {
+        mockMvc.perform(post("/api/v1/room-types").param("name", "Attic").param("capacity", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.capacity").value(3));
+        mockMvc.perform(post("/api/v1/room-types").param("name", "Attic").param("description", "Top floor"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.capacity").value(3))
+                .andExpect(jsonPath("$.description").value("Top floor"));
+
+        assertThat(roomTypeService.getRoomTypes()).filteredOn(type -> type.getName().equals("Attic")).hasSize(1);
+    }
+
+    private ResultActions search(String roomType) throws Exception {
+        return mockMvc.perform(get("/api/v1/rooms/available-rooms")
+                        .param("checkInDate", LocalDate.now().plusDays(10).toString())
+                        .param("checkOutDate", LocalDate.now().plusDays(12).toString())
+                        .param("roomType", roomType))
+                .andExpect(status().isOk());
+    }
+}